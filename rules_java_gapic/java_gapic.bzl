@@ -18,57 +18,19 @@ NO_GRPC_CONFIG_ALLOWLIST = ["library"]
 
 def _java_gapic_postprocess_srcjar_impl(ctx):
     gapic_srcjar = ctx.file.gapic_srcjar
-    output_srcjar_name = ctx.label.name
     output_main = ctx.outputs.main
     output_test = ctx.outputs.test
     output_resource_name = ctx.outputs.resource_name
-    formatter = ctx.executable.formatter
-
-    output_dir_name = ctx.label.name
-    output_dir_path = "%s/%s" % (output_main.dirname, output_dir_name)
 
+    # The generator writes the main, resource name and test srcjars already formatted, so they only
+    # need to be extracted from the protoc output.
     script = """
-    unzip -q {gapic_srcjar}
-    # Sync'd to the output file name in Writer.java.
-    unzip -q temp-codegen.srcjar -d {output_dir_path}
-    # This may fail if there are spaces and/or too many files (exceed max length of command length).
-    {formatter} --replace $(find {output_dir_path} -type f -printf "%p ")
-    WORKING_DIR=`pwd`
-
-    # Main source files.
-    cd {output_dir_path}/src/main/java
-    zip -r $WORKING_DIR/{output_srcjar_name}.srcjar ./
-
-    # Resource name source files.
-    PROTO_DIR=$WORKING_DIR/{output_dir_path}/proto/src/main/java
-    PROTO_SRCJAR=$WORKING_DIR/{output_srcjar_name}-resource-name.srcjar
-    if [ ! -d $PROTO_DIR ]
-    then
-      # Some APIs don't have resource name helpers, like BigQuery v2.
-      # Create an empty file so we can finish building. Gating the resource name rule definition
-      # on file existences go against Bazel's design patterns, so we'll simply delete all empty
-      # files during the final packaging process (see java_gapic_pkg.bzl)
-      mkdir -p $PROTO_DIR
-      touch $PROTO_DIR/PlaceholderFile.java
-    fi
-    cd $WORKING_DIR/{output_dir_path}/proto/src/main/java
-    zip -r $PROTO_SRCJAR ./
-
-    # Test source files.
-    cd $WORKING_DIR/{output_dir_path}/src/test/java
-    zip -r $WORKING_DIR/{output_srcjar_name}-tests.srcjar ./
-
-    cd $WORKING_DIR
-
-    mv {output_srcjar_name}.srcjar {output_main}
-    mv {output_srcjar_name}-resource-name.srcjar {output_resource_name}
-    mv {output_srcjar_name}-tests.srcjar {output_test}
+    # Sync'd to the output file name in Generator.java and the srcjar suffixes in Writer.java.
+    unzip -p {gapic_srcjar} temp-codegen.srcjar > {output_main}
+    unzip -p {gapic_srcjar} temp-codegen-resource-name.srcjar > {output_resource_name}
+    unzip -p {gapic_srcjar} temp-codegen-test.srcjar > {output_test}
     """.format(
         gapic_srcjar = gapic_srcjar.path,
-        output_srcjar_name = output_srcjar_name,
-        formatter = formatter,
-        output_dir_name = output_dir_name,
-        output_dir_path = output_dir_path,
         output_main = output_main.path,
         output_resource_name = output_resource_name.path,
         output_test = output_test.path,
@@ -76,7 +38,6 @@ def _java_gapic_postprocess_srcjar_impl(ctx):
 
     ctx.actions.run_shell(
         inputs = [gapic_srcjar],
-        tools = [formatter],
         command = script,
         outputs = [output_main, output_resource_name, output_test],
     )
@@ -84,11 +45,6 @@ def _java_gapic_postprocess_srcjar_impl(ctx):
 _java_gapic_postprocess_srcjar = rule(
     attrs = {
         "gapic_srcjar": attr.label(mandatory = True, allow_single_file = True),
-        "formatter": attr.label(
-            default = Label("//:google_java_format_binary"),
-            executable = True,
-            cfg = "host",
-        ),
     },
     outputs = {
         "main": "%{name}.srcjar",
@@ -126,6 +82,14 @@ def _java_gapic_srcjar(
         service_yaml,
         # possible values are: "grpc", "rest", "grpc+rest"
         transport,
+        lazy_callables = False,
+        zero_copy_bytes = False,
+        prefetching_pagination = False,
+        async_overloads = False,
+        method_metrics = False,
+        copy_on_write_settings = False,
+        shared_test_client = False,
+        srcjar_compression_level = None,
         # Can be used to provide a java_library with a customized generator,
         # like the one which dumps descriptor to a file for future debugging.
         java_generator_name = "java_gapic",
@@ -152,10 +116,58 @@ def _java_gapic_srcjar(
     if transport:
         opt_args.append("transport=%s" % transport)
 
+    # Sets the zip compression level of the generated srcjars, from 0 to 9. Level 0 stores the files
+    # without compressing them, which is the fastest to write.
+    # Protoc invocation: --java_gapic_opt=srcjar-compression-level=0
+    if srcjar_compression_level != None:
+        opt_args.append("srcjar-compression-level=%s" % srcjar_compression_level)
+
     # Produces the GAPIC metadata file if this flag is set. to any value.
     # Protoc invocation: --java_gapic_opt=metadata
     plugin_args = ["metadata"]
 
+    # Generates transport stubs which create their callables on first use, rather than all at
+    # construction time.
+    # Protoc invocation: --java_gapic_opt=lazy-callables
+    if lazy_callables:
+        plugin_args.append("lazy-callables")
+
+    # Generates byte[] and ByteBuffer overloads of client methods with bytes arguments, which wrap
+    # the caller's buffer instead of copying it.
+    # Protoc invocation: --java_gapic_opt=zero-copy-bytes
+    if zero_copy_bytes:
+        plugin_args.append("zero-copy-bytes")
+
+    # Generates paged responses which can prefetch upcoming pages while the current one is consumed,
+    # and expose their elements as streams.
+    # Protoc invocation: --java_gapic_opt=prefetching-pagination
+    if prefetching_pagination:
+        plugin_args.append("prefetching-pagination")
+
+    # Generates *Async overloads returning ApiFuture for every unary client method.
+    # Protoc invocation: --java_gapic_opt=async-overloads
+    if async_overloads:
+        plugin_args.append("async-overloads")
+
+    # Generates transport stubs which can report per-method latency and payload sizes to a
+    # MetricsRecorder passed in at creation time. Cannot be combined with lazy_callables.
+    # Protoc invocation: --java_gapic_opt=method-metrics
+    if method_metrics:
+        plugin_args.append("method-metrics")
+
+    # Generates stub settings builders which copy a method's settings from the settings they were
+    # created from only when that method's builder is first accessed.
+    # Protoc invocation: --java_gapic_opt=copy-on-write-settings
+    if copy_on_write_settings:
+        plugin_args.append("copy-on-write-settings")
+
+    # Generates gRPC client tests which create their client once per test class, and only reset the
+    # mock services between test methods. Header assertions check the headers that the mock services
+    # received since their last reset. The tests of a class must not run in parallel.
+    # Protoc invocation: --java_gapic_opt=shared-test-client
+    if shared_test_client:
+        plugin_args.append("shared-test-client")
+
     proto_custom_library(
         name = name,
         deps = srcs,
@@ -179,6 +191,14 @@ def java_gapic_library(
         test_deps = [],
         # possible values are: "grpc", "rest", "grpc+rest"
         transport = None,
+        lazy_callables = False,
+        zero_copy_bytes = False,
+        prefetching_pagination = False,
+        async_overloads = False,
+        method_metrics = False,
+        copy_on_write_settings = False,
+        shared_test_client = False,
+        srcjar_compression_level = None,
         **kwargs):
     srcjar_name = name + "_srcjar"
     raw_srcjar_name = srcjar_name + "_raw"
@@ -190,6 +210,14 @@ def java_gapic_library(
         gapic_yaml = gapic_yaml,
         service_yaml = service_yaml,
         transport = transport,
+        lazy_callables = lazy_callables,
+        zero_copy_bytes = zero_copy_bytes,
+        prefetching_pagination = prefetching_pagination,
+        async_overloads = async_overloads,
+        method_metrics = method_metrics,
+        copy_on_write_settings = copy_on_write_settings,
+        shared_test_client = shared_test_client,
+        srcjar_compression_level = srcjar_compression_level,
         java_generator_name = "java_gapic",
         **kwargs
     )
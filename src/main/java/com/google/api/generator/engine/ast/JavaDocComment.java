@@ -18,6 +18,8 @@ import com.google.api.generator.engine.escaper.HtmlEscaper;
 import com.google.api.generator.engine.escaper.MetacharEscaper;
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -47,6 +49,14 @@ public abstract class JavaDocComment implements Comment {
   public abstract static class Builder {
     static final String PARAM_INDENT = "       ";
 
+    // Escaped descriptions, keyed by their raw text. The same proto descriptions are added many
+    // times within a generation run, e.g. across flattened overloads and generated classes.
+    private static final int DESCRIPTION_CACHE_SIZE = 10000;
+    private static final Cache<String, String> ESCAPED_DESCRIPTIONS =
+        CacheBuilder.newBuilder().maximumSize(DESCRIPTION_CACHE_SIZE).build();
+    private static final Cache<String, String> PARAM_DESCRIPTIONS =
+        CacheBuilder.newBuilder().maximumSize(DESCRIPTION_CACHE_SIZE).build();
+
     // The lack of a getter for these local variables in the external class is WAI.
     String throwsType = null;
     String throwsDescription = null;
@@ -70,7 +80,12 @@ public abstract class JavaDocComment implements Comment {
     }
 
     public Builder addParam(String name, String description) {
-      paramsList.add(String.format("@param %s %s", name, processParamComment(description)));
+      String paramComment = PARAM_DESCRIPTIONS.getIfPresent(description);
+      if (paramComment == null) {
+        paramComment = processParamComment(description);
+        PARAM_DESCRIPTIONS.put(description, paramComment);
+      }
+      paramsList.add(String.format("@param %s %s", name, paramComment));
       return this;
     }
 
@@ -80,7 +95,7 @@ public abstract class JavaDocComment implements Comment {
     }
 
     public Builder addComment(String comment) {
-      componentsList.add(HtmlEscaper.process(comment));
+      componentsList.add(escapeDescription(comment));
       return this;
     }
 
@@ -99,7 +114,7 @@ public abstract class JavaDocComment implements Comment {
     }
 
     public Builder addParagraph(String paragraph) {
-      componentsList.add(String.format("<p> %s", HtmlEscaper.process(paragraph)));
+      componentsList.add(String.format("<p> %s", escapeDescription(paragraph)));
       return this;
     }
 
@@ -151,6 +166,15 @@ public abstract class JavaDocComment implements Comment {
       return autoBuild();
     }
 
+    private static String escapeDescription(String description) {
+      String escapedDescription = ESCAPED_DESCRIPTIONS.getIfPresent(description);
+      if (escapedDescription == null) {
+        escapedDescription = HtmlEscaper.process(description);
+        ESCAPED_DESCRIPTIONS.put(description, escapedDescription);
+      }
+      return escapedDescription;
+    }
+
     // TODO(miraleung): Refactor param paragraph parsing to be more robust.
     private static String processParamComment(String rawComment) {
       StringBuilder processedCommentBuilder = new StringBuilder();
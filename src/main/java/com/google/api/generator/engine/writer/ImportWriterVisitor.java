@@ -124,11 +124,7 @@ public class ImportWriterVisitor implements AstNodeVisitor {
       updateShortNames();
     }
     return importShortNames.contains(shortName)
-        && imports.stream()
-            .filter(s -> s.equals(String.format("%s.%s", pakkage, shortName)))
-            .findFirst()
-            .orElse("")
-            .isEmpty();
+        && !imports.contains(String.format("%s.%s", pakkage, shortName));
   }
 
   @Override
@@ -63,10 +63,14 @@ import com.google.api.generator.engine.ast.VaporReference;
 import com.google.api.generator.engine.ast.Variable;
 import com.google.api.generator.engine.ast.VariableExpr;
 import com.google.api.generator.engine.ast.WhileStatement;
-import java.util.Arrays;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -127,14 +131,28 @@ public class JavaWriterVisitor implements AstNodeVisitor {
   private static final String OPERATOR_XOR = "^=";
   private static final String OPERATOR_MULTIPLE_AND_ASSIGNMENT = "*=";
 
+  // Formatted comments, keyed by their raw text. The same proto descriptions are rendered many
+  // times within a generation run, e.g. in the client, settings, stub and sample javadocs.
+  private static final int COMMENT_CACHE_SIZE = 10000;
+  private static final Cache<String, String> LINE_COMMENTS =
+      CacheBuilder.newBuilder().maximumSize(COMMENT_CACHE_SIZE).build();
+  private static final Cache<String, String> BLOCK_COMMENTS =
+      CacheBuilder.newBuilder().maximumSize(COMMENT_CACHE_SIZE).build();
+  private static final Cache<String, String> JAVADOC_COMMENTS =
+      CacheBuilder.newBuilder().maximumSize(COMMENT_CACHE_SIZE).build();
+
   private final StringBuffer buffer = new StringBuffer();
   private final ImportWriterVisitor importWriterVisitor = new ImportWriterVisitor();
+  // True while the body of an outermost class is being written. Imports for nested classes are
+  // collected along with those of their enclosing class, so they don't need another import pass.
+  private boolean isWritingClass;
 
   public JavaWriterVisitor() {}
 
   public void clear() {
     buffer.setLength(0);
     importWriterVisitor.clear();
+    isWritingClass = false;
   }
 
   public String write() {
@@ -738,36 +756,29 @@ public class JavaWriterVisitor implements AstNodeVisitor {
 
   /** =============================== COMMENT =============================== */
   public void visit(LineComment lineComment) {
-    // Split comments by new line and add `//` to each line.
-    String formattedSource =
-        JavaFormatter.format(
-            String.format("// %s", String.join("\n//", lineComment.comment().split("\\r?\\n"))));
-    buffer.append(formattedSource);
+    buffer.append(
+        formatComment(
+            LINE_COMMENTS,
+            lineComment.comment(),
+            // Split comments by new line and add `//` to each line.
+            comment -> String.format("// %s", String.join("\n//", splitLines(comment)))));
   }
 
   public void visit(BlockComment blockComment) {
     // Split comments by new line and embrace the comment block with `/* */`.
-    StringBuilder sourceComment = new StringBuilder();
-    sourceComment.append(BLOCK_COMMENT_START).append(NEWLINE);
-    Arrays.stream(blockComment.comment().split("\\r?\\n"))
-        .forEach(
-            comment -> {
-              sourceComment.append(String.format("%s %s%s", ASTERISK, comment, NEWLINE));
-            });
-    sourceComment.append(BLOCK_COMMENT_END);
-    buffer.append(JavaFormatter.format(sourceComment.toString()));
+    buffer.append(
+        formatComment(
+            BLOCK_COMMENTS,
+            blockComment.comment(),
+            comment -> createCommentBlock(BLOCK_COMMENT_START, comment)));
   }
 
   public void visit(JavaDocComment javaDocComment) {
-    StringBuilder sourceComment = new StringBuilder();
-    sourceComment.append(JAVADOC_COMMENT_START).append(NEWLINE);
-    Arrays.stream(javaDocComment.comment().split("\\r?\\n"))
-        .forEach(
-            comment -> {
-              sourceComment.append(String.format("%s %s%s", ASTERISK, comment, NEWLINE));
-            });
-    sourceComment.append(BLOCK_COMMENT_END);
-    buffer.append(JavaFormatter.format(sourceComment.toString()));
+    buffer.append(
+        formatComment(
+            JAVADOC_COMMENTS,
+            javaDocComment.comment(),
+            comment -> createCommentBlock(JAVADOC_COMMENT_START, comment)));
   }
 
   /** =============================== OTHER =============================== */
@@ -896,7 +907,11 @@ public class JavaWriterVisitor implements AstNodeVisitor {
     }
 
     // This must go first, so that we can check for type collisions.
-    classDefinition.accept(importWriterVisitor);
+    boolean isOutermostClass = !isWritingClass;
+    if (isOutermostClass) {
+      classDefinition.accept(importWriterVisitor);
+      isWritingClass = true;
+    }
     if (!classDefinition.isNested()) {
       buffer.append(importWriterVisitor.write());
     }
@@ -959,6 +974,9 @@ public class JavaWriterVisitor implements AstNodeVisitor {
     classes(classDefinition.nestedClasses());
 
     rightBrace();
+    if (isOutermostClass) {
+      isWritingClass = false;
+    }
 
     // We should have valid Java by now, so format it.
     if (!classDefinition.isNested()) {
@@ -1086,4 +1104,49 @@ public class JavaWriterVisitor implements AstNodeVisitor {
         break;
     }
   }
+
+  private static String createCommentBlock(String commentStart, String comment) {
+    StringBuilder sourceComment = new StringBuilder();
+    sourceComment.append(commentStart).append(NEWLINE);
+    for (String line : splitLines(comment)) {
+      sourceComment.append(ASTERISK).append(SPACE).append(line).append(NEWLINE);
+    }
+    sourceComment.append(BLOCK_COMMENT_END);
+    return sourceComment.toString();
+  }
+
+  private static String formatComment(
+      Cache<String, String> cache, String comment, Function<String, String> createSourceFn) {
+    String formattedComment = cache.getIfPresent(comment);
+    if (formattedComment == null) {
+      formattedComment = JavaFormatter.format(createSourceFn.apply(comment));
+      cache.put(comment, formattedComment);
+    }
+    return formattedComment;
+  }
+
+  // Equivalent to comment.split("\\r?\\n"), without the regex.
+  @VisibleForTesting
+  static List<String> splitLines(String comment) {
+    List<String> lines = new ArrayList<>();
+    int lineStart = 0;
+    for (int i = 0; i < comment.length(); i++) {
+      if (comment.charAt(i) == '\n') {
+        int lineEnd = i > lineStart && comment.charAt(i - 1) == '\r' ? i - 1 : i;
+        lines.add(comment.substring(lineStart, lineEnd));
+        lineStart = i + 1;
+      }
+    }
+    if (lines.isEmpty()) {
+      lines.add(comment);
+      return lines;
+    }
+    lines.add(comment.substring(lineStart));
+    // As with String.split, trailing empty lines are dropped.
+    int size = lines.size();
+    while (size > 0 && lines.get(size - 1).isEmpty()) {
+      size--;
+    }
+    return lines.subList(0, size);
+  }
 }
@@ -17,6 +17,7 @@ package com.google.api.generator.gapic.composer;
 import com.google.api.generator.engine.ast.ClassDefinition;
 import com.google.api.generator.engine.ast.ScopeNode;
 import com.google.api.generator.gapic.composer.comment.CommentComposer;
+import com.google.api.generator.gapic.composer.common.MetricsRecorderClassComposer;
 import com.google.api.generator.gapic.composer.common.ServiceClientClassComposer;
 import com.google.api.generator.gapic.composer.common.ServiceStubClassComposer;
 import com.google.api.generator.gapic.composer.grpc.GrpcServiceCallableFactoryClassComposer;
@@ -38,6 +39,7 @@ import com.google.api.generator.gapic.model.Service;
 import com.google.api.generator.gapic.model.Transport;
 import com.google.common.annotations.VisibleForTesting;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -98,6 +100,15 @@ public class Composer {
                 clazzes.add(GrpcServiceStubClassComposer.instance().generate(context, s));
               }
             });
+    if (context.methodMetricsEnabled()) {
+      // The transport stubs of a package share a single MetricsRecorder.
+      context.services().stream()
+          .collect(
+              Collectors.toMap(
+                  Service::pakkage, s -> s, (first, second) -> first, LinkedHashMap::new))
+          .values()
+          .forEach(s -> clazzes.add(MetricsRecorderClassComposer.instance().generate(context, s)));
+    }
     return clazzes;
   }
 
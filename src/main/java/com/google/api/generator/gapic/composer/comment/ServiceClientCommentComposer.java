@@ -61,6 +61,10 @@ public class ServiceClientCommentComposer {
       "Please refer to the GitHub repository's samples for more quickstart code snippets.";
 
   private static final String METHOD_DESCRIPTION_SAMPLE_CODE_SUMMARY_STRING = "Sample code:";
+  private static final String METHOD_DESCRIPTION_ZERO_COPY_BYTES_STRING =
+      "The bytes arguments of this method are wrapped, not copied. The caller must not modify the"
+          + " given arrays or buffers until the call completes, nor while the request may still be"
+          + " read, such as during retries.";
 
   private static final List<String> SERVICE_DESCRIPTION_SURFACE_DESCRIPTION =
       Arrays.asList(
@@ -168,6 +172,19 @@ public class ServiceClientCommentComposer {
 
   public static List<CommentStatement> createRpcMethodHeaderComment(
       Method method, List<MethodArgument> methodArguments, Optional<String> sampleCodeOpt) {
+    return createRpcMethodHeaderComment(method, methodArguments, sampleCodeOpt, false);
+  }
+
+  public static List<CommentStatement> createRpcMethodZeroCopyBytesHeaderComment(
+      Method method, List<MethodArgument> methodArguments) {
+    return createRpcMethodHeaderComment(method, methodArguments, Optional.empty(), true);
+  }
+
+  private static List<CommentStatement> createRpcMethodHeaderComment(
+      Method method,
+      List<MethodArgument> methodArguments,
+      Optional<String> sampleCodeOpt,
+      boolean isZeroCopyBytes) {
     JavaDocComment.Builder methodJavadocBuilder = JavaDocComment.builder();
 
     if (method.hasDescription()) {
@@ -175,6 +192,10 @@ public class ServiceClientCommentComposer {
           processProtobufComment(method.description(), methodJavadocBuilder, null);
     }
 
+    if (isZeroCopyBytes) {
+      methodJavadocBuilder.addParagraph(METHOD_DESCRIPTION_ZERO_COPY_BYTES_STRING);
+    }
+
     if (sampleCodeOpt.isPresent()) {
       methodJavadocBuilder.addParagraph(METHOD_DESCRIPTION_SAMPLE_CODE_SUMMARY_STRING);
       methodJavadocBuilder.addSampleCode(sampleCodeOpt.get());
@@ -126,7 +126,7 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
             .setAnnotations(createClassAnnotations())
             .setScope(ScopeNode.PUBLIC)
             .setName(className)
-            .setStatements(createClassMemberFieldDecls(classMemberVarExprs))
+            .setStatements(createClassMemberFieldDecls(context, classMemberVarExprs))
             .setMethods(
                 createClassMethods(service, context, classMemberVarExprs, typeStore, resourceNames))
             .build();
@@ -145,9 +145,11 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
       Service service, GapicContext context, TypeStore typeStore);
 
   protected List<Statement> createClassMemberFieldDecls(
-      Map<String, VariableExpr> classMemberVarExprs) {
+      GapicContext context, Map<String, VariableExpr> classMemberVarExprs) {
     Function<VariableExpr, Boolean> isMockVarExprFn =
         v -> v.type().reference().name().startsWith("Mock");
+    // Shared test clients are created once per class, alongside the mock services.
+    boolean isSharedClient = context.sharedTestClientEnabled();
 
     // Ordering matters for pretty-printing and ensuring that test output is deterministic.
     List<Statement> fieldDeclStatements = new ArrayList<>();
@@ -172,7 +174,11 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
             .map(
                 v ->
                     ExprStatement.withExpr(
-                        v.toBuilder().setIsDecl(true).setScope(ScopeNode.PRIVATE).build()))
+                        v.toBuilder()
+                            .setIsDecl(true)
+                            .setScope(ScopeNode.PRIVATE)
+                            .setIsStatic(isSharedClient)
+                            .build()))
             .collect(Collectors.toList()));
     return fieldDeclStatements;
   }
@@ -197,9 +203,9 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
     List<MethodDefinition> javaMethods = new ArrayList<>();
     javaMethods.add(
         createStartStaticServerMethod(service, context, classMemberVarExprs, typeStore));
-    javaMethods.add(createStopServerMethod(service, classMemberVarExprs));
-    javaMethods.add(createSetUpMethod(service, classMemberVarExprs, typeStore));
-    javaMethods.add(createTearDownMethod(service, classMemberVarExprs));
+    javaMethods.add(createStopServerMethod(service, context, classMemberVarExprs));
+    javaMethods.add(createSetUpMethod(service, context, classMemberVarExprs, typeStore));
+    javaMethods.addAll(createTearDownMethod(service, context, classMemberVarExprs));
     return javaMethods;
   }
 
@@ -210,13 +216,16 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
       TypeStore typeStore);
 
   protected abstract MethodDefinition createStopServerMethod(
-      Service service, Map<String, VariableExpr> classMemberVarExprs);
+      Service service, GapicContext context, Map<String, VariableExpr> classMemberVarExprs);
 
   protected abstract MethodDefinition createSetUpMethod(
-      Service service, Map<String, VariableExpr> classMemberVarExprs, TypeStore typeStore);
+      Service service,
+      GapicContext context,
+      Map<String, VariableExpr> classMemberVarExprs,
+      TypeStore typeStore);
 
-  protected abstract MethodDefinition createTearDownMethod(
-      Service service, Map<String, VariableExpr> classMemberVarExprs);
+  protected abstract List<MethodDefinition> createTearDownMethod(
+      Service service, GapicContext context, Map<String, VariableExpr> classMemberVarExprs);
 
   private List<MethodDefinition> createTestMethods(
       Service service,
@@ -250,6 +259,7 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
                 method,
                 service,
                 matchingService,
+                context,
                 Collections.emptyList(),
                 0,
                 true,
@@ -272,6 +282,7 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
                   method,
                   service,
                   matchingService,
+                  context,
                   method.methodSignatures().get(i),
                   i,
                   false,
@@ -302,6 +313,7 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
    *     apiService} only when {@code method} is a mixin, in which case {@code rpcService} is the
    *     mixed-in service. If {@code apiService} and {@code rpcService} are different, they will be
    *     used only for pagination. Otherwise, {@code rpcService} subsumes {@code apiService}.
+   * @param context the context of the API under test.
    * @param methodSignature the method signature of the RPC under test.
    * @param variantIndex the nth variant of the RPC under test. This applies when we have
    *     polymorphism due to the presence of several method signature annotations in the proto.
@@ -314,6 +326,7 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
       Method method,
       Service apiService,
       Service rpcService,
+      GapicContext context,
       List<MethodArgument> methodSignature,
       int variantIndex,
       boolean isRequestArg,
@@ -332,13 +345,12 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
     VariableExpr responsesElementVarExpr = null;
     String mockServiceVarName = getMockServiceVarName(rpcService);
     if (method.isPaged()) {
-      Message methodOutputMessage = messageTypes.get(method.outputType().reference().fullName());
-      Field repeatedPagedResultsField = methodOutputMessage.findAndUnwrapPaginatedRepeatedField();
+      Field repeatedPagedResultsField = method.pagedResultsField();
       Preconditions.checkNotNull(
           repeatedPagedResultsField,
-          String.format(
-              "No repeated field found for paged method %s with output message type %s",
-              method.name(), methodOutputMessage.name()));
+          "No repeated field found for paged method %s with output message type %s",
+          method.name(),
+          method.outputType().reference().name());
 
       if (repeatedPagedResultsField.isMap()) {
         repeatedResponseType =
@@ -369,13 +381,12 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
             Variable.builder().setType(methodOutputType).setName("expectedResponse").build());
     Expr expectedResponseValExpr = null;
     if (method.isPaged()) {
-      Message methodOutputMessage = messageTypes.get(method.outputType().reference().fullName());
-      Field firstRepeatedField = methodOutputMessage.findAndUnwrapPaginatedRepeatedField();
+      Field firstRepeatedField = method.pagedResultsField();
       Preconditions.checkNotNull(
           firstRepeatedField,
-          String.format(
-              "Expected paged RPC %s to have a repeated field in the response %s but found none",
-              method.name(), methodOutputMessage.name()));
+          "Expected paged RPC %s to have a repeated field in the response %s but found none",
+          method.name(),
+          method.outputType().reference().name());
 
       expectedResponseValExpr =
           DefaultValueComposer.createSimplePagedResponse(
@@ -525,8 +536,7 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
     }
 
     if (method.isPaged()) {
-      Message methodOutputMessage = messageTypes.get(method.outputType().reference().fullName());
-      Field repeatedPagedResultsField = methodOutputMessage.findAndUnwrapPaginatedRepeatedField();
+      Field repeatedPagedResultsField = method.pagedResultsField();
 
       // Assign the resources variable.
       VariableExpr resourcesVarExpr =
@@ -670,6 +680,7 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
         constructRpcTestCheckerLogic(
             method,
             rpcService,
+            context,
             isRequestArg,
             classMemberVarExprs,
             requestVarExpr,
@@ -694,6 +705,7 @@ public abstract class AbstractServiceClientTestClassComposer implements ClassCom
   protected abstract List<Statement> constructRpcTestCheckerLogic(
       Method method,
       Service service,
+      GapicContext context,
       boolean isRequestArg,
       Map<String, VariableExpr> classMemberVarExprs,
       VariableExpr requestVarExpr,
@@ -14,10 +14,15 @@
 
 package com.google.api.generator.gapic.composer.common;
 
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
 import com.google.api.core.BetaApi;
 import com.google.api.gax.core.BackgroundResource;
 import com.google.api.gax.core.BackgroundResourceAggregation;
+import com.google.api.gax.rpc.ApiCallContext;
 import com.google.api.gax.rpc.BidiStreamingCallable;
+import com.google.api.gax.rpc.Callables;
 import com.google.api.gax.rpc.ClientContext;
 import com.google.api.gax.rpc.ClientStreamingCallable;
 import com.google.api.gax.rpc.OperationCallable;
@@ -25,20 +30,30 @@ import com.google.api.gax.rpc.RequestParamsExtractor;
 import com.google.api.gax.rpc.ServerStreamingCallable;
 import com.google.api.gax.rpc.UnaryCallable;
 import com.google.api.generator.engine.ast.AnnotationNode;
+import com.google.api.generator.engine.ast.AnonymousClassExpr;
 import com.google.api.generator.engine.ast.AssignmentExpr;
+import com.google.api.generator.engine.ast.CastExpr;
 import com.google.api.generator.engine.ast.ClassDefinition;
 import com.google.api.generator.engine.ast.CommentStatement;
 import com.google.api.generator.engine.ast.ConcreteReference;
 import com.google.api.generator.engine.ast.EmptyLineStatement;
+import com.google.api.generator.engine.ast.EnumRefExpr;
 import com.google.api.generator.engine.ast.Expr;
 import com.google.api.generator.engine.ast.ExprStatement;
+import com.google.api.generator.engine.ast.IfStatement;
 import com.google.api.generator.engine.ast.JavaDocComment;
 import com.google.api.generator.engine.ast.MethodDefinition;
 import com.google.api.generator.engine.ast.MethodInvocationExpr;
 import com.google.api.generator.engine.ast.NewObjectExpr;
+import com.google.api.generator.engine.ast.PrimitiveValue;
 import com.google.api.generator.engine.ast.ReferenceConstructorExpr;
+import com.google.api.generator.engine.ast.RelationalOperationExpr;
+import com.google.api.generator.engine.ast.ReturnExpr;
 import com.google.api.generator.engine.ast.ScopeNode;
 import com.google.api.generator.engine.ast.Statement;
+import com.google.api.generator.engine.ast.StringObjectValue;
+import com.google.api.generator.engine.ast.SynchronizedStatement;
+import com.google.api.generator.engine.ast.TernaryExpr;
 import com.google.api.generator.engine.ast.ThisObjectValue;
 import com.google.api.generator.engine.ast.TypeNode;
 import com.google.api.generator.engine.ast.ValueExpr;
@@ -54,11 +69,15 @@ import com.google.api.generator.gapic.model.Method;
 import com.google.api.generator.gapic.model.Service;
 import com.google.api.generator.gapic.utils.JavaStyle;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.longrunning.Operation;
+import com.google.protobuf.Message;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -78,11 +97,19 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
   private static final String BACKGROUND_RESOURCES_MEMBER_NAME = "backgroundResources";
   private static final String CALLABLE_NAME = "Callable";
   private static final String CALLABLE_FACTORY_MEMBER_NAME = "callableFactory";
+  private static final String CLIENT_CONTEXT_MEMBER_NAME = "clientContext";
+  private static final String SETTINGS_MEMBER_NAME = "settings";
   private static final String CALLABLE_CLASS_MEMBER_PATTERN = "%sCallable";
   private static final String OPERATION_CALLABLE_CLASS_MEMBER_PATTERN = "%sOperationCallable";
   private static final String OPERATION_CALLABLE_NAME = "OperationCallable";
   private static final String OPERATIONS_STUB_MEMBER_NAME = "operationsStub";
   private static final String PAGED_CALLABLE_NAME = "PagedCallable";
+  private static final String METRICS_RECORDER_CLASS_NAME = "MetricsRecorder";
+  private static final String METRICS_RECORDER_MEMBER_NAME = "metricsRecorder";
+  private static final String NO_OP_METRICS_RECORDER_NAME = "NO_OP";
+  private static final String WITH_METRICS_METHOD_NAME = "withMetrics";
+  private static final String REQUEST_TEMPLATE_NAME = "RequestT";
+  private static final String RESPONSE_TEMPLATE_NAME = "ResponseT";
 
   protected static final TypeStore FIXED_TYPESTORE = createStaticTypes();
 
@@ -99,20 +126,28 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
   private static TypeStore createStaticTypes() {
     List<Class> concreteClazzes =
         Arrays.asList(
+            ApiCallContext.class,
+            ApiFuture.class,
+            ApiFutureCallback.class,
+            ApiFutures.class,
             BackgroundResource.class,
             BackgroundResourceAggregation.class,
             BetaApi.class,
             BidiStreamingCallable.class,
+            Callables.class,
             ClientContext.class,
             ClientStreamingCallable.class,
             Generated.class,
             ImmutableMap.class,
             InterruptedException.class,
             IOException.class,
+            Message.class,
+            MoreExecutors.class,
             Operation.class,
             OperationCallable.class,
             RequestParamsExtractor.class,
             ServerStreamingCallable.class,
+            Stopwatch.class,
             TimeUnit.class,
             UnaryCallable.class);
     return new TypeStore(concreteClazzes);
@@ -124,6 +159,9 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
     TypeStore typeStore = createDynamicTypes(service, pakkage);
     String className = getTransportContext().classNames().getTransportServiceStubClassName(service);
     GapicClass.Kind kind = Kind.STUB;
+    boolean isLazyCallables = context.lazyCallablesEnabled();
+    // The parser rejects method metrics together with lazy callables.
+    boolean isMethodMetrics = context.methodMetricsEnabled();
 
     Map<String, VariableExpr> protoMethodNameToDescriptorVarExprs =
         createProtoMethodNameToDescriptorClassMembers(
@@ -156,13 +194,35 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
                 .setName(CALLABLE_FACTORY_MEMBER_NAME)
                 .setType(getTransportContext().stubCallableFactoryType())
                 .build()));
+    if (isLazyCallables) {
+      // Kept around so that callables can be created on first use.
+      classMemberVarExprs.put(
+          SETTINGS_MEMBER_NAME,
+          VariableExpr.withVariable(
+              Variable.builder()
+                  .setName(SETTINGS_MEMBER_NAME)
+                  .setType(
+                      typeStore.get(
+                          getTransportContext()
+                              .classNames()
+                              .getServiceStubSettingsClassName(service)))
+                  .build()));
+      classMemberVarExprs.put(
+          CLIENT_CONTEXT_MEMBER_NAME,
+          VariableExpr.withVariable(
+              Variable.builder()
+                  .setName(CLIENT_CONTEXT_MEMBER_NAME)
+                  .setType(FIXED_TYPESTORE.get("ClientContext"))
+                  .build()));
+    }
 
     List<Statement> classStatements =
         createClassStatements(
             service,
             protoMethodNameToDescriptorVarExprs,
             callableClassMemberVarExprs,
-            classMemberVarExprs);
+            classMemberVarExprs,
+            isLazyCallables);
 
     StubCommentComposer commentComposer =
         new StubCommentComposer(getTransportContext().transportName());
@@ -185,7 +245,9 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
                     typeStore,
                     classMemberVarExprs,
                     callableClassMemberVarExprs,
-                    protoMethodNameToDescriptorVarExprs))
+                    protoMethodNameToDescriptorVarExprs,
+                    isLazyCallables,
+                    isMethodMetrics))
             .build();
     return GapicClass.create(kind, classDef);
   }
@@ -210,7 +272,8 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
       Service service,
       Map<String, VariableExpr> protoMethodNameToDescriptorVarExprs,
       Map<String, VariableExpr> callableClassMemberVarExprs,
-      Map<String, VariableExpr> classMemberVarExprs) {
+      Map<String, VariableExpr> classMemberVarExprs,
+      boolean isLazyCallables) {
     List<Statement> classStatements = new ArrayList<>();
     for (Statement statement :
         createMethodDescriptorVariableDecls(service, protoMethodNameToDescriptorVarExprs)) {
@@ -218,7 +281,10 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
       classStatements.add(EMPTY_LINE_STATEMENT);
     }
 
-    classStatements.addAll(createClassMemberFieldDeclarations(callableClassMemberVarExprs));
+    classStatements.addAll(
+        isLazyCallables
+            ? createLazyClassMemberFieldDeclarations(callableClassMemberVarExprs)
+            : createClassMemberFieldDeclarations(callableClassMemberVarExprs));
     classStatements.add(EMPTY_LINE_STATEMENT);
 
     classStatements.addAll(createClassMemberFieldDeclarations(classMemberVarExprs));
@@ -249,6 +315,20 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
         .collect(Collectors.toList());
   }
 
+  private static List<Statement> createLazyClassMemberFieldDeclarations(
+      Map<String, VariableExpr> fieldNameToVarExprs) {
+    return fieldNameToVarExprs.values().stream()
+        .map(
+            v ->
+                ExprStatement.withExpr(
+                    v.toBuilder()
+                        .setIsDecl(true)
+                        .setScope(ScopeNode.PRIVATE)
+                        .setIsVolatile(true)
+                        .build()))
+        .collect(Collectors.toList());
+  }
+
   protected Map<String, VariableExpr> createProtoMethodNameToDescriptorClassMembers(
       Service service, Class<?> descriptorClass) {
     return service.methods().stream()
@@ -361,27 +441,43 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
       TypeStore typeStore,
       Map<String, VariableExpr> classMemberVarExprs,
       Map<String, VariableExpr> callableClassMemberVarExprs,
-      Map<String, VariableExpr> protoMethodNameToDescriptorVarExprs) {
+      Map<String, VariableExpr> protoMethodNameToDescriptorVarExprs,
+      boolean isLazyCallables,
+      boolean isMethodMetrics) {
     List<MethodDefinition> javaMethods = new ArrayList<>();
-    javaMethods.addAll(createStaticCreatorMethods(service, typeStore));
+    javaMethods.addAll(createStaticCreatorMethods(service, typeStore, isMethodMetrics));
     javaMethods.addAll(
         createConstructorMethods(
             service,
             typeStore,
             classMemberVarExprs,
             callableClassMemberVarExprs,
-            protoMethodNameToDescriptorVarExprs));
+            protoMethodNameToDescriptorVarExprs,
+            isLazyCallables,
+            isMethodMetrics));
     javaMethods.addAll(
         createGetMethodDescriptorsMethod(service, typeStore, protoMethodNameToDescriptorVarExprs));
     javaMethods.addAll(
         createOperationsStubGetterMethod(classMemberVarExprs.get(OPERATIONS_STUB_MEMBER_NAME)));
-    javaMethods.addAll(createCallableGetterMethods(callableClassMemberVarExprs));
+    javaMethods.addAll(
+        isLazyCallables
+            ? createLazyCallableGetterMethods(
+                service,
+                typeStore,
+                classMemberVarExprs,
+                callableClassMemberVarExprs,
+                protoMethodNameToDescriptorVarExprs)
+            : createCallableGetterMethods(callableClassMemberVarExprs));
     javaMethods.addAll(
         createStubOverrideMethods(classMemberVarExprs.get(BACKGROUND_RESOURCES_MEMBER_NAME)));
+    if (isMethodMetrics) {
+      javaMethods.add(createWithMetricsMethod(typeStore));
+    }
     return javaMethods;
   }
 
-  private List<MethodDefinition> createStaticCreatorMethods(Service service, TypeStore typeStore) {
+  private List<MethodDefinition> createStaticCreatorMethods(
+      Service service, TypeStore typeStore, boolean isMethodMetrics) {
     TypeNode creatorMethodReturnType =
         typeStore.get(getTransportContext().classNames().getTransportServiceStubClassName(service));
     Function<List<VariableExpr>, MethodDefinition.Builder> creatorMethodStarterFn =
@@ -439,19 +535,22 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
             .setExprReferenceExpr(settingsBuilderMethodExpr)
             .build();
 
-    return Arrays.asList(
+    List<MethodDefinition> creatorMethods = new ArrayList<>();
+    creatorMethods.add(
         creatorMethodStarterFn
             .apply(Arrays.asList(settingsVarExpr))
             .setReturnExpr(
                 instantiatorExprFn.apply(
                     Arrays.asList(settingsVarExpr, clientContextCreateMethodExpr)))
-            .build(),
+            .build());
+    creatorMethods.add(
         creatorMethodStarterFn
             .apply(Arrays.asList(clientContextVarExpr))
             .setReturnExpr(
                 instantiatorExprFn.apply(
                     Arrays.asList(settingsBuilderMethodExpr, clientContextVarExpr)))
-            .build(),
+            .build());
+    creatorMethods.add(
         creatorMethodStarterFn
             .apply(Arrays.asList(clientContextVarExpr, callableFactoryVarExpr))
             .setReturnExpr(
@@ -459,6 +558,27 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
                     Arrays.asList(
                         settingsBuilderMethodExpr, clientContextVarExpr, callableFactoryVarExpr)))
             .build());
+    if (isMethodMetrics) {
+      VariableExpr metricsRecorderVarExpr = createMetricsRecorderVarExpr(typeStore);
+      creatorMethods.add(
+          creatorMethodStarterFn
+              .apply(Arrays.asList(settingsVarExpr, metricsRecorderVarExpr))
+              .setReturnExpr(
+                  instantiatorExprFn.apply(
+                      Arrays.asList(
+                          settingsVarExpr,
+                          clientContextCreateMethodExpr,
+                          NewObjectExpr.builder()
+                              .setType(
+                                  typeStore.get(
+                                      getTransportContext()
+                                          .classNames()
+                                          .getTransportServiceCallableFactoryClassName(service)))
+                              .build(),
+                          metricsRecorderVarExpr)))
+              .build());
+    }
+    return creatorMethods;
   }
 
   protected List<MethodDefinition> createConstructorMethods(
@@ -466,7 +586,9 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
       TypeStore typeStore,
       Map<String, VariableExpr> classMemberVarExprs,
       Map<String, VariableExpr> callableClassMemberVarExprs,
-      Map<String, VariableExpr> protoMethodNameToDescriptorVarExprs) {
+      Map<String, VariableExpr> protoMethodNameToDescriptorVarExprs,
+      boolean isLazyCallables,
+      boolean isMethodMetrics) {
     TypeNode stubSettingsType =
         typeStore.get(getTransportContext().classNames().getServiceStubSettingsClassName(service));
     VariableExpr settingsVarExpr =
@@ -555,34 +677,45 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
                       .build())
               .build());
     }
+    if (isLazyCallables) {
+      secondCtorExprs.add(
+          AssignmentExpr.builder()
+              .setVariableExpr(
+                  classMemberVarExprs.get(SETTINGS_MEMBER_NAME).toBuilder()
+                      .setExprReferenceExpr(thisExpr)
+                      .build())
+              .setValueExpr(settingsVarExpr)
+              .build());
+      secondCtorExprs.add(
+          AssignmentExpr.builder()
+              .setVariableExpr(
+                  classMemberVarExprs.get(CLIENT_CONTEXT_MEMBER_NAME).toBuilder()
+                      .setExprReferenceExpr(thisExpr)
+                      .build())
+              .setValueExpr(clientContextVarExpr)
+              .build());
+    }
     secondCtorStatements.addAll(
         secondCtorExprs.stream().map(e -> ExprStatement.withExpr(e)).collect(Collectors.toList()));
     secondCtorExprs.clear();
     secondCtorStatements.add(EMPTY_LINE_STATEMENT);
 
+    // Callables are created by their getters instead.
+    if (isLazyCallables) {
+      secondCtorStatements.add(
+          ExprStatement.withExpr(
+              createBackgroundResourcesAssignExpr(
+                  classMemberVarExprs, clientContextVarExpr, thisExpr)));
+      return Arrays.asList(
+          firstCtor,
+          ctorMakerFn.apply(
+              Arrays.asList(settingsVarExpr, clientContextVarExpr, callableFactoryVarExpr),
+              secondCtorStatements));
+    }
+
     // Transport settings local variables.
     Map<String, VariableExpr> javaStyleMethodNameToTransportSettingsVarExprs =
-        service.methods().stream()
-            .collect(
-                Collectors.toMap(
-                    m -> JavaStyle.toLowerCamelCase(m.name()),
-                    m ->
-                        VariableExpr.withVariable(
-                            Variable.builder()
-                                .setName(
-                                    String.format(
-                                        "%sTransportSettings",
-                                        JavaStyle.toLowerCamelCase(m.name())))
-                                .setType(
-                                    TypeNode.withReference(
-                                        ConcreteReference.builder()
-                                            .setClazz(getTransportContext().callSettingsClass())
-                                            .setGenerics(
-                                                Arrays.asList(
-                                                    m.inputType().reference(),
-                                                    m.outputType().reference()))
-                                            .build()))
-                                .build())));
+        createTransportSettingsVarExprs(service);
 
     secondCtorExprs.addAll(
         service.methods().stream()
@@ -600,19 +733,39 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
     secondCtorStatements.add(EMPTY_LINE_STATEMENT);
 
     // Initialize <method>Callable variables.
+    VariableExpr metricsRecorderVarExpr = createMetricsRecorderVarExpr(typeStore);
+    Map<String, String> javaStyleMethodNameToFullMethodNames = new HashMap<>();
+    for (Method method : service.methods()) {
+      javaStyleMethodNameToFullMethodNames.put(
+          JavaStyle.toLowerCamelCase(method.name()), getProtoRpcFullMethodName(service, method));
+    }
     secondCtorExprs.addAll(
         callableClassMemberVarExprs.entrySet().stream()
             .map(
                 e ->
-                    createCallableInitExpr(
-                        e.getKey(),
-                        e.getValue(),
-                        callableFactoryVarExpr,
-                        settingsVarExpr,
-                        clientContextVarExpr,
-                        operationsStubClassVarExpr,
-                        thisExpr,
-                        javaStyleMethodNameToTransportSettingsVarExprs))
+                    isMethodMetrics
+                        ? createMetricsCallableInitExpr(
+                            typeStore,
+                            e.getKey(),
+                            e.getValue(),
+                            callableFactoryVarExpr,
+                            settingsVarExpr,
+                            clientContextVarExpr,
+                            operationsStubClassVarExpr,
+                            metricsRecorderVarExpr,
+                            thisExpr,
+                            javaStyleMethodNameToTransportSettingsVarExprs,
+                            javaStyleMethodNameToFullMethodNames,
+                            callableClassMemberVarExprs)
+                        : createCallableInitExpr(
+                            e.getKey(),
+                            e.getValue(),
+                            callableFactoryVarExpr,
+                            settingsVarExpr,
+                            clientContextVarExpr,
+                            operationsStubClassVarExpr,
+                            thisExpr,
+                            javaStyleMethodNameToTransportSettingsVarExprs))
             .collect(Collectors.toList()));
     secondCtorStatements.addAll(
         secondCtorExprs.stream().map(e -> ExprStatement.withExpr(e)).collect(Collectors.toList()));
@@ -620,26 +773,39 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
     secondCtorStatements.add(EMPTY_LINE_STATEMENT);
 
     // Instantiate backgroundResources.
-    MethodInvocationExpr getBackgroundResourcesMethodExpr =
-        MethodInvocationExpr.builder()
-            .setExprReferenceExpr(clientContextVarExpr)
-            .setMethodName("getBackgroundResources")
-            .build();
-    VariableExpr backgroundResourcesVarExpr = classMemberVarExprs.get("backgroundResources");
     secondCtorExprs.add(
-        AssignmentExpr.builder()
-            .setVariableExpr(
-                backgroundResourcesVarExpr.toBuilder().setExprReferenceExpr(thisExpr).build())
-            .setValueExpr(
-                NewObjectExpr.builder()
-                    .setType(FIXED_TYPESTORE.get("BackgroundResourceAggregation"))
-                    .setArguments(Arrays.asList(getBackgroundResourcesMethodExpr))
-                    .build())
-            .build());
+        createBackgroundResourcesAssignExpr(classMemberVarExprs, clientContextVarExpr, thisExpr));
     secondCtorStatements.addAll(
         secondCtorExprs.stream().map(e -> ExprStatement.withExpr(e)).collect(Collectors.toList()));
     secondCtorExprs.clear();
 
+    if (isMethodMetrics) {
+      // The callables are only instrumented when a recorder is passed in.
+      MethodDefinition delegatingCtor =
+          ctorMakerFn.apply(
+              Arrays.asList(settingsVarExpr, clientContextVarExpr, callableFactoryVarExpr),
+              Arrays.asList(
+                  ExprStatement.withExpr(
+                      ReferenceConstructorExpr.thisBuilder()
+                          .setType(thisClassType)
+                          .setArguments(
+                              settingsVarExpr,
+                              clientContextVarExpr,
+                              callableFactoryVarExpr,
+                              createNoOpMetricsRecorderExpr(typeStore))
+                          .build())));
+      return Arrays.asList(
+          firstCtor,
+          delegatingCtor,
+          ctorMakerFn.apply(
+              Arrays.asList(
+                  settingsVarExpr,
+                  clientContextVarExpr,
+                  callableFactoryVarExpr,
+                  metricsRecorderVarExpr),
+              secondCtorStatements));
+    }
+
     // Second constructor method.
     MethodDefinition secondCtor =
         ctorMakerFn.apply(
@@ -649,6 +815,50 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
     return Arrays.asList(firstCtor, secondCtor);
   }
 
+  private static Expr createBackgroundResourcesAssignExpr(
+      Map<String, VariableExpr> classMemberVarExprs,
+      VariableExpr clientContextVarExpr,
+      Expr thisExpr) {
+    MethodInvocationExpr getBackgroundResourcesMethodExpr =
+        MethodInvocationExpr.builder()
+            .setExprReferenceExpr(clientContextVarExpr)
+            .setMethodName("getBackgroundResources")
+            .build();
+    VariableExpr backgroundResourcesVarExpr = classMemberVarExprs.get("backgroundResources");
+    return AssignmentExpr.builder()
+        .setVariableExpr(
+            backgroundResourcesVarExpr.toBuilder().setExprReferenceExpr(thisExpr).build())
+        .setValueExpr(
+            NewObjectExpr.builder()
+                .setType(FIXED_TYPESTORE.get("BackgroundResourceAggregation"))
+                .setArguments(Arrays.asList(getBackgroundResourcesMethodExpr))
+                .build())
+        .build();
+  }
+
+  private Map<String, VariableExpr> createTransportSettingsVarExprs(Service service) {
+    return service.methods().stream()
+        .collect(
+            Collectors.toMap(
+                m -> JavaStyle.toLowerCamelCase(m.name()),
+                m ->
+                    VariableExpr.withVariable(
+                        Variable.builder()
+                            .setName(
+                                String.format(
+                                    "%sTransportSettings", JavaStyle.toLowerCamelCase(m.name())))
+                            .setType(
+                                TypeNode.withReference(
+                                    ConcreteReference.builder()
+                                        .setClazz(getTransportContext().callSettingsClass())
+                                        .setGenerics(
+                                            Arrays.asList(
+                                                m.inputType().reference(),
+                                                m.outputType().reference()))
+                                        .build()))
+                            .build())));
+  }
+
   private static Expr createCallableInitExpr(
       String callableVarName,
       VariableExpr callableVarExpr,
@@ -658,6 +868,110 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
       VariableExpr operationsStubClassVarExpr,
       Expr thisExpr,
       Map<String, VariableExpr> javaStyleMethodNameToTransportSettingsVarExprs) {
+    return AssignmentExpr.builder()
+        .setVariableExpr(callableVarExpr.toBuilder().setExprReferenceExpr(thisExpr).build())
+        .setValueExpr(
+            createCallableCreatorExpr(
+                callableVarName,
+                callableVarExpr,
+                callableFactoryVarExpr,
+                settingsVarExpr,
+                clientContextVarExpr,
+                operationsStubClassVarExpr,
+                javaStyleMethodNameToTransportSettingsVarExprs))
+        .build();
+  }
+
+  private static Expr createMetricsCallableInitExpr(
+      TypeStore typeStore,
+      String callableVarName,
+      VariableExpr callableVarExpr,
+      VariableExpr callableFactoryVarExpr,
+      VariableExpr settingsVarExpr,
+      VariableExpr clientContextVarExpr,
+      VariableExpr operationsStubClassVarExpr,
+      VariableExpr metricsRecorderVarExpr,
+      Expr thisExpr,
+      Map<String, VariableExpr> javaStyleMethodNameToTransportSettingsVarExprs,
+      Map<String, String> javaStyleMethodNameToFullMethodNames,
+      Map<String, VariableExpr> callableClassMemberVarExprs) {
+    String callableCreatorMethodName = getCallableCreatorMethodName(callableVarExpr.type());
+    Expr valueExpr =
+        createCallableCreatorExpr(
+            callableVarName,
+            callableVarExpr,
+            callableFactoryVarExpr,
+            settingsVarExpr,
+            clientContextVarExpr,
+            operationsStubClassVarExpr,
+            javaStyleMethodNameToTransportSettingsVarExprs);
+    if (callableCreatorMethodName.equals("createPagedCallable")) {
+      // With a recorder, pages are fetched through the instrumented unary callable so that each one
+      // is recorded. The default call context is applied the same way the callable factory does.
+      // Without one, the paged callable is left as the factory built it.
+      String javaStyleMethodName =
+          callableVarName.substring(0, callableVarName.length() - PAGED_CALLABLE_NAME.length());
+      Expr instrumentedPagedCallableExpr =
+          MethodInvocationExpr.builder()
+              .setExprReferenceExpr(
+                  MethodInvocationExpr.builder()
+                      .setStaticReferenceType(FIXED_TYPESTORE.get("Callables"))
+                      .setMethodName("paged")
+                      .setArguments(
+                          callableClassMemberVarExprs.get(
+                              String.format(CALLABLE_CLASS_MEMBER_PATTERN, javaStyleMethodName)),
+                          MethodInvocationExpr.builder()
+                              .setExprReferenceExpr(settingsVarExpr)
+                              .setMethodName(String.format("%sSettings", javaStyleMethodName))
+                              .build())
+                      .setReturnType(callableVarExpr.type())
+                      .build())
+              .setMethodName("withDefaultCallContext")
+              .setArguments(
+                  MethodInvocationExpr.builder()
+                      .setExprReferenceExpr(clientContextVarExpr)
+                      .setMethodName("getDefaultCallContext")
+                      .build())
+              .setReturnType(callableVarExpr.type())
+              .build();
+      valueExpr =
+          TernaryExpr.builder()
+              .setConditionExpr(
+                  RelationalOperationExpr.equalToWithExprs(
+                      metricsRecorderVarExpr, createNoOpMetricsRecorderExpr(typeStore)))
+              .setThenExpr(valueExpr)
+              .setElseExpr(instrumentedPagedCallableExpr)
+              .build();
+    } else if (callableCreatorMethodName.equals("createUnaryCallable")) {
+      // Streaming and long-running operation callables are left as the factory built them.
+      String javaStyleMethodName =
+          callableVarName.substring(0, callableVarName.length() - CALLABLE_NAME.length());
+      valueExpr =
+          MethodInvocationExpr.builder()
+              .setMethodName(WITH_METRICS_METHOD_NAME)
+              .setArguments(
+                  valueExpr,
+                  ValueExpr.withValue(
+                      StringObjectValue.withValue(
+                          javaStyleMethodNameToFullMethodNames.get(javaStyleMethodName))),
+                  metricsRecorderVarExpr)
+              .setReturnType(callableVarExpr.type())
+              .build();
+    }
+    return AssignmentExpr.builder()
+        .setVariableExpr(callableVarExpr.toBuilder().setExprReferenceExpr(thisExpr).build())
+        .setValueExpr(valueExpr)
+        .build();
+  }
+
+  private static MethodInvocationExpr createCallableCreatorExpr(
+      String callableVarName,
+      VariableExpr callableVarExpr,
+      VariableExpr callableFactoryVarExpr,
+      VariableExpr settingsVarExpr,
+      VariableExpr clientContextVarExpr,
+      VariableExpr operationsStubClassVarExpr,
+      Map<String, VariableExpr> javaStyleMethodNameToTransportSettingsVarExprs) {
     boolean isOperation = callableVarName.endsWith(OPERATION_CALLABLE_NAME);
     boolean isPaged = callableVarName.endsWith(PAGED_CALLABLE_NAME);
     int sublength = 0;
@@ -706,15 +1020,11 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
     }
 
     String callableCreatorMethodName = getCallableCreatorMethodName(callableVarExpr.type());
-    return AssignmentExpr.builder()
-        .setVariableExpr(callableVarExpr.toBuilder().setExprReferenceExpr(thisExpr).build())
-        .setValueExpr(
-            MethodInvocationExpr.builder()
-                .setExprReferenceExpr(callableFactoryVarExpr)
-                .setMethodName(callableCreatorMethodName)
-                .setArguments(creatorMethodArgVarExprs)
-                .setReturnType(callableVarExpr.type())
-                .build())
+    return MethodInvocationExpr.builder()
+        .setExprReferenceExpr(callableFactoryVarExpr)
+        .setMethodName(callableCreatorMethodName)
+        .setArguments(creatorMethodArgVarExprs)
+        .setReturnType(callableVarExpr.type())
         .build();
   }
 
@@ -755,6 +1065,126 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
         .collect(Collectors.toList());
   }
 
+  private List<MethodDefinition> createLazyCallableGetterMethods(
+      Service service,
+      TypeStore typeStore,
+      Map<String, VariableExpr> classMemberVarExprs,
+      Map<String, VariableExpr> callableClassMemberVarExprs,
+      Map<String, VariableExpr> protoMethodNameToDescriptorVarExprs) {
+    TypeNode thisClassType =
+        typeStore.get(getTransportContext().classNames().getTransportServiceStubClassName(service));
+    Map<String, VariableExpr> javaStyleMethodNameToTransportSettingsVarExprs =
+        createTransportSettingsVarExprs(service);
+    List<MethodDefinition> getterMethods = new ArrayList<>();
+    for (Method protoMethod : service.methods()) {
+      String javaStyleProtoMethodName = JavaStyle.toLowerCamelCase(protoMethod.name());
+      List<String> callableNames = new ArrayList<>();
+      callableNames.add(String.format(CALLABLE_CLASS_MEMBER_PATTERN, javaStyleProtoMethodName));
+      if (protoMethod.hasLro()) {
+        callableNames.add(
+            String.format(OPERATION_CALLABLE_CLASS_MEMBER_PATTERN, javaStyleProtoMethodName));
+      }
+      if (protoMethod.isPaged()) {
+        callableNames.add(
+            String.format(PAGED_CALLABLE_CLASS_MEMBER_PATTERN, javaStyleProtoMethodName));
+      }
+
+      VariableExpr transportSettingsVarExpr =
+          javaStyleMethodNameToTransportSettingsVarExprs.get(javaStyleProtoMethodName);
+      for (String callableName : callableNames) {
+        VariableExpr callableClassMemberVarExpr = callableClassMemberVarExprs.get(callableName);
+        Expr transportSettingsInitExpr =
+            createTransportSettingsInitExpr(
+                protoMethod,
+                transportSettingsVarExpr,
+                protoMethodNameToDescriptorVarExprs.get(protoMethod.name()));
+        Expr callableCreatorExpr =
+            createCallableCreatorExpr(
+                callableName,
+                callableClassMemberVarExpr,
+                classMemberVarExprs.get(CALLABLE_FACTORY_MEMBER_NAME),
+                classMemberVarExprs.get(SETTINGS_MEMBER_NAME),
+                classMemberVarExprs.get(CLIENT_CONTEXT_MEMBER_NAME),
+                classMemberVarExprs.get(OPERATIONS_STUB_MEMBER_NAME),
+                javaStyleMethodNameToTransportSettingsVarExprs);
+        getterMethods.add(
+            createLazyCallableGetterMethod(
+                callableName,
+                thisClassType,
+                callableClassMemberVarExpr,
+                transportSettingsInitExpr,
+                callableCreatorExpr));
+      }
+    }
+    return getterMethods;
+  }
+
+  private static MethodDefinition createLazyCallableGetterMethod(
+      String callableName,
+      TypeNode thisClassType,
+      VariableExpr callableClassMemberVarExpr,
+      Expr transportSettingsInitExpr,
+      Expr callableCreatorExpr) {
+    // Double-checked locking on a volatile field, so that the lock is only taken while the
+    // callable has not been created yet.
+    VariableExpr localCallableVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder()
+                .setName("callable")
+                .setType(callableClassMemberVarExpr.type())
+                .build());
+    Expr isNullExpr =
+        RelationalOperationExpr.equalToWithExprs(localCallableVarExpr, ValueExpr.createNullExpr());
+
+    IfStatement createCallableStatement =
+        IfStatement.builder()
+            .setConditionExpr(isNullExpr)
+            .setBody(
+                Arrays.asList(
+                    ExprStatement.withExpr(transportSettingsInitExpr),
+                    ExprStatement.withExpr(
+                        AssignmentExpr.builder()
+                            .setVariableExpr(localCallableVarExpr)
+                            .setValueExpr(callableCreatorExpr)
+                            .build()),
+                    ExprStatement.withExpr(
+                        AssignmentExpr.builder()
+                            .setVariableExpr(callableClassMemberVarExpr)
+                            .setValueExpr(localCallableVarExpr)
+                            .build())))
+            .build();
+    SynchronizedStatement synchronizedStatement =
+        SynchronizedStatement.builder()
+            .setLock(ThisObjectValue.withType(thisClassType))
+            .setBody(
+                ExprStatement.withExpr(
+                    AssignmentExpr.builder()
+                        .setVariableExpr(localCallableVarExpr)
+                        .setValueExpr(callableClassMemberVarExpr)
+                        .build()),
+                createCallableStatement)
+            .build();
+
+    return MethodDefinition.builder()
+        .setIsOverride(true)
+        .setScope(ScopeNode.PUBLIC)
+        .setReturnType(callableClassMemberVarExpr.type())
+        .setName(callableName)
+        .setBody(
+            Arrays.asList(
+                ExprStatement.withExpr(
+                    AssignmentExpr.builder()
+                        .setVariableExpr(localCallableVarExpr.toBuilder().setIsDecl(true).build())
+                        .setValueExpr(callableClassMemberVarExpr)
+                        .build()),
+                IfStatement.builder()
+                    .setConditionExpr(isNullExpr)
+                    .setBody(Arrays.asList(synchronizedStatement))
+                    .build()))
+        .setReturnExpr(localCallableVarExpr)
+        .build();
+  }
+
   private List<MethodDefinition> createStubOverrideMethods(
       VariableExpr backgroundResourcesVarExpr) {
     Function<String, MethodDefinition.Builder> methodMakerStarterFn =
@@ -839,6 +1269,233 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
     return javaMethods;
   }
 
+  private static MethodDefinition createWithMetricsMethod(TypeStore typeStore) {
+    TypeNode requestType = typeStore.get(REQUEST_TEMPLATE_NAME);
+    TypeNode responseType = typeStore.get(RESPONSE_TEMPLATE_NAME);
+    TypeNode callableType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(UnaryCallable.class)
+                .setGenerics(requestType.reference(), responseType.reference())
+                .build());
+    TypeNode futureType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(ApiFuture.class)
+                .setGenerics(responseType.reference())
+                .build());
+    TypeNode futureCallbackType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(ApiFutureCallback.class)
+                .setGenerics(responseType.reference())
+                .build());
+
+    VariableExpr callableVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("callable").setType(callableType).build());
+    VariableExpr fullMethodNameVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("fullMethodName").setType(TypeNode.STRING).build());
+    VariableExpr metricsRecorderVarExpr = createMetricsRecorderVarExpr(typeStore);
+    VariableExpr requestVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("request").setType(requestType).build());
+    VariableExpr contextVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder()
+                .setName("context")
+                .setType(FIXED_TYPESTORE.get("ApiCallContext"))
+                .build());
+    VariableExpr stopwatchVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder()
+                .setName("stopwatch")
+                .setType(FIXED_TYPESTORE.get("Stopwatch"))
+                .build());
+    VariableExpr futureVarExpr =
+        VariableExpr.withVariable(Variable.builder().setName("future").setType(futureType).build());
+    VariableExpr throwableVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder()
+                .setName("t")
+                .setType(TypeNode.withReference(ConcreteReference.withClazz(Throwable.class)))
+                .build());
+    VariableExpr responseVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("response").setType(responseType).build());
+
+    // Protobuf memoizes serialized sizes, so the request size is usually already known here.
+    Function<Expr, Expr> serializedSizeExprFn =
+        messageExpr ->
+            MethodInvocationExpr.builder()
+                .setExprReferenceExpr(
+                    CastExpr.builder()
+                        .setType(FIXED_TYPESTORE.get("Message"))
+                        .setExpr(messageExpr)
+                        .build())
+                .setMethodName("getSerializedSize")
+                .setReturnType(TypeNode.INT)
+                .build();
+    Expr latencyExpr =
+        MethodInvocationExpr.builder()
+            .setExprReferenceExpr(stopwatchVarExpr)
+            .setMethodName("elapsed")
+            .setArguments(
+                EnumRefExpr.builder()
+                    .setName("NANOSECONDS")
+                    .setType(FIXED_TYPESTORE.get("TimeUnit"))
+                    .build())
+            .setReturnType(TypeNode.LONG)
+            .build();
+    BiFunction<Expr, Expr, Statement> recordCallStatementFn =
+        (responseSizeExpr, errorExpr) ->
+            ExprStatement.withExpr(
+                MethodInvocationExpr.builder()
+                    .setExprReferenceExpr(metricsRecorderVarExpr)
+                    .setMethodName("recordCall")
+                    .setArguments(
+                        fullMethodNameVarExpr,
+                        latencyExpr,
+                        serializedSizeExprFn.apply(requestVarExpr),
+                        responseSizeExpr,
+                        errorExpr)
+                    .build());
+
+    AnonymousClassExpr futureCallbackExpr =
+        AnonymousClassExpr.builder()
+            .setType(futureCallbackType)
+            .setMethods(
+                Arrays.asList(
+                    MethodDefinition.builder()
+                        .setIsOverride(true)
+                        .setScope(ScopeNode.PUBLIC)
+                        .setReturnType(TypeNode.VOID)
+                        .setName("onFailure")
+                        .setArguments(
+                            Arrays.asList(throwableVarExpr.toBuilder().setIsDecl(true).build()))
+                        .setBody(
+                            Arrays.asList(
+                                recordCallStatementFn.apply(
+                                    ValueExpr.withValue(
+                                        PrimitiveValue.builder()
+                                            .setType(TypeNode.INT)
+                                            .setValue("0")
+                                            .build()),
+                                    throwableVarExpr)))
+                        .build(),
+                    MethodDefinition.builder()
+                        .setIsOverride(true)
+                        .setScope(ScopeNode.PUBLIC)
+                        .setReturnType(TypeNode.VOID)
+                        .setName("onSuccess")
+                        .setArguments(
+                            Arrays.asList(responseVarExpr.toBuilder().setIsDecl(true).build()))
+                        .setBody(
+                            Arrays.asList(
+                                recordCallStatementFn.apply(
+                                    serializedSizeExprFn.apply(responseVarExpr),
+                                    ValueExpr.createNullExpr())))
+                        .build()))
+            .build();
+
+    List<Statement> futureCallBody =
+        Arrays.asList(
+            ExprStatement.withExpr(
+                AssignmentExpr.builder()
+                    .setVariableExpr(stopwatchVarExpr.toBuilder().setIsDecl(true).build())
+                    .setValueExpr(
+                        MethodInvocationExpr.builder()
+                            .setStaticReferenceType(FIXED_TYPESTORE.get("Stopwatch"))
+                            .setMethodName("createStarted")
+                            .setReturnType(FIXED_TYPESTORE.get("Stopwatch"))
+                            .build())
+                    .build()),
+            ExprStatement.withExpr(
+                AssignmentExpr.builder()
+                    .setVariableExpr(futureVarExpr.toBuilder().setIsDecl(true).build())
+                    .setValueExpr(
+                        MethodInvocationExpr.builder()
+                            .setExprReferenceExpr(callableVarExpr)
+                            .setMethodName("futureCall")
+                            .setArguments(requestVarExpr, contextVarExpr)
+                            .setReturnType(futureType)
+                            .build())
+                    .build()),
+            ExprStatement.withExpr(
+                MethodInvocationExpr.builder()
+                    .setStaticReferenceType(FIXED_TYPESTORE.get("ApiFutures"))
+                    .setMethodName("addCallback")
+                    .setArguments(
+                        futureVarExpr,
+                        futureCallbackExpr,
+                        MethodInvocationExpr.builder()
+                            .setStaticReferenceType(FIXED_TYPESTORE.get("MoreExecutors"))
+                            .setMethodName("directExecutor")
+                            .build())
+                    .build()));
+    AnonymousClassExpr instrumentedCallableExpr =
+        AnonymousClassExpr.builder()
+            .setType(callableType)
+            .setMethods(
+                Arrays.asList(
+                    MethodDefinition.builder()
+                        .setIsOverride(true)
+                        .setScope(ScopeNode.PUBLIC)
+                        .setReturnType(futureType)
+                        .setName("futureCall")
+                        .setArguments(
+                            Arrays.asList(
+                                requestVarExpr.toBuilder().setIsDecl(true).build(),
+                                contextVarExpr.toBuilder().setIsDecl(true).build()))
+                        .setBody(futureCallBody)
+                        .setReturnExpr(futureVarExpr)
+                        .build()))
+            .build();
+
+    // Callables are not wrapped at all unless a recorder was passed in.
+    Statement noOpCheckStatement =
+        IfStatement.builder()
+            .setConditionExpr(
+                RelationalOperationExpr.equalToWithExprs(
+                    metricsRecorderVarExpr, createNoOpMetricsRecorderExpr(typeStore)))
+            .setBody(Arrays.asList(ExprStatement.withExpr(ReturnExpr.withExpr(callableVarExpr))))
+            .build();
+
+    return MethodDefinition.builder()
+        .setScope(ScopeNode.PRIVATE)
+        .setTemplateNames(Arrays.asList(REQUEST_TEMPLATE_NAME, RESPONSE_TEMPLATE_NAME))
+        .setReturnType(callableType)
+        .setName(WITH_METRICS_METHOD_NAME)
+        .setArguments(
+            Arrays.asList(callableVarExpr, fullMethodNameVarExpr, metricsRecorderVarExpr).stream()
+                .map(v -> v.toBuilder().setIsDecl(true).build())
+                .collect(Collectors.toList()))
+        .setBody(Arrays.asList(noOpCheckStatement))
+        .setReturnExpr(instrumentedCallableExpr)
+        .build();
+  }
+
+  private static VariableExpr createMetricsRecorderVarExpr(TypeStore typeStore) {
+    return VariableExpr.withVariable(
+        Variable.builder()
+            .setName(METRICS_RECORDER_MEMBER_NAME)
+            .setType(typeStore.get(METRICS_RECORDER_CLASS_NAME))
+            .build());
+  }
+
+  private static VariableExpr createNoOpMetricsRecorderExpr(TypeStore typeStore) {
+    TypeNode metricsRecorderType = typeStore.get(METRICS_RECORDER_CLASS_NAME);
+    return VariableExpr.builder()
+        .setVariable(
+            Variable.builder()
+                .setName(NO_OP_METRICS_RECORDER_NAME)
+                .setType(metricsRecorderType)
+                .build())
+        .setStaticReferenceType(metricsRecorderType)
+        .build();
+  }
+
   private TypeStore createDynamicTypes(Service service, String stubPakkage) {
     TypeStore typeStore = new TypeStore();
     typeStore.putAll(
@@ -859,6 +1516,12 @@ public abstract class AbstractServiceStubClassComposer implements ClassComposer
             .collect(Collectors.toList()),
         true,
         getTransportContext().classNames().getServiceClientClassName(service));
+    // Per-method metrics types. MetricsRecorder is shared by all the stubs in the package. The type
+    // variables of the generic withMetrics helper are placed in the stub package so that they are
+    // never imported.
+    typeStore.putAll(
+        stubPakkage,
+        Arrays.asList(METRICS_RECORDER_CLASS_NAME, REQUEST_TEMPLATE_NAME, RESPONSE_TEMPLATE_NAME));
     return typeStore;
   }
 
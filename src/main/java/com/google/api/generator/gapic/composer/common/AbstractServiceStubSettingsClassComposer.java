@@ -131,6 +131,7 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
   private static final String NESTED_RETRYABLE_CODE_DEFINITIONS_VAR_NAME =
       "RETRYABLE_CODE_DEFINITIONS";
   private static final String NESTED_RETRY_PARAM_DEFINITIONS_VAR_NAME = "RETRY_PARAM_DEFINITIONS";
+  private static final String NESTED_BASE_SETTINGS_VAR_NAME = "baseSettings";
 
   private static final String OPERATION_SETTINGS_LITERAL = "OperationSettings";
   private static final String SETTINGS_LITERAL = "Settings";
@@ -165,6 +166,7 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
     Map<String, Message> messageTypes = context.messages();
     String pakkage = String.format("%s.stub", service.pakkage());
     TypeStore typeStore = createDynamicTypes(service, pakkage);
+    boolean isCopyOnWrite = context.copyOnWriteSettingsEnabled();
 
     Set<String> deprecatedSettingVarNames = new HashSet<>();
     Map<String, VariableExpr> methodSettingsMemberVarExprs =
@@ -190,9 +192,14 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
                     service, serviceConfig, methodSettingsMemberVarExprs, messageTypes, typeStore))
             .setMethods(
                 createClassMethods(
-                    service, methodSettingsMemberVarExprs, deprecatedSettingVarNames, typeStore))
+                    service,
+                    methodSettingsMemberVarExprs,
+                    deprecatedSettingVarNames,
+                    typeStore,
+                    isCopyOnWrite))
             .setNestedClasses(
-                Arrays.asList(createNestedBuilderClass(service, serviceConfig, typeStore)))
+                Arrays.asList(
+                    createNestedBuilderClass(service, serviceConfig, typeStore, isCopyOnWrite)))
             .build();
     return GapicClass.create(GapicClass.Kind.STUB, classDef);
   }
@@ -391,23 +398,12 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
       }
 
       // Find the repeated type.
-      String pagedResponseMessageKey = method.outputType().reference().fullName();
-      if (method.hasLro()) {
-        pagedResponseMessageKey = method.lro().responseType().reference().fullName();
-      }
-      Message pagedResponseMessage = messageTypes.get(pagedResponseMessageKey);
-      Preconditions.checkNotNull(
-          pagedResponseMessage,
-          String.format(
-              "No method found for message type %s for method %s among %s",
-              pagedResponseMessageKey, method.name(), messageTypes.keySet()));
-
-      Field repeatedPagedResultsField = pagedResponseMessage.findAndUnwrapPaginatedRepeatedField();
+      Field repeatedPagedResultsField = method.pagedResultsField();
       Preconditions.checkNotNull(
           repeatedPagedResultsField,
-          String.format(
-              "No repeated type found for paged reesponse %s for method %s",
-              method.outputType().reference().name(), method.name()));
+          "No repeated type found for paged response %s for method %s",
+          method.outputType().reference().name(),
+          method.name());
 
       TypeNode repeatedResponseType = repeatedPagedResultsField.type();
       String repeatedFieldName = repeatedPagedResultsField.name();
@@ -809,14 +805,16 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
       Service service,
       Map<String, VariableExpr> methodSettingsMemberVarExprs,
       Set<String> deprecatedSettingVarNames,
-      TypeStore typeStore) {
+      TypeStore typeStore,
+      boolean isCopyOnWrite) {
     List<MethodDefinition> javaMethods = new ArrayList<>();
     javaMethods.addAll(
         createMethodSettingsGetterMethods(methodSettingsMemberVarExprs, deprecatedSettingVarNames));
     javaMethods.add(createCreateStubMethod(service, typeStore));
     javaMethods.addAll(createDefaultHelperAndGetterMethods(service, typeStore));
     javaMethods.addAll(createBuilderHelperMethods(service, typeStore));
-    javaMethods.add(createClassConstructor(service, methodSettingsMemberVarExprs, typeStore));
+    javaMethods.add(
+        createClassConstructor(service, methodSettingsMemberVarExprs, typeStore, isCopyOnWrite));
     return javaMethods;
   }
 
@@ -1086,7 +1084,8 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
   private static MethodDefinition createClassConstructor(
       Service service,
       Map<String, VariableExpr> methodSettingsMemberVarExprs,
-      TypeStore typeStore) {
+      TypeStore typeStore,
+      boolean isCopyOnWrite) {
     TypeNode thisType = typeStore.get(ClassNames.getServiceStubSettingsClassName(service));
     final VariableExpr settingsBuilderVarExpr =
         VariableExpr.withVariable(
@@ -1105,21 +1104,48 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
     bodyStatements.add(ExprStatement.withExpr(superCtorExpr));
     bodyStatements.add(EMPTY_LINE_STATEMENT);
 
+    // With copy-on-write builders, methods whose settings builder was never accessed keep the
+    // settings instance the builder was created from.
+    VariableExpr baseSettingsVarExpr =
+        VariableExpr.builder()
+            .setExprReferenceExpr(settingsBuilderVarExpr)
+            .setVariable(createNestedBaseSettingsVarExpr(thisType).variable())
+            .build();
     Function<Map.Entry<String, VariableExpr>, AssignmentExpr> varInitExprFn =
-        e ->
-            AssignmentExpr.builder()
-                .setVariableExpr(e.getValue())
-                .setValueExpr(
-                    MethodInvocationExpr.builder()
-                        .setExprReferenceExpr(
-                            MethodInvocationExpr.builder()
+        e -> {
+          Expr buildExpr =
+              MethodInvocationExpr.builder()
+                  .setExprReferenceExpr(
+                      MethodInvocationExpr.builder()
+                          .setExprReferenceExpr(settingsBuilderVarExpr)
+                          .setMethodName(e.getKey())
+                          .build())
+                  .setMethodName("build")
+                  .setReturnType(e.getValue().type())
+                  .build();
+          if (isCopyOnWrite) {
+            buildExpr =
+                TernaryExpr.builder()
+                    .setConditionExpr(
+                        RelationalOperationExpr.equalToWithExprs(
+                            VariableExpr.builder()
                                 .setExprReferenceExpr(settingsBuilderVarExpr)
-                                .setMethodName(e.getKey())
-                                .build())
-                        .setMethodName("build")
-                        .setReturnType(e.getValue().type())
-                        .build())
-                .build();
+                                .setVariable(e.getValue().variable())
+                                .build(),
+                            ValueExpr.createNullExpr()))
+                    .setThenExpr(
+                        VariableExpr.builder()
+                            .setExprReferenceExpr(baseSettingsVarExpr)
+                            .setVariable(e.getValue().variable())
+                            .build())
+                    .setElseExpr(buildExpr)
+                    .build();
+          }
+          return AssignmentExpr.builder()
+              .setVariableExpr(e.getValue())
+              .setValueExpr(buildExpr)
+              .build();
+        };
     bodyStatements.addAll(
         methodSettingsMemberVarExprs.entrySet().stream()
             .map(e -> ExprStatement.withExpr(varInitExprFn.apply(e)))
@@ -1135,7 +1161,10 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
   }
 
   private static ClassDefinition createNestedBuilderClass(
-      Service service, @Nullable GapicServiceConfig serviceConfig, TypeStore typeStore) {
+      Service service,
+      @Nullable GapicServiceConfig serviceConfig,
+      TypeStore typeStore,
+      boolean isCopyOnWrite) {
     // TODO(miraleung): Robustify this against a null serviceConfig.
     String thisClassName = ClassNames.getServiceStubSettingsClassName(service);
     TypeNode outerThisClassType = typeStore.get(thisClassName);
@@ -1172,7 +1201,12 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
         .setName(className)
         .setExtendsType(extendsType)
         .setStatements(
-            createNestedClassStatements(service, serviceConfig, nestedMethodSettingsMemberVarExprs))
+            createNestedClassStatements(
+                service,
+                serviceConfig,
+                nestedMethodSettingsMemberVarExprs,
+                outerThisClassType,
+                isCopyOnWrite))
         .setMethods(
             createNestedClassMethods(
                 service,
@@ -1180,19 +1214,27 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
                 extendsType,
                 nestedMethodSettingsMemberVarExprs,
                 nestedDeprecatedSettingVarNames,
-                typeStore))
+                typeStore,
+                isCopyOnWrite))
         .build();
   }
 
   private static List<Statement> createNestedClassStatements(
       Service service,
       GapicServiceConfig serviceConfig,
-      Map<String, VariableExpr> nestedMethodSettingsMemberVarExprs) {
+      Map<String, VariableExpr> nestedMethodSettingsMemberVarExprs,
+      TypeNode outerSettingsType,
+      boolean isCopyOnWrite) {
     List<Expr> exprs = new ArrayList<>();
 
-    // Declare unaryMethodSettingsBuilders.
+    // Declare unaryMethodSettingsBuilders. Copy-on-write builders set these on first access.
     Function<VariableExpr, VariableExpr> varDeclFn =
-        v -> v.toBuilder().setIsDecl(true).setScope(ScopeNode.PRIVATE).setIsFinal(true).build();
+        v ->
+            v.toBuilder()
+                .setIsDecl(true)
+                .setScope(ScopeNode.PRIVATE)
+                .setIsFinal(!isCopyOnWrite)
+                .build();
     exprs.add(varDeclFn.apply(NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR));
 
     // Declare all the settings fields.
@@ -1201,6 +1243,11 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
             .map(v -> varDeclFn.apply(v))
             .collect(Collectors.toList()));
 
+    // Declare the settings that copy-on-write builders copy from.
+    if (isCopyOnWrite) {
+      exprs.add(varDeclFn.apply(createNestedBaseSettingsVarExpr(outerSettingsType)));
+    }
+
     // Declare the RETRYABLE_CODE_DEFINITIONS field.
     Function<VariableExpr, VariableExpr> varStaticDeclFn =
         v ->
@@ -1240,18 +1287,26 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
       TypeNode superType,
       Map<String, VariableExpr> nestedMethodSettingsMemberVarExprs,
       Set<String> nestedDeprecatedSettingVarNames,
-      TypeStore typeStore) {
+      TypeStore typeStore,
+      boolean isCopyOnWrite) {
+    TypeNode outerSettingsType = typeStore.get(ClassNames.getServiceStubSettingsClassName(service));
     List<MethodDefinition> nestedClassMethods = new ArrayList<>();
     nestedClassMethods.addAll(
         createNestedClassConstructorMethods(
-            service, serviceConfig, nestedMethodSettingsMemberVarExprs, typeStore));
+            service, serviceConfig, nestedMethodSettingsMemberVarExprs, typeStore, isCopyOnWrite));
     nestedClassMethods.add(createNestedClassCreateDefaultMethod(typeStore));
     nestedClassMethods.add(createNestedClassInitDefaultsMethod(service, serviceConfig, typeStore));
-    nestedClassMethods.add(createNestedClassApplyToAllUnaryMethodsMethod(superType, typeStore));
-    nestedClassMethods.add(createNestedClassUnaryMethodSettingsBuilderGetterMethod());
+    nestedClassMethods.add(
+        createNestedClassApplyToAllUnaryMethodsMethod(superType, typeStore, isCopyOnWrite));
+    nestedClassMethods.add(
+        createNestedClassUnaryMethodSettingsBuilderGetterMethod(
+            nestedMethodSettingsMemberVarExprs, isCopyOnWrite));
     nestedClassMethods.addAll(
         createNestedClassSettingsBuilderGetterMethods(
-            nestedMethodSettingsMemberVarExprs, nestedDeprecatedSettingVarNames));
+            nestedMethodSettingsMemberVarExprs,
+            nestedDeprecatedSettingVarNames,
+            outerSettingsType,
+            isCopyOnWrite));
     nestedClassMethods.add(createNestedClassBuildMethod(service, typeStore));
     return nestedClassMethods;
   }
@@ -1330,7 +1385,8 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
       Service service,
       GapicServiceConfig serviceConfig,
       Map<String, VariableExpr> nestedMethodSettingsMemberVarExprs,
-      TypeStore typeStore) {
+      TypeStore typeStore,
+      boolean isCopyOnWrite) {
     TypeNode builderType = typeStore.get(NESTED_BUILDER_CLASS_NAME);
 
     List<MethodDefinition> ctorMethods = new ArrayList<>();
@@ -1493,24 +1549,10 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
         AssignmentExpr.builder()
             .setVariableExpr(NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR)
             .setValueExpr(
-                MethodInvocationExpr.builder()
-                    .setStaticReferenceType(FIXED_TYPESTORE.get("ImmutableList"))
-                    .setGenerics(
-                        NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR
-                            .type()
-                            .reference()
-                            .generics())
-                    .setMethodName("of")
-                    .setArguments(
-                        nestedMethodSettingsMemberVarExprs.values().stream()
-                            .filter(
-                                v ->
-                                    isUnaryCallSettingsBuilderFn.apply(v.type())
-                                        || isPagedCallSettingsBuilderFn.apply(v.type())
-                                        || isBatchingCallSettingsBuilderFn.apply(v.type()))
-                            .collect(Collectors.toList()))
-                    .setReturnType(NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR.type())
-                    .build())
+                createNestedUnaryMethodSettingsBuildersListExpr(
+                    nestedMethodSettingsMemberVarExprs.values().stream()
+                        .filter(v -> isUnaryMethodSettingsBuilderType(v.type()))
+                        .collect(Collectors.toList())))
             .build();
     ctorBodyStatements.add(EMPTY_LINE_STATEMENT);
 
@@ -1545,6 +1587,24 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
                 .build()));
     ctorBodyStatements.add(EMPTY_LINE_STATEMENT);
 
+    if (isCopyOnWrite) {
+      // The settings builders are copied from baseSettings in their getters.
+      ctorBodyStatements.add(
+          ExprStatement.withExpr(
+              AssignmentExpr.builder()
+                  .setVariableExpr(createNestedBaseSettingsVarExpr(outerSettingsType))
+                  .setValueExpr(settingsVarExpr)
+                  .build()));
+      ctorMethods.add(
+          MethodDefinition.constructorBuilder()
+              .setScope(ScopeNode.PROTECTED)
+              .setReturnType(builderType)
+              .setArguments(settingsVarExpr.toBuilder().setIsDecl(true).build())
+              .setBody(ctorBodyStatements)
+              .build());
+      return ctorMethods;
+    }
+
     // TODO(cleanup): Technically this should actually use the outer class's <method>Settings
     // members to avoid decoupling variable names.
     ctorBodyStatements.addAll(
@@ -1688,7 +1748,7 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
   }
 
   private static MethodDefinition createNestedClassApplyToAllUnaryMethodsMethod(
-      TypeNode superType, TypeStore typeStore) {
+      TypeNode superType, TypeStore typeStore, boolean isCopyOnWrite) {
     List<Reference> apiFunctionTypeGenerics = new ArrayList<>();
     apiFunctionTypeGenerics.addAll(
         NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR.type().reference().generics());
@@ -1709,7 +1769,14 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
         MethodInvocationExpr.builder()
             .setExprReferenceExpr(ValueExpr.withValue(SuperObjectValue.withType(superType)))
             .setMethodName(methodName)
-            .setArguments(NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR, settingsUpdaterVarExpr)
+            .setArguments(
+                isCopyOnWrite
+                    ? MethodInvocationExpr.builder()
+                        .setMethodName(NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_NAME)
+                        .setReturnType(NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR.type())
+                        .build()
+                    : NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR,
+                settingsUpdaterVarExpr)
             .build();
 
     TypeNode returnType = typeStore.get(NESTED_BUILDER_CLASS_NAME);
@@ -1728,18 +1795,40 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
         .build();
   }
 
-  private static MethodDefinition createNestedClassUnaryMethodSettingsBuilderGetterMethod() {
+  private static MethodDefinition createNestedClassUnaryMethodSettingsBuilderGetterMethod(
+      Map<String, VariableExpr> nestedMethodSettingsMemberVarExprs, boolean isCopyOnWrite) {
+    List<Statement> bodyStatements = new ArrayList<>();
+    if (isCopyOnWrite) {
+      // Goes through the getters, so that every unary method's builder is copied first.
+      Expr listExpr =
+          createNestedUnaryMethodSettingsBuildersListExpr(
+              nestedMethodSettingsMemberVarExprs.values().stream()
+                  .filter(v -> isUnaryMethodSettingsBuilderType(v.type()))
+                  .map(
+                      v ->
+                          MethodInvocationExpr.builder()
+                              .setMethodName(v.variable().identifier().name())
+                              .setReturnType(v.type())
+                              .build())
+                  .collect(Collectors.toList()));
+      bodyStatements.add(
+          createLazyInitIfStatement(NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR, listExpr));
+    }
     return MethodDefinition.builder()
         .setScope(ScopeNode.PUBLIC)
         .setReturnType(NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR.type())
         .setName("unaryMethodSettingsBuilders")
+        .setBody(bodyStatements)
         .setReturnExpr(NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR)
         .build();
   }
 
   private static List<MethodDefinition> createNestedClassSettingsBuilderGetterMethods(
       Map<String, VariableExpr> nestedMethodSettingsMemberVarExprs,
-      Set<String> nestedDeprecatedSettingVarNames) {
+      Set<String> nestedDeprecatedSettingVarNames,
+      TypeNode outerSettingsType,
+      boolean isCopyOnWrite) {
+    VariableExpr baseSettingsVarExpr = createNestedBaseSettingsVarExpr(outerSettingsType);
     Reference operationCallSettingsBuilderRef =
         ConcreteReference.withClazz(OperationCallSettings.Builder.class);
     Function<TypeNode, Boolean> isOperationCallSettingsBuilderFn =
@@ -1774,6 +1863,22 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
         annotations.add(deprecatedAnnotation);
       }
 
+      List<Statement> bodyStatements = new ArrayList<>();
+      if (isCopyOnWrite) {
+        bodyStatements.add(
+            createLazyInitIfStatement(
+                settingsVarExpr,
+                MethodInvocationExpr.builder()
+                    .setExprReferenceExpr(
+                        VariableExpr.builder()
+                            .setExprReferenceExpr(baseSettingsVarExpr)
+                            .setVariable(settingsVarExpr.variable())
+                            .build())
+                    .setMethodName("toBuilder")
+                    .setReturnType(settingsVarExpr.type())
+                    .build()));
+      }
+
       javaMethods.add(
           MethodDefinition.builder()
               .setHeaderCommentStatements(
@@ -1783,6 +1888,7 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
               .setScope(ScopeNode.PUBLIC)
               .setReturnType(settingsVarExpr.type())
               .setName(settingsVarExpr.variable().identifier().name())
+              .setBody(bodyStatements)
               .setReturnExpr(settingsVarExpr)
               .build());
     }
@@ -1916,6 +2022,47 @@ public abstract class AbstractServiceStubSettingsClassComposer implements ClassC
             .build());
   }
 
+  private static VariableExpr createNestedBaseSettingsVarExpr(TypeNode outerSettingsType) {
+    return VariableExpr.withVariable(
+        Variable.builder()
+            .setType(outerSettingsType)
+            .setName(NESTED_BASE_SETTINGS_VAR_NAME)
+            .build());
+  }
+
+  private static Expr createNestedUnaryMethodSettingsBuildersListExpr(
+      List<Expr> settingsBuilderExprs) {
+    return MethodInvocationExpr.builder()
+        .setStaticReferenceType(FIXED_TYPESTORE.get("ImmutableList"))
+        .setGenerics(NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR.type().reference().generics())
+        .setMethodName("of")
+        .setArguments(settingsBuilderExprs)
+        .setReturnType(NESTED_UNARY_METHOD_SETTINGS_BUILDERS_VAR_EXPR.type())
+        .build();
+  }
+
+  // Unary, paged and batching settings builders are all UnaryCallSettings.Builders.
+  private static boolean isUnaryMethodSettingsBuilderType(TypeNode type) {
+    Reference rawRef = type.reference().copyAndSetGenerics(ImmutableList.of());
+    return rawRef.equals(ConcreteReference.withClazz(UnaryCallSettings.Builder.class))
+        || rawRef.equals(ConcreteReference.withClazz(PagedCallSettings.Builder.class))
+        || rawRef.equals(ConcreteReference.withClazz(BatchingCallSettings.Builder.class));
+  }
+
+  private static IfStatement createLazyInitIfStatement(VariableExpr varExpr, Expr valueExpr) {
+    return IfStatement.builder()
+        .setConditionExpr(
+            RelationalOperationExpr.equalToWithExprs(varExpr, ValueExpr.createNullExpr()))
+        .setBody(
+            Arrays.asList(
+                ExprStatement.withExpr(
+                    AssignmentExpr.builder()
+                        .setVariableExpr(varExpr)
+                        .setValueExpr(valueExpr)
+                        .build())))
+        .build();
+  }
+
   private static VariableExpr createNestedRetryableCodeDefinitionsVarExpr() {
     TypeNode immutableSetType =
         TypeNode.withReference(
@@ -0,0 +1,161 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.api.generator.gapic.composer.common;
+
+import com.google.api.core.BetaApi;
+import com.google.api.generator.engine.ast.AnnotationNode;
+import com.google.api.generator.engine.ast.AssignmentExpr;
+import com.google.api.generator.engine.ast.ClassDefinition;
+import com.google.api.generator.engine.ast.CommentStatement;
+import com.google.api.generator.engine.ast.ConcreteReference;
+import com.google.api.generator.engine.ast.ExprStatement;
+import com.google.api.generator.engine.ast.JavaDocComment;
+import com.google.api.generator.engine.ast.MethodDefinition;
+import com.google.api.generator.engine.ast.NewObjectExpr;
+import com.google.api.generator.engine.ast.ScopeNode;
+import com.google.api.generator.engine.ast.Statement;
+import com.google.api.generator.engine.ast.TypeNode;
+import com.google.api.generator.engine.ast.Variable;
+import com.google.api.generator.engine.ast.VariableExpr;
+import com.google.api.generator.gapic.composer.comment.CommentComposer;
+import com.google.api.generator.gapic.composer.store.TypeStore;
+import com.google.api.generator.gapic.composer.utils.PackageChecker;
+import com.google.api.generator.gapic.model.GapicClass;
+import com.google.api.generator.gapic.model.GapicClass.Kind;
+import com.google.api.generator.gapic.model.GapicContext;
+import com.google.api.generator.gapic.model.Service;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Generated;
+
+/**
+ * Generates the MetricsRecorder class that the transport stubs of a package share when the
+ * method-metrics option is enabled. Only one is generated for each stub package.
+ */
+public class MetricsRecorderClassComposer implements ClassComposer {
+  private static final MetricsRecorderClassComposer INSTANCE = new MetricsRecorderClassComposer();
+  private static final String CLASS_NAME = "MetricsRecorder";
+  private static final String NO_OP_NAME = "NO_OP";
+
+  private MetricsRecorderClassComposer() {}
+
+  public static MetricsRecorderClassComposer instance() {
+    return INSTANCE;
+  }
+
+  @Override
+  public GapicClass generate(GapicContext context, Service service) {
+    String pakkage = String.format("%s.stub", service.pakkage());
+    TypeStore typeStore = createTypes(pakkage);
+    TypeNode thisClassType = typeStore.get(CLASS_NAME);
+
+    VariableExpr noOpVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName(NO_OP_NAME).setType(thisClassType).build());
+    Statement noOpDeclStatement =
+        ExprStatement.withExpr(
+            AssignmentExpr.builder()
+                .setVariableExpr(
+                    noOpVarExpr.toBuilder()
+                        .setIsDecl(true)
+                        .setScope(ScopeNode.PUBLIC)
+                        .setIsStatic(true)
+                        .setIsFinal(true)
+                        .build())
+                .setValueExpr(NewObjectExpr.builder().setType(thisClassType).build())
+                .build());
+
+    ClassDefinition classDef =
+        ClassDefinition.builder()
+            .setPackageString(pakkage)
+            .setHeaderCommentStatements(
+                CommentComposer.AUTO_GENERATED_CLASS_COMMENT,
+                CommentStatement.withComment(
+                    JavaDocComment.builder()
+                        .addComment(
+                            "Records per-method metrics for calls made through the transport"
+                                + " stubs in this package. Pass an instance to a stub's"
+                                + " create(settings, metricsRecorder) method.")
+                        .addParagraph(
+                            "Unary calls are recorded once each. Paged calls are recorded once for"
+                                + " every page fetched, including the pages that iterateAll"
+                                + " fetches. Streaming and long-running operation calls are not"
+                                + " recorded. The default implementation records nothing.")
+                        .build()))
+            .setAnnotations(createClassAnnotations(service, typeStore))
+            .setScope(ScopeNode.PUBLIC)
+            .setName(CLASS_NAME)
+            .setStatements(Arrays.asList(noOpDeclStatement))
+            .setMethods(Arrays.asList(createRecordCallMethod()))
+            .build();
+    return GapicClass.create(Kind.STUB, classDef);
+  }
+
+  private static List<AnnotationNode> createClassAnnotations(Service service, TypeStore typeStore) {
+    List<AnnotationNode> annotations = new ArrayList<>();
+    if (!PackageChecker.isGaApi(service.pakkage())) {
+      annotations.add(AnnotationNode.withType(typeStore.get("BetaApi")));
+    }
+
+    annotations.add(
+        AnnotationNode.builder()
+            .setType(typeStore.get("Generated"))
+            .setDescription("by gapic-generator-java")
+            .build());
+    return annotations;
+  }
+
+  private static MethodDefinition createRecordCallMethod() {
+    List<VariableExpr> arguments =
+        Arrays.asList(
+            VariableExpr.withVariable(
+                Variable.builder().setName("fullMethodName").setType(TypeNode.STRING).build()),
+            VariableExpr.withVariable(
+                Variable.builder().setName("latencyNanos").setType(TypeNode.LONG).build()),
+            VariableExpr.withVariable(
+                Variable.builder().setName("requestSize").setType(TypeNode.INT).build()),
+            VariableExpr.withVariable(
+                Variable.builder().setName("responseSize").setType(TypeNode.INT).build()),
+            VariableExpr.withVariable(
+                Variable.builder()
+                    .setName("error")
+                    .setType(TypeNode.withReference(ConcreteReference.withClazz(Throwable.class)))
+                    .build()));
+    return MethodDefinition.builder()
+        .setHeaderCommentStatements(
+            CommentStatement.withComment(
+                JavaDocComment.withComment(
+                    "Called once for every completed call or fetched page. Sizes are serialized"
+                        + " message sizes in bytes, and the response size is 0 if the call"
+                        + " failed.")))
+        .setScope(ScopeNode.PUBLIC)
+        .setReturnType(TypeNode.VOID)
+        .setName("recordCall")
+        .setArguments(
+            arguments.stream()
+                .map(v -> v.toBuilder().setIsDecl(true).build())
+                .collect(Collectors.toList()))
+        .build();
+  }
+
+  private static TypeStore createTypes(String pakkage) {
+    List<Class> concreteClazzes = Arrays.asList(BetaApi.class, Generated.class);
+    TypeStore typeStore = new TypeStore(concreteClazzes);
+    typeStore.put(pakkage, CLASS_NAME);
+    return typeStore;
+  }
+}
@@ -45,6 +45,7 @@ import com.google.api.generator.gapic.model.Method;
 import com.google.api.generator.gapic.model.Service;
 import com.google.api.generator.gapic.utils.JavaStyle;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
@@ -54,9 +55,12 @@ import com.google.rpc.Code;
 import io.grpc.serviceconfig.MethodConfig.RetryPolicy;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -72,6 +76,15 @@ public class RetrySettingsComposer {
   private static final long LRO_DEFAULT_TOTAL_POLL_TIMEOUT_MILLIS = 300000; // 5 minutes.
   private static final double LRO_DEFAULT_MAX_RPC_TIMEOUT = 1.0;
 
+  // The same retry-code sets and durations show up in every method of every service, so their
+  // (immutable) expression trees are built once and shared across all generated classes.
+  private static final Map<Code, EnumRefExpr> STATUS_CODE_ENUM_REF_EXPRS =
+      createStatusCodeEnumRefExprs();
+  private static final ConcurrentMap<List<Code>, MethodInvocationExpr> RETRY_CODE_SET_EXPRS =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentMap<Long, MethodInvocationExpr> DURATION_OF_MILLIS_EXPRS =
+      new ConcurrentHashMap<>();
+
   public static BlockStatement createRetryParamDefinitionsBlock(
       Service service,
       GapicServiceConfig serviceConfig,
@@ -203,8 +216,10 @@ public class RetrySettingsComposer {
       VariableExpr builderVarExpr,
       VariableExpr retryableCodeDefsVarExpr,
       VariableExpr retryParamDefsVarExpr) {
-    String codeName = serviceConfig.getRetryCodeName(service, method);
-    String retryParamName = serviceConfig.getRetryParamsName(service, method);
+    GapicServiceConfig.ResolvedMethodConfig methodConfig =
+        serviceConfig.getResolvedMethodConfig(service, method);
+    String codeName = methodConfig.retryCodeName();
+    String retryParamName = methodConfig.retryParamsName();
     String settingsGetterMethodName =
         String.format("%sSettings", JavaStyle.toLowerCamelCase(method.name()));
 
@@ -254,8 +269,10 @@ public class RetrySettingsComposer {
         String.format(
             "Tried to create LRO settings initialization for non-LRO method %s", method.name()));
 
-    String codeName = serviceConfig.getRetryCodeName(service, method);
-    String retryParamName = serviceConfig.getRetryParamsName(service, method);
+    GapicServiceConfig.ResolvedMethodConfig methodConfig =
+        serviceConfig.getResolvedMethodConfig(service, method);
+    String codeName = methodConfig.retryCodeName();
+    String retryParamName = methodConfig.retryParamsName();
     String settingsGetterMethodName =
         String.format("%sOperationSettings", JavaStyle.toLowerCamelCase(method.name()));
 
@@ -348,7 +365,7 @@ public class RetrySettingsComposer {
                     .build())
             .build();
 
-    Expr lroRetrySettingsExpr = createLroRetrySettingsExpr(service, method, serviceConfig);
+    Expr lroRetrySettingsExpr = createLroRetrySettingsExpr(methodConfig);
     Expr pollAlgoExpr =
         MethodInvocationExpr.builder()
             .setStaticReferenceType(FIXED_TYPESTORE.get("OperationTimedPollAlgorithm"))
@@ -395,8 +412,7 @@ public class RetrySettingsComposer {
         MethodInvocationExpr.builder()
             .setExprReferenceExpr(batchingSettingsBuilderExpr)
             .setMethodName("setDelayThreshold")
-            .setArguments(
-                createDurationOfMillisExpr(toValExpr(batchingSettings.delayThresholdMillis())))
+            .setArguments(createDurationOfMillisExpr(batchingSettings.delayThresholdMillis()))
             .build();
 
     // FlowControlSettings.
@@ -472,6 +488,17 @@ public class RetrySettingsComposer {
       String codeName, List<Code> retryCodes, VariableExpr definitionsVarExpr) {
     // Construct something like `definitions.put("code_name",
     //          ImmutableSet.copYOf(Lists.<StatusCode.Code>newArrayList()));`
+    return MethodInvocationExpr.builder()
+        .setExprReferenceExpr(definitionsVarExpr)
+        .setMethodName("put")
+        .setArguments(
+            ValueExpr.withValue(StringObjectValue.withValue(codeName)),
+            RETRY_CODE_SET_EXPRS.computeIfAbsent(
+                ImmutableList.copyOf(retryCodes), RetrySettingsComposer::createRetryCodeSetExpr))
+        .build();
+  }
+
+  private static MethodInvocationExpr createRetryCodeSetExpr(List<Code> retryCodes) {
     MethodInvocationExpr codeListExpr =
         MethodInvocationExpr.builder()
             .setStaticReferenceType(FIXED_TYPESTORE.get("Lists"))
@@ -483,16 +510,10 @@ public class RetrySettingsComposer {
                     .collect(Collectors.toList()))
             .build();
 
-    MethodInvocationExpr codeSetExpr =
-        MethodInvocationExpr.builder()
-            .setStaticReferenceType(FIXED_TYPESTORE.get("ImmutableSet"))
-            .setMethodName("copyOf")
-            .setArguments(codeListExpr)
-            .build();
     return MethodInvocationExpr.builder()
-        .setExprReferenceExpr(definitionsVarExpr)
-        .setMethodName("put")
-        .setArguments(ValueExpr.withValue(StringObjectValue.withValue(codeName)), codeSetExpr)
+        .setStaticReferenceType(FIXED_TYPESTORE.get("ImmutableSet"))
+        .setMethodName("copyOf")
+        .setArguments(codeListExpr)
         .build();
   }
 
@@ -516,7 +537,7 @@ public class RetrySettingsComposer {
           MethodInvocationExpr.builder()
               .setExprReferenceExpr(settingsBuilderExpr)
               .setMethodName("setInitialRetryDelay")
-              .setArguments(createDurationOfMillisExpr(toValExpr(retryPolicy.getInitialBackoff())))
+              .setArguments(createDurationOfMillisExpr(retryPolicy.getInitialBackoff()))
               .build();
 
       settingsBuilderExpr =
@@ -533,7 +554,7 @@ public class RetrySettingsComposer {
           MethodInvocationExpr.builder()
               .setExprReferenceExpr(settingsBuilderExpr)
               .setMethodName("setMaxRetryDelay")
-              .setArguments(createDurationOfMillisExpr(toValExpr(retryPolicy.getMaxBackoff())))
+              .setArguments(createDurationOfMillisExpr(retryPolicy.getMaxBackoff()))
               .build();
     }
 
@@ -542,7 +563,7 @@ public class RetrySettingsComposer {
           MethodInvocationExpr.builder()
               .setExprReferenceExpr(settingsBuilderExpr)
               .setMethodName("setInitialRpcTimeout")
-              .setArguments(createDurationOfMillisExpr(toValExpr(settings.timeout())))
+              .setArguments(createDurationOfMillisExpr(settings.timeout()))
               .build();
     }
 
@@ -562,7 +583,7 @@ public class RetrySettingsComposer {
             MethodInvocationExpr.builder()
                 .setExprReferenceExpr(settingsBuilderExpr)
                 .setMethodName(setterMethodName)
-                .setArguments(createDurationOfMillisExpr(toValExpr(settings.timeout())))
+                .setArguments(createDurationOfMillisExpr(settings.timeout()))
                 .build();
       }
     }
@@ -592,7 +613,7 @@ public class RetrySettingsComposer {
   }
 
   private static Expr createLroRetrySettingsExpr(
-      Service service, Method method, GapicServiceConfig serviceConfig) {
+      GapicServiceConfig.ResolvedMethodConfig methodConfig) {
     Expr lroRetrySettingsExpr =
         MethodInvocationExpr.builder()
             .setStaticReferenceType(FIXED_TYPESTORE.get("RetrySettings"))
@@ -603,23 +624,20 @@ public class RetrySettingsComposer {
     double pollDelayMultiplier = LRO_DEFAULT_POLL_DELAY_MULTIPLIER;
     long maxPollDelayMillis = LRO_DEFAULT_MAX_POLL_DELAY_MILLIS;
     long totalPollTimeoutMillis = LRO_DEFAULT_TOTAL_POLL_TIMEOUT_MILLIS;
-    if (serviceConfig.hasLroRetrySetting(service, method)) {
-      Optional<GapicLroRetrySettings> lroRetrySettingsOpt =
-          serviceConfig.getLroRetrySetting(service, method);
-      if (lroRetrySettingsOpt.isPresent()) {
-        GapicLroRetrySettings lroRetrySettings = lroRetrySettingsOpt.get();
-        initialPollDelayMillis = lroRetrySettings.initialPollDelayMillis();
-        pollDelayMultiplier = lroRetrySettings.pollDelayMultiplier();
-        maxPollDelayMillis = lroRetrySettings.maxPollDelayMillis();
-        totalPollTimeoutMillis = lroRetrySettings.totalPollTimeoutMillis();
-      }
+    Optional<GapicLroRetrySettings> lroRetrySettingsOpt = methodConfig.lroRetrySetting();
+    if (lroRetrySettingsOpt.isPresent()) {
+      GapicLroRetrySettings lroRetrySettings = lroRetrySettingsOpt.get();
+      initialPollDelayMillis = lroRetrySettings.initialPollDelayMillis();
+      pollDelayMultiplier = lroRetrySettings.pollDelayMultiplier();
+      maxPollDelayMillis = lroRetrySettings.maxPollDelayMillis();
+      totalPollTimeoutMillis = lroRetrySettings.totalPollTimeoutMillis();
     }
 
     lroRetrySettingsExpr =
         MethodInvocationExpr.builder()
             .setExprReferenceExpr(lroRetrySettingsExpr)
             .setMethodName("setInitialRetryDelay")
-            .setArguments(createDurationOfMillisExpr(toValExpr(initialPollDelayMillis)))
+            .setArguments(createDurationOfMillisExpr(initialPollDelayMillis))
             .build();
 
     lroRetrySettingsExpr =
@@ -633,7 +651,7 @@ public class RetrySettingsComposer {
         MethodInvocationExpr.builder()
             .setExprReferenceExpr(lroRetrySettingsExpr)
             .setMethodName("setMaxRetryDelay")
-            .setArguments(createDurationOfMillisExpr(toValExpr(maxPollDelayMillis)))
+            .setArguments(createDurationOfMillisExpr(maxPollDelayMillis))
             .build();
 
     Expr zeroDurationExpr =
@@ -666,7 +684,7 @@ public class RetrySettingsComposer {
         MethodInvocationExpr.builder()
             .setExprReferenceExpr(lroRetrySettingsExpr)
             .setMethodName("setTotalTimeout")
-            .setArguments(createDurationOfMillisExpr(toValExpr(totalPollTimeoutMillis)))
+            .setArguments(createDurationOfMillisExpr(totalPollTimeoutMillis))
             .build();
 
     lroRetrySettingsExpr =
@@ -679,7 +697,16 @@ public class RetrySettingsComposer {
   }
 
   private static EnumRefExpr toStatusCodeEnumRefExpr(Code code) {
-    return EnumRefExpr.builder().setType(STATUS_CODE_CODE_TYPE).setName(code.name()).build();
+    return STATUS_CODE_ENUM_REF_EXPRS.get(code);
+  }
+
+  private static Map<Code, EnumRefExpr> createStatusCodeEnumRefExprs() {
+    Map<Code, EnumRefExpr> enumRefExprs = new EnumMap<>(Code.class);
+    for (Code code : Code.values()) {
+      enumRefExprs.put(
+          code, EnumRefExpr.builder().setType(STATUS_CODE_CODE_TYPE).setName(code.name()).build());
+    }
+    return enumRefExprs;
   }
 
   private static ValueExpr toValExpr(long longValue) {
@@ -702,16 +729,19 @@ public class RetrySettingsComposer {
             .build());
   }
 
-  private static ValueExpr toValExpr(Duration duration) {
-    return toValExpr(Durations.toMillis(duration));
+  private static MethodInvocationExpr createDurationOfMillisExpr(Duration duration) {
+    return createDurationOfMillisExpr(Durations.toMillis(duration));
   }
 
-  private static MethodInvocationExpr createDurationOfMillisExpr(ValueExpr valExpr) {
-    return MethodInvocationExpr.builder()
-        .setStaticReferenceType(FIXED_TYPESTORE.get("Duration"))
-        .setMethodName("ofMillis")
-        .setArguments(valExpr)
-        .build();
+  private static MethodInvocationExpr createDurationOfMillisExpr(long millis) {
+    return DURATION_OF_MILLIS_EXPRS.computeIfAbsent(
+        millis,
+        m ->
+            MethodInvocationExpr.builder()
+                .setStaticReferenceType(FIXED_TYPESTORE.get("Duration"))
+                .setMethodName("ofMillis")
+                .setArguments(toValExpr(m))
+                .build());
   }
 
   private static TypeStore createStaticTypes() {
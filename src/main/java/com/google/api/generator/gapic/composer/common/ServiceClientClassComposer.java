@@ -14,6 +14,7 @@
 
 package com.google.api.generator.gapic.composer.common;
 
+import com.google.api.core.ApiAsyncFunction;
 import com.google.api.core.ApiFunction;
 import com.google.api.core.ApiFuture;
 import com.google.api.core.ApiFutures;
@@ -23,6 +24,7 @@ import com.google.api.gax.longrunning.OperationFuture;
 import com.google.api.gax.paging.AbstractFixedSizeCollection;
 import com.google.api.gax.paging.AbstractPage;
 import com.google.api.gax.paging.AbstractPagedListResponse;
+import com.google.api.gax.rpc.ApiExceptions;
 import com.google.api.gax.rpc.BidiStreamingCallable;
 import com.google.api.gax.rpc.ClientStreamingCallable;
 import com.google.api.gax.rpc.OperationCallable;
@@ -38,6 +40,9 @@ import com.google.api.generator.engine.ast.CommentStatement;
 import com.google.api.generator.engine.ast.ConcreteReference;
 import com.google.api.generator.engine.ast.Expr;
 import com.google.api.generator.engine.ast.ExprStatement;
+import com.google.api.generator.engine.ast.IfStatement;
+import com.google.api.generator.engine.ast.JavaDocComment;
+import com.google.api.generator.engine.ast.LogicalOperationExpr;
 import com.google.api.generator.engine.ast.MethodDefinition;
 import com.google.api.generator.engine.ast.MethodInvocationExpr;
 import com.google.api.generator.engine.ast.NewObjectExpr;
@@ -45,8 +50,10 @@ import com.google.api.generator.engine.ast.PrimitiveValue;
 import com.google.api.generator.engine.ast.Reference;
 import com.google.api.generator.engine.ast.ReferenceConstructorExpr;
 import com.google.api.generator.engine.ast.RelationalOperationExpr;
+import com.google.api.generator.engine.ast.ReturnExpr;
 import com.google.api.generator.engine.ast.ScopeNode;
 import com.google.api.generator.engine.ast.Statement;
+import com.google.api.generator.engine.ast.StringObjectValue;
 import com.google.api.generator.engine.ast.SuperObjectValue;
 import com.google.api.generator.engine.ast.TernaryExpr;
 import com.google.api.generator.engine.ast.ThisObjectValue;
@@ -54,6 +61,7 @@ import com.google.api.generator.engine.ast.TypeNode;
 import com.google.api.generator.engine.ast.ValueExpr;
 import com.google.api.generator.engine.ast.Variable;
 import com.google.api.generator.engine.ast.VariableExpr;
+import com.google.api.generator.engine.ast.WhileStatement;
 import com.google.api.generator.gapic.composer.comment.ServiceClientCommentComposer;
 import com.google.api.generator.gapic.composer.samplecode.ServiceClientSampleCodeComposer;
 import com.google.api.generator.gapic.composer.store.TypeStore;
@@ -76,15 +84,22 @@ import com.google.api.generator.util.Trie;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.gapic.metadata.GapicMetadata;
 import com.google.longrunning.Operation;
+import com.google.protobuf.UnsafeByteOperations;
 import com.google.rpc.Status;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -94,6 +109,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 import javax.annotation.Generated;
 
 public class ServiceClientClassComposer implements ClassComposer {
@@ -102,12 +118,28 @@ public class ServiceClientClassComposer implements ClassComposer {
   private static final String CALLABLE_NAME_PATTERN = "%sCallable";
   private static final String PAGED_CALLABLE_NAME_PATTERN = "%sPagedCallable";
   private static final String OPERATION_CALLABLE_NAME_PATTERN = "%sOperationCallable";
+  private static final String PREFETCHING_ITERATOR_TYPE_NAME_PATTERN = "%sPrefetchingIterator";
 
   private static final Reference LIST_REFERENCE = ConcreteReference.withClazz(List.class);
   private static final Reference MAP_REFERENCE = ConcreteReference.withClazz(Map.class);
 
   private static final TypeNode OBJECTS_TYPE =
       TypeNode.withReference(ConcreteReference.withClazz(Objects.class));
+  // Types used by the zero-copy bytes overloads.
+  private static final TypeNode BYTE_ARRAY_TYPE =
+      TypeNode.builder().setTypeKind(TypeNode.TypeKind.BYTE).setIsArray(true).build();
+  private static final TypeNode BYTE_BUFFER_TYPE =
+      TypeNode.withReference(ConcreteReference.withClazz(ByteBuffer.class));
+  private static final TypeNode UNSAFE_BYTE_OPERATIONS_TYPE =
+      TypeNode.withReference(ConcreteReference.withClazz(UnsafeByteOperations.class));
+
+  // Shared by every paged response class, since it does not depend on the method.
+  private static final MethodInvocationExpr DIRECT_EXECUTOR_EXPR =
+      MethodInvocationExpr.builder()
+          .setStaticReferenceType(
+              TypeNode.withReference(ConcreteReference.withClazz(MoreExecutors.class)))
+          .setMethodName("directExecutor")
+          .build();
 
   private enum CallableMethodKind {
     REGULAR,
@@ -132,11 +164,18 @@ public class ServiceClientClassComposer implements ClassComposer {
     boolean hasLroClient = hasLroMethods(service);
 
     Map<String, List<String>> grpcRpcsToJavaMethodNames = new HashMap<>();
+    // Formats all the samples of this class at once.
+    Map<String, String> sampleCodes =
+        ServiceClientSampleCodeComposer.formatClassSampleCodes(
+            service,
+            typeStore.get(className),
+            typeStore.get(ClassNames.getServiceSettingsClassName(service)),
+            resourceNames,
+            messageTypes);
 
     ClassDefinition classDef =
         ClassDefinition.builder()
-            .setHeaderCommentStatements(
-                createClassHeaderComments(service, typeStore, resourceNames, messageTypes))
+            .setHeaderCommentStatements(createClassHeaderComments(service, sampleCodes))
             .setPackageString(pakkage)
             .setAnnotations(createClassAnnotations(service, typeStore))
             .setScope(ScopeNode.PUBLIC)
@@ -146,12 +185,15 @@ public class ServiceClientClassComposer implements ClassComposer {
             .setMethods(
                 createClassMethods(
                     service,
-                    messageTypes,
                     typeStore,
-                    resourceNames,
+                    sampleCodes,
                     hasLroClient,
+                    context.zeroCopyBytesEnabled(),
+                    context.asyncOverloadsEnabled(),
                     grpcRpcsToJavaMethodNames))
-            .setNestedClasses(createNestedPagingClasses(service, messageTypes, typeStore))
+            .setNestedClasses(
+                createNestedPagingClasses(
+                    service, messageTypes, typeStore, context.prefetchingPaginationEnabled()))
             .build();
 
     updateGapicMetadata(context, service, className, grpcRpcsToJavaMethodNames);
@@ -179,31 +221,29 @@ public class ServiceClientClassComposer implements ClassComposer {
   }
 
   private static List<CommentStatement> createClassHeaderComments(
-      Service service,
-      TypeStore typeStore,
-      Map<String, ResourceName> resourceNames,
-      Map<String, Message> messageTypes) {
-    TypeNode clientType = typeStore.get(ClassNames.getServiceClientClassName(service));
-    TypeNode settingsType = typeStore.get(ClassNames.getServiceSettingsClassName(service));
-    String classMethodSampleCode =
-        ServiceClientSampleCodeComposer.composeClassHeaderMethodSampleCode(
-            service, clientType, resourceNames, messageTypes);
-    String credentialsSampleCode =
-        ServiceClientSampleCodeComposer.composeClassHeaderCredentialsSampleCode(
-            clientType, settingsType);
-    String endpointSampleCode =
-        ServiceClientSampleCodeComposer.composeClassHeaderEndpointSampleCode(
-            clientType, settingsType);
+      Service service, Map<String, String> sampleCodes) {
     return ServiceClientCommentComposer.createClassHeaderComments(
-        service, classMethodSampleCode, credentialsSampleCode, endpointSampleCode);
+        service,
+        getSampleCode(sampleCodes, ServiceClientSampleCodeComposer.CLASS_HEADER_METHOD_SAMPLE_KEY),
+        getSampleCode(
+            sampleCodes, ServiceClientSampleCodeComposer.CLASS_HEADER_CREDENTIALS_SAMPLE_KEY),
+        getSampleCode(
+            sampleCodes, ServiceClientSampleCodeComposer.CLASS_HEADER_ENDPOINT_SAMPLE_KEY));
+  }
+
+  private static String getSampleCode(Map<String, String> sampleCodes, String key) {
+    String sampleCode = sampleCodes.get(key);
+    Preconditions.checkState(sampleCode != null, "No sample code was formatted for %s", key);
+    return sampleCode;
   }
 
   private static List<MethodDefinition> createClassMethods(
       Service service,
-      Map<String, Message> messageTypes,
       TypeStore typeStore,
-      Map<String, ResourceName> resourceNames,
+      Map<String, String> sampleCodes,
       boolean hasLroClient,
+      boolean isZeroCopyBytes,
+      boolean isAsyncOverloads,
       Map<String, List<String>> grpcRpcToJavaMethodMetadata) {
     List<MethodDefinition> methods = new ArrayList<>();
     methods.addAll(createStaticCreatorMethods(service, typeStore));
@@ -211,11 +251,29 @@ public class ServiceClientClassComposer implements ClassComposer {
     methods.addAll(createGetterMethods(service, typeStore, hasLroClient));
     methods.addAll(
         createServiceMethods(
-            service, messageTypes, typeStore, resourceNames, grpcRpcToJavaMethodMetadata));
+            service,
+            typeStore,
+            sampleCodes,
+            isZeroCopyBytes,
+            isAsyncOverloads,
+            grpcRpcToJavaMethodMetadata));
     methods.addAll(createBackgroundResourceMethods(service, typeStore));
     return methods;
   }
 
+  private static boolean hasAsyncMethodNameConflict(Service service, Method method) {
+    String asyncMethodName = String.format("%sAsync", method.name());
+    return service.methods().stream().anyMatch(m -> m.name().equals(asyncMethodName));
+  }
+
+  private static TypeNode toApiFutureType(TypeNode type) {
+    return TypeNode.withReference(
+        ConcreteReference.builder()
+            .setClazz(ApiFuture.class)
+            .setGenerics(Arrays.asList(type.reference()))
+            .build());
+  }
+
   private static boolean hasLroMethods(Service service) {
     for (Method method : service.methods()) {
       if (method.hasLro()) {
@@ -529,9 +587,10 @@ public class ServiceClientClassComposer implements ClassComposer {
 
   private static List<MethodDefinition> createServiceMethods(
       Service service,
-      Map<String, Message> messageTypes,
       TypeStore typeStore,
-      Map<String, ResourceName> resourceNames,
+      Map<String, String> sampleCodes,
+      boolean isZeroCopyBytes,
+      boolean isAsyncOverloads,
       Map<String, List<String>> grpcRpcToJavaMethodMetadata) {
     List<MethodDefinition> javaMethods = new ArrayList<>();
     Function<MethodDefinition, String> javaMethodNameFn = m -> m.methodIdentifier().name();
@@ -541,12 +600,7 @@ public class ServiceClientClassComposer implements ClassComposer {
       }
       if (method.stream().equals(Stream.NONE)) {
         List<MethodDefinition> generatedMethods =
-            createMethodVariants(
-                method,
-                ClassNames.getServiceClientClassName(service),
-                messageTypes,
-                typeStore,
-                resourceNames);
+            createMethodVariants(method, typeStore, sampleCodes, false);
 
         // Collect data for gapic_metadata.json.
         grpcRpcToJavaMethodMetadata
@@ -557,21 +611,35 @@ public class ServiceClientClassComposer implements ClassComposer {
                     .collect(Collectors.toList()));
         javaMethods.addAll(generatedMethods);
 
+        // These overloads share their names with the method variants above, so they don't add
+        // anything to gapic_metadata.json.
+        if (isZeroCopyBytes) {
+          javaMethods.addAll(createZeroCopyBytesMethodVariants(method, typeStore));
+        }
+
         MethodDefinition generatedMethod =
-            createMethodDefaultMethod(
-                method,
-                ClassNames.getServiceClientClassName(service),
-                messageTypes,
-                typeStore,
-                resourceNames);
+            createMethodDefaultMethod(method, typeStore, sampleCodes, false);
 
         // Collect data for gapic_metadata.json.
         grpcRpcToJavaMethodMetadata.get(method.name()).add(javaMethodNameFn.apply(generatedMethod));
         javaMethods.add(generatedMethod);
+
+        // LRO methods are already asynchronous.
+        if (isAsyncOverloads && !method.hasLro() && !hasAsyncMethodNameConflict(service, method)) {
+          List<MethodDefinition> asyncMethods =
+              new ArrayList<>(createMethodVariants(method, typeStore, sampleCodes, true));
+          asyncMethods.add(createMethodDefaultMethod(method, typeStore, sampleCodes, true));
+
+          // Collect data for gapic_metadata.json.
+          grpcRpcToJavaMethodMetadata
+              .get(method.name())
+              .addAll(asyncMethods.stream().map(javaMethodNameFn).collect(Collectors.toList()));
+          javaMethods.addAll(asyncMethods);
+        }
       }
       if (method.hasLro()) {
         MethodDefinition generatedMethod =
-            createLroCallableMethod(service, method, typeStore, messageTypes, resourceNames);
+            createLroCallableMethod(service, method, typeStore, sampleCodes);
 
         // Collect data for gapic_metadata.json.
         grpcRpcToJavaMethodMetadata.get(method.name()).add(javaMethodNameFn.apply(generatedMethod));
@@ -579,14 +647,14 @@ public class ServiceClientClassComposer implements ClassComposer {
       }
       if (method.isPaged()) {
         MethodDefinition generatedMethod =
-            createPagedCallableMethod(service, method, typeStore, messageTypes, resourceNames);
+            createPagedCallableMethod(service, method, typeStore, sampleCodes);
 
         // Collect data for gapic_metadata.json.
         grpcRpcToJavaMethodMetadata.get(method.name()).add(javaMethodNameFn.apply(generatedMethod));
         javaMethods.add(generatedMethod);
       }
       MethodDefinition generatedMethod =
-          createCallableMethod(service, method, typeStore, messageTypes, resourceNames);
+          createCallableMethod(service, method, typeStore, sampleCodes);
 
       // Collect data for the gapic_metadata.json file.
       grpcRpcToJavaMethodMetadata.get(method.name()).add(javaMethodNameFn.apply(generatedMethod));
@@ -597,10 +665,9 @@ public class ServiceClientClassComposer implements ClassComposer {
 
   private static List<MethodDefinition> createMethodVariants(
       Method method,
-      String clientName,
-      Map<String, Message> messageTypes,
       TypeStore typeStore,
-      Map<String, ResourceName> resourceNames) {
+      Map<String, String> sampleCodes,
+      boolean isAsyncOverload) {
     List<MethodDefinition> javaMethods = new ArrayList<>();
     String methodName = JavaStyle.toLowerCamelCase(method.name());
     TypeNode methodInputType = method.inputType();
@@ -619,6 +686,11 @@ public class ServiceClientClassComposer implements ClassComposer {
                       Arrays.asList(
                           lro.responseType().reference(), lro.metadataType().reference())));
     }
+    if (isAsyncOverload) {
+      methodOutputType = toApiFutureType(methodOutputType);
+    }
+    String javaMethodName =
+        String.format(method.hasLro() || isAsyncOverload ? "%sAsync" : "%s", methodName);
 
     String methodInputTypeName = methodInputType.reference().name();
     for (List<MethodArgument> signature : method.methodSignatures()) {
@@ -657,15 +729,19 @@ public class ServiceClientClassComposer implements ClassComposer {
 
       MethodInvocationExpr rpcInvocationExpr =
           MethodInvocationExpr.builder()
-              .setMethodName(String.format(method.hasLro() ? "%sAsync" : "%s", methodName))
+              .setMethodName(javaMethodName)
               .setArguments(Arrays.asList(requestVarExpr.toBuilder().setIsDecl(false).build()))
               .setReturnType(methodOutputType)
               .build();
 
+      // Sample code only covers the blocking call pattern.
       Optional<String> methodSampleCode =
-          Optional.of(
-              ServiceClientSampleCodeComposer.composeRpcMethodHeaderSampleCode(
-                  method, typeStore.get(clientName), signature, resourceNames, messageTypes));
+          isAsyncOverload
+              ? Optional.empty()
+              : Optional.of(
+                  getSampleCode(
+                      sampleCodes,
+                      ServiceClientSampleCodeComposer.rpcMethodSampleKey(method, signature)));
       MethodDefinition.Builder methodVariantBuilder =
           MethodDefinition.builder()
               .setHeaderCommentStatements(
@@ -673,7 +749,7 @@ public class ServiceClientClassComposer implements ClassComposer {
                       method, signature, methodSampleCode))
               .setScope(ScopeNode.PUBLIC)
               .setIsFinal(true)
-              .setName(String.format(method.hasLro() ? "%sAsync" : "%s", methodName))
+              .setName(javaMethodName)
               .setArguments(arguments);
 
       if (isProtoEmptyType(methodOutputType)) {
@@ -696,12 +772,105 @@ public class ServiceClientClassComposer implements ClassComposer {
     return javaMethods;
   }
 
+  @VisibleForTesting
+  static List<MethodDefinition> createZeroCopyBytesMethodVariants(
+      Method method, TypeStore typeStore) {
+    List<MethodDefinition> javaMethods = new ArrayList<>();
+    for (List<MethodArgument> signature : method.methodSignatures()) {
+      if (signature.stream().noneMatch(a -> a.type().equals(TypeNode.BYTESTRING))) {
+        continue;
+      }
+      for (TypeNode bytesType : Arrays.asList(BYTE_ARRAY_TYPE, BYTE_BUFFER_TYPE)) {
+        javaMethods.add(createZeroCopyBytesMethodVariant(method, signature, bytesType, typeStore));
+      }
+    }
+    return javaMethods;
+  }
+
+  private static MethodDefinition createZeroCopyBytesMethodVariant(
+      Method method, List<MethodArgument> signature, TypeNode bytesType, TypeStore typeStore) {
+    String methodName =
+        String.format(
+            method.hasLro() ? "%sAsync" : "%s", JavaStyle.toLowerCamelCase(method.name()));
+    TypeNode methodOutputType =
+        method.isPaged()
+            ? typeStore.get(String.format(PAGED_RESPONSE_TYPE_NAME_PATTERN, method.name()))
+            : method.outputType();
+    if (method.hasLro()) {
+      LongrunningOperation lro = method.lro();
+      methodOutputType =
+          TypeNode.withReference(
+              typeStore
+                  .get("OperationFuture")
+                  .reference()
+                  .copyAndSetGenerics(
+                      Arrays.asList(
+                          lro.responseType().reference(), lro.metadataType().reference())));
+    }
+
+    // Replace each ByteString argument with the given type, and wrap it back into a ByteString
+    // when delegating to the corresponding method variant.
+    List<VariableExpr> arguments = new ArrayList<>();
+    List<Expr> delegateArguments = new ArrayList<>();
+    for (MethodArgument methodArg : signature) {
+      boolean isBytes = methodArg.type().equals(TypeNode.BYTESTRING);
+      VariableExpr argVarExpr =
+          VariableExpr.withVariable(
+              Variable.builder()
+                  .setName(JavaStyle.toLowerCamelCase(methodArg.name()))
+                  .setType(isBytes ? bytesType : methodArg.type())
+                  .build());
+      arguments.add(argVarExpr.toBuilder().setIsDecl(true).build());
+      delegateArguments.add(
+          isBytes
+              ? MethodInvocationExpr.builder()
+                  .setStaticReferenceType(UNSAFE_BYTE_OPERATIONS_TYPE)
+                  .setMethodName("unsafeWrap")
+                  .setArguments(argVarExpr)
+                  .setReturnType(TypeNode.BYTESTRING)
+                  .build()
+              : argVarExpr);
+    }
+
+    MethodInvocationExpr delegateInvocationExpr =
+        MethodInvocationExpr.builder()
+            .setMethodName(methodName)
+            .setArguments(delegateArguments)
+            .setReturnType(methodOutputType)
+            .build();
+
+    MethodDefinition.Builder methodBuilder =
+        MethodDefinition.builder()
+            .setHeaderCommentStatements(
+                ServiceClientCommentComposer.createRpcMethodZeroCopyBytesHeaderComment(
+                    method, signature))
+            .setScope(ScopeNode.PUBLIC)
+            .setIsFinal(true)
+            .setName(methodName)
+            .setArguments(arguments);
+
+    if (method.isDeprecated()) {
+      methodBuilder =
+          methodBuilder.setAnnotations(Arrays.asList(AnnotationNode.withType(TypeNode.DEPRECATED)));
+    }
+
+    if (isProtoEmptyType(methodOutputType)) {
+      methodBuilder =
+          methodBuilder
+              .setBody(Arrays.asList(ExprStatement.withExpr(delegateInvocationExpr)))
+              .setReturnType(TypeNode.VOID);
+    } else {
+      methodBuilder =
+          methodBuilder.setReturnExpr(delegateInvocationExpr).setReturnType(methodOutputType);
+    }
+    return methodBuilder.build();
+  }
+
   private static MethodDefinition createMethodDefaultMethod(
       Method method,
-      String clientName,
-      Map<String, Message> messageTypes,
       TypeStore typeStore,
-      Map<String, ResourceName> resourceNames) {
+      Map<String, String> sampleCodes,
+      boolean isAsyncOverload) {
     String methodName = JavaStyle.toLowerCamelCase(method.name());
     TypeNode methodInputType = method.inputType();
     TypeNode methodOutputType =
@@ -733,17 +902,23 @@ public class ServiceClientClassComposer implements ClassComposer {
     if (method.hasLro()) {
       callableMethodName = String.format(OPERATION_CALLABLE_NAME_PATTERN, methodName);
     }
+    if (isAsyncOverload) {
+      methodOutputType = toApiFutureType(methodOutputType);
+    }
 
     Optional<String> defaultMethodSampleCode =
-        Optional.of(
-            ServiceClientSampleCodeComposer.composeRpcDefaultMethodHeaderSampleCode(
-                method, typeStore.get(clientName), resourceNames, messageTypes));
+        isAsyncOverload
+            ? Optional.empty()
+            : Optional.of(
+                getSampleCode(
+                    sampleCodes,
+                    ServiceClientSampleCodeComposer.rpcDefaultMethodSampleKey(method)));
 
     MethodInvocationExpr callableMethodExpr =
         MethodInvocationExpr.builder().setMethodName(callableMethodName).build();
     callableMethodExpr =
         MethodInvocationExpr.builder()
-            .setMethodName(method.hasLro() ? "futureCall" : "call")
+            .setMethodName(method.hasLro() || isAsyncOverload ? "futureCall" : "call")
             .setArguments(Arrays.asList(requestArgVarExpr.toBuilder().setIsDecl(false).build()))
             .setExprReferenceExpr(callableMethodExpr)
             .setReturnType(methodOutputType)
@@ -755,7 +930,8 @@ public class ServiceClientClassComposer implements ClassComposer {
                     method, defaultMethodSampleCode))
             .setScope(ScopeNode.PUBLIC)
             .setIsFinal(true)
-            .setName(String.format(method.hasLro() ? "%sAsync" : "%s", methodName))
+            .setName(
+                String.format(method.hasLro() || isAsyncOverload ? "%sAsync" : "%s", methodName))
             .setArguments(Arrays.asList(requestArgVarExpr));
 
     if (method.isDeprecated()) {
@@ -776,33 +952,19 @@ public class ServiceClientClassComposer implements ClassComposer {
   }
 
   private static MethodDefinition createLroCallableMethod(
-      Service service,
-      Method method,
-      TypeStore typeStore,
-      Map<String, Message> messageTypes,
-      Map<String, ResourceName> resourceNames) {
-    return createCallableMethod(
-        service, method, CallableMethodKind.LRO, typeStore, messageTypes, resourceNames);
+      Service service, Method method, TypeStore typeStore, Map<String, String> sampleCodes) {
+    return createCallableMethod(service, method, CallableMethodKind.LRO, typeStore, sampleCodes);
   }
 
   private static MethodDefinition createCallableMethod(
-      Service service,
-      Method method,
-      TypeStore typeStore,
-      Map<String, Message> messageTypes,
-      Map<String, ResourceName> resourceNames) {
+      Service service, Method method, TypeStore typeStore, Map<String, String> sampleCodes) {
     return createCallableMethod(
-        service, method, CallableMethodKind.REGULAR, typeStore, messageTypes, resourceNames);
+        service, method, CallableMethodKind.REGULAR, typeStore, sampleCodes);
   }
 
   private static MethodDefinition createPagedCallableMethod(
-      Service service,
-      Method method,
-      TypeStore typeStore,
-      Map<String, Message> messageTypes,
-      Map<String, ResourceName> resourceNames) {
-    return createCallableMethod(
-        service, method, CallableMethodKind.PAGED, typeStore, messageTypes, resourceNames);
+      Service service, Method method, TypeStore typeStore, Map<String, String> sampleCodes) {
+    return createCallableMethod(service, method, CallableMethodKind.PAGED, typeStore, sampleCodes);
   }
 
   private static MethodDefinition createCallableMethod(
@@ -810,8 +972,7 @@ public class ServiceClientClassComposer implements ClassComposer {
       Method method,
       CallableMethodKind callableMethodKind,
       TypeStore typeStore,
-      Map<String, Message> messageTypes,
-      Map<String, ResourceName> resourceNames) {
+      Map<String, String> sampleCodes) {
     TypeNode rawCallableReturnType = null;
     if (callableMethodKind.equals(CallableMethodKind.LRO)) {
       rawCallableReturnType = typeStore.get("OperationCallable");
@@ -853,42 +1014,13 @@ public class ServiceClientClassComposer implements ClassComposer {
             .setReturnType(returnType)
             .build();
 
-    Optional<String> sampleCodeOpt = Optional.empty();
+    String sampleCodeKey = ServiceClientSampleCodeComposer.callableMethodSampleKey(method);
     if (callableMethodKind.equals(CallableMethodKind.LRO)) {
-      sampleCodeOpt =
-          Optional.of(
-              ServiceClientSampleCodeComposer.composeLroCallableMethodHeaderSampleCode(
-                  method,
-                  typeStore.get(ClassNames.getServiceClientClassName(service)),
-                  resourceNames,
-                  messageTypes));
+      sampleCodeKey = ServiceClientSampleCodeComposer.lroCallableMethodSampleKey(method);
     } else if (callableMethodKind.equals(CallableMethodKind.PAGED)) {
-      sampleCodeOpt =
-          Optional.of(
-              ServiceClientSampleCodeComposer.composePagedCallableMethodHeaderSampleCode(
-                  method,
-                  typeStore.get(ClassNames.getServiceClientClassName(service)),
-                  resourceNames,
-                  messageTypes));
-    } else if (callableMethodKind.equals(CallableMethodKind.REGULAR)) {
-      if (method.stream().equals(Stream.NONE)) {
-        sampleCodeOpt =
-            Optional.of(
-                ServiceClientSampleCodeComposer.composeRegularCallableMethodHeaderSampleCode(
-                    method,
-                    typeStore.get(ClassNames.getServiceClientClassName(service)),
-                    resourceNames,
-                    messageTypes));
-      } else {
-        sampleCodeOpt =
-            Optional.of(
-                ServiceClientSampleCodeComposer.composeStreamCallableMethodHeaderSampleCode(
-                    method,
-                    typeStore.get(ClassNames.getServiceClientClassName(service)),
-                    resourceNames,
-                    messageTypes));
-      }
+      sampleCodeKey = ServiceClientSampleCodeComposer.pagedCallableMethodSampleKey(method);
     }
+    Optional<String> sampleCodeOpt = Optional.of(getSampleCode(sampleCodes, sampleCodeKey));
 
     MethodDefinition.Builder methodDefBuilder = MethodDefinition.builder();
     if (method.isDeprecated()) {
@@ -1034,30 +1166,37 @@ public class ServiceClientClassComposer implements ClassComposer {
   }
 
   private static List<ClassDefinition> createNestedPagingClasses(
-      Service service, Map<String, Message> messageTypes, TypeStore typeStore) {
+      Service service,
+      Map<String, Message> messageTypes,
+      TypeStore typeStore,
+      boolean isPrefetchingPagination) {
     List<ClassDefinition> nestedClasses = new ArrayList<>();
     for (Method method : service.methods()) {
       if (!method.isPaged()) {
         continue;
       }
       // Find the repeated field.
-      Message methodOutputMessage = messageTypes.get(method.outputType().reference().fullName());
-      Field repeatedPagedResultsField = methodOutputMessage.findAndUnwrapPaginatedRepeatedField();
+      Field repeatedPagedResultsField = method.pagedResultsField();
       Preconditions.checkNotNull(
           repeatedPagedResultsField,
-          String.format(
-              "No repeated field found on message %s for method %s",
-              methodOutputMessage.name(), method.name()));
+          "No repeated field found on message %s for method %s",
+          method.outputType().reference().name(),
+          method.name());
 
       TypeNode repeatedResponseType = repeatedPagedResultsField.type();
 
       nestedClasses.add(
-          createNestedRpcPagedResponseClass(method, repeatedResponseType, messageTypes, typeStore));
+          createNestedRpcPagedResponseClass(
+              method, repeatedResponseType, messageTypes, typeStore, isPrefetchingPagination));
       nestedClasses.add(
           createNestedRpcPageClass(method, repeatedResponseType, messageTypes, typeStore));
       nestedClasses.add(
           createNestedRpcFixedSizeCollectionClass(
               method, repeatedResponseType, messageTypes, typeStore));
+      if (isPrefetchingPagination) {
+        nestedClasses.add(
+            createNestedRpcPrefetchingIteratorClass(method, repeatedResponseType, typeStore));
+      }
     }
 
     return nestedClasses;
@@ -1067,7 +1206,8 @@ public class ServiceClientClassComposer implements ClassComposer {
       Method method,
       TypeNode repeatedResponseType,
       Map<String, Message> messageTypes,
-      TypeStore typeStore) {
+      TypeStore typeStore,
+      boolean isPrefetchingPagination) {
     Preconditions.checkState(
         method.isPaged(), String.format("Expected method %s to be paged", method.name()));
 
@@ -1195,13 +1335,7 @@ public class ServiceClientClassComposer implements ClassComposer {
         MethodInvocationExpr.builder()
             .setStaticReferenceType(typeStore.get("ApiFutures"))
             .setMethodName("transform")
-            .setArguments(
-                futurePageVarExpr,
-                pageToTransformExpr,
-                MethodInvocationExpr.builder()
-                    .setStaticReferenceType(typeStore.get("MoreExecutors"))
-                    .setMethodName("directExecutor")
-                    .build())
+            .setArguments(futurePageVarExpr, pageToTransformExpr, DIRECT_EXECUTOR_EXPR)
             .setReturnType(returnType)
             .build();
 
@@ -1249,6 +1383,10 @@ public class ServiceClientClassComposer implements ClassComposer {
     List<MethodDefinition> javaMethods = new ArrayList<>();
     javaMethods.add(createAsyncMethod);
     javaMethods.add(privateCtor);
+    if (isPrefetchingPagination) {
+      javaMethods.addAll(
+          createPrefetchingPagedResponseMethods(method, repeatedResponseType, typeStore));
+    }
 
     return ClassDefinition.builder()
         .setIsNested(true)
@@ -1260,6 +1398,436 @@ public class ServiceClientClassComposer implements ClassComposer {
         .build();
   }
 
+  private static List<MethodDefinition> createPrefetchingPagedResponseMethods(
+      Method method, TypeNode repeatedResponseType, TypeStore typeStore) {
+    String upperJavaMethodName = JavaStyle.toUpperCamelCase(method.name());
+    TypeNode methodPageType = typeStore.get(String.format("%sPage", upperJavaMethodName));
+    TypeNode prefetchingIteratorType =
+        typeStore.get(String.format(PREFETCHING_ITERATOR_TYPE_NAME_PATTERN, upperJavaMethodName));
+    TypeNode iterableType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(Iterable.class)
+                .setGenerics(Arrays.asList(repeatedResponseType.reference()))
+                .build());
+    TypeNode iteratorType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(Iterator.class)
+                .setGenerics(Arrays.asList(repeatedResponseType.reference()))
+                .build());
+    TypeNode streamType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(java.util.stream.Stream.class)
+                .setGenerics(Arrays.asList(repeatedResponseType.reference()))
+                .build());
+
+    VariableExpr prefetchDepthVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("prefetchDepth").setType(TypeNode.INT).build());
+    VariableExpr firstPageVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("firstPage").setType(methodPageType).build());
+
+    // iterateAllPrefetching method.
+    Expr checkPrefetchDepthExpr =
+        MethodInvocationExpr.builder()
+            .setStaticReferenceType(typeStore.get("Preconditions"))
+            .setMethodName("checkArgument")
+            .setArguments(
+                RelationalOperationExpr.lessThanWithExprs(
+                    ValueExpr.withValue(
+                        PrimitiveValue.builder().setType(TypeNode.INT).setValue("0").build()),
+                    prefetchDepthVarExpr),
+                ValueExpr.withValue(StringObjectValue.withValue("prefetchDepth must be positive")))
+            .build();
+    Expr firstPageAssignExpr =
+        AssignmentExpr.builder()
+            .setVariableExpr(firstPageVarExpr.toBuilder().setIsDecl(true).build())
+            .setValueExpr(
+                MethodInvocationExpr.builder()
+                    .setMethodName("getPage")
+                    .setReturnType(methodPageType)
+                    .build())
+            .build();
+    Expr iterableExpr =
+        AnonymousClassExpr.builder()
+            .setType(iterableType)
+            .setMethods(
+                Arrays.asList(
+                    MethodDefinition.builder()
+                        .setIsOverride(true)
+                        .setScope(ScopeNode.PUBLIC)
+                        .setReturnType(iteratorType)
+                        .setName("iterator")
+                        .setReturnExpr(
+                            MethodInvocationExpr.builder()
+                                .setStaticReferenceType(typeStore.get("Iterators"))
+                                .setMethodName("concat")
+                                .setArguments(
+                                    NewObjectExpr.builder()
+                                        .setType(prefetchingIteratorType)
+                                        .setArguments(firstPageVarExpr, prefetchDepthVarExpr)
+                                        .build())
+                                .setReturnType(iteratorType)
+                                .build())
+                        .build()))
+            .build();
+    MethodDefinition iterateAllPrefetchingMethod =
+        MethodDefinition.builder()
+            .setHeaderCommentStatements(
+                CommentStatement.withComment(
+                    JavaDocComment.withComment(
+                        "Returns an iterable over all elements of all pages. Each of its iterators"
+                            + " keeps requests for up to prefetchDepth upcoming pages in flight"
+                            + " while the current page is consumed. prefetchDepth must be"
+                            + " positive.")))
+            .setScope(ScopeNode.PUBLIC)
+            .setReturnType(iterableType)
+            .setName("iterateAllPrefetching")
+            .setArguments(prefetchDepthVarExpr.toBuilder().setIsDecl(true).build())
+            .setBody(
+                Arrays.asList(
+                    ExprStatement.withExpr(checkPrefetchDepthExpr),
+                    ExprStatement.withExpr(firstPageAssignExpr)))
+            .setReturnExpr(iterableExpr)
+            .build();
+
+    // streamAll and streamAllPrefetching methods.
+    BiFunction<Expr, TypeNode, Expr> toStreamExprFn =
+        (iterableMethodExpr, returnType) ->
+            MethodInvocationExpr.builder()
+                .setStaticReferenceType(typeStore.get("StreamSupport"))
+                .setMethodName("stream")
+                .setArguments(
+                    MethodInvocationExpr.builder()
+                        .setExprReferenceExpr(iterableMethodExpr)
+                        .setMethodName("spliterator")
+                        .build(),
+                    ValueExpr.withValue(
+                        PrimitiveValue.builder()
+                            .setType(TypeNode.BOOLEAN)
+                            .setValue("false")
+                            .build()))
+                .setReturnType(returnType)
+                .build();
+    MethodDefinition streamAllMethod =
+        MethodDefinition.builder()
+            .setHeaderCommentStatements(
+                CommentStatement.withComment(
+                    JavaDocComment.withComment(
+                        "Returns a sequential stream over all elements of all pages.")))
+            .setScope(ScopeNode.PUBLIC)
+            .setReturnType(streamType)
+            .setName("streamAll")
+            .setReturnExpr(
+                toStreamExprFn.apply(
+                    MethodInvocationExpr.builder()
+                        .setMethodName("iterateAll")
+                        .setReturnType(iterableType)
+                        .build(),
+                    streamType))
+            .build();
+    MethodDefinition streamAllPrefetchingMethod =
+        MethodDefinition.builder()
+            .setHeaderCommentStatements(
+                CommentStatement.withComment(
+                    JavaDocComment.withComment(
+                        "Returns a sequential stream over all elements of all pages, which keeps"
+                            + " requests for up to prefetchDepth upcoming pages in flight."
+                            + " prefetchDepth must be positive.")))
+            .setScope(ScopeNode.PUBLIC)
+            .setReturnType(streamType)
+            .setName("streamAllPrefetching")
+            .setArguments(prefetchDepthVarExpr.toBuilder().setIsDecl(true).build())
+            .setReturnExpr(
+                toStreamExprFn.apply(
+                    MethodInvocationExpr.builder()
+                        .setMethodName("iterateAllPrefetching")
+                        .setArguments(prefetchDepthVarExpr)
+                        .setReturnType(iterableType)
+                        .build(),
+                    streamType))
+            .build();
+
+    return Arrays.asList(iterateAllPrefetchingMethod, streamAllMethod, streamAllPrefetchingMethod);
+  }
+
+  private static ClassDefinition createNestedRpcPrefetchingIteratorClass(
+      Method method, TypeNode repeatedResponseType, TypeStore typeStore) {
+    String upperJavaMethodName = JavaStyle.toUpperCamelCase(method.name());
+    String className = String.format(PREFETCHING_ITERATOR_TYPE_NAME_PATTERN, upperJavaMethodName);
+    TypeNode thisClassType = typeStore.get(className);
+    TypeNode methodPageType = typeStore.get(String.format("%sPage", upperJavaMethodName));
+    TypeNode iteratorType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(Iterator.class)
+                .setGenerics(Arrays.asList(repeatedResponseType.reference()))
+                .build());
+    TypeNode classExtendsType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(AbstractIterator.class)
+                .setGenerics(Arrays.asList(iteratorType.reference()))
+                .build());
+    TypeNode futurePageType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(ApiFuture.class)
+                .setGenerics(Arrays.asList(methodPageType.reference()))
+                .build());
+
+    // Member variables.
+    VariableExpr pagesVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder()
+                .setName("pages")
+                .setType(
+                    TypeNode.withReference(
+                        ConcreteReference.builder()
+                            .setClazz(Deque.class)
+                            .setGenerics(Arrays.asList(futurePageType.reference()))
+                            .build()))
+                .build());
+    VariableExpr prefetchDepthVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("prefetchDepth").setType(TypeNode.INT).build());
+    List<Statement> classStatements =
+        Arrays.asList(
+            ExprStatement.withExpr(
+                AssignmentExpr.builder()
+                    .setVariableExpr(
+                        pagesVarExpr.toBuilder()
+                            .setIsDecl(true)
+                            .setScope(ScopeNode.PRIVATE)
+                            .setIsFinal(true)
+                            .build())
+                    .setValueExpr(
+                        NewObjectExpr.builder()
+                            .setType(
+                                TypeNode.withReference(
+                                    ConcreteReference.withClazz(ArrayDeque.class)))
+                            .setIsGeneric(true)
+                            .build())
+                    .build()),
+            ExprStatement.withExpr(
+                prefetchDepthVarExpr.toBuilder()
+                    .setIsDecl(true)
+                    .setScope(ScopeNode.PRIVATE)
+                    .setIsFinal(true)
+                    .build()));
+
+    // Private constructor.
+    VariableExpr firstPageVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("firstPage").setType(methodPageType).build());
+    Expr thisExpr = ValueExpr.withValue(ThisObjectValue.withType(thisClassType));
+    Function<Expr, Expr> immediateFutureExprFn =
+        e ->
+            MethodInvocationExpr.builder()
+                .setStaticReferenceType(typeStore.get("ApiFutures"))
+                .setMethodName("immediateFuture")
+                .setArguments(e)
+                .setReturnType(futurePageType)
+                .build();
+    MethodDefinition privateCtor =
+        MethodDefinition.constructorBuilder()
+            .setScope(ScopeNode.PRIVATE)
+            .setReturnType(thisClassType)
+            .setArguments(
+                Arrays.asList(firstPageVarExpr, prefetchDepthVarExpr).stream()
+                    .map(e -> e.toBuilder().setIsDecl(true).build())
+                    .collect(Collectors.toList()))
+            .setBody(
+                Arrays.asList(
+                    ExprStatement.withExpr(
+                        AssignmentExpr.builder()
+                            .setVariableExpr(
+                                prefetchDepthVarExpr.toBuilder()
+                                    .setExprReferenceExpr(thisExpr)
+                                    .build())
+                            .setValueExpr(prefetchDepthVarExpr)
+                            .build()),
+                    ExprStatement.withExpr(
+                        MethodInvocationExpr.builder()
+                            .setExprReferenceExpr(pagesVarExpr)
+                            .setMethodName("add")
+                            .setArguments(immediateFutureExprFn.apply(firstPageVarExpr))
+                            .build())))
+            .build();
+
+    // computeNext method. Blocks on the oldest in-flight page, then chains requests for the
+    // following pages onto the newest one until prefetchDepth pages are in flight. A null page
+    // marks the end of the results.
+    VariableExpr pageVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("page").setType(methodPageType).build());
+    VariableExpr lastPageFutureVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("lastPageFuture").setType(futurePageType).build());
+    VariableExpr inputVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("input").setType(methodPageType).build());
+    Function<String, MethodInvocationExpr.Builder> pagesMethodExprFn =
+        methodName ->
+            MethodInvocationExpr.builder()
+                .setExprReferenceExpr(pagesVarExpr)
+                .setMethodName(methodName);
+    Expr pagesIsEmptyExpr =
+        pagesMethodExprFn.apply("isEmpty").setReturnType(TypeNode.BOOLEAN).build();
+
+    Expr pageAssignExpr =
+        AssignmentExpr.builder()
+            .setVariableExpr(pageVarExpr.toBuilder().setIsDecl(true).build())
+            .setValueExpr(
+                MethodInvocationExpr.builder()
+                    .setStaticReferenceType(typeStore.get("ApiExceptions"))
+                    .setMethodName("callAndTranslateApiException")
+                    .setArguments(
+                        pagesMethodExprFn
+                            .apply("removeFirst")
+                            .setReturnType(futurePageType)
+                            .build())
+                    .setReturnType(methodPageType)
+                    .build())
+            .build();
+    Statement endOfDataStatement =
+        IfStatement.builder()
+            .setConditionExpr(
+                RelationalOperationExpr.equalToWithExprs(pageVarExpr, ValueExpr.createNullExpr()))
+            .setBody(
+                Arrays.asList(
+                    ExprStatement.withExpr(
+                        ReturnExpr.withExpr(
+                            MethodInvocationExpr.builder()
+                                .setMethodName("endOfData")
+                                .setReturnType(iteratorType)
+                                .build()))))
+            .build();
+    Expr lastPageFutureAssignExpr =
+        AssignmentExpr.builder()
+            .setVariableExpr(lastPageFutureVarExpr.toBuilder().setIsDecl(true).build())
+            .setValueExpr(
+                TernaryExpr.builder()
+                    .setConditionExpr(pagesIsEmptyExpr)
+                    .setThenExpr(immediateFutureExprFn.apply(pageVarExpr))
+                    .setElseExpr(
+                        pagesMethodExprFn.apply("getLast").setReturnType(futurePageType).build())
+                    .build())
+            .build();
+
+    Expr nextPageFnExpr =
+        AnonymousClassExpr.builder()
+            .setType(
+                TypeNode.withReference(
+                    ConcreteReference.builder()
+                        .setClazz(ApiAsyncFunction.class)
+                        .setGenerics(
+                            Arrays.asList(methodPageType.reference(), methodPageType.reference()))
+                        .build()))
+            .setMethods(
+                Arrays.asList(
+                    MethodDefinition.builder()
+                        .setIsOverride(true)
+                        .setScope(ScopeNode.PUBLIC)
+                        .setReturnType(futurePageType)
+                        .setName("apply")
+                        .setArguments(inputVarExpr.toBuilder().setIsDecl(true).build())
+                        .setReturnExpr(
+                            TernaryExpr.builder()
+                                .setConditionExpr(
+                                    LogicalOperationExpr.logicalAndWithExprs(
+                                        RelationalOperationExpr.notEqualToWithExprs(
+                                            inputVarExpr, ValueExpr.createNullExpr()),
+                                        MethodInvocationExpr.builder()
+                                            .setExprReferenceExpr(inputVarExpr)
+                                            .setMethodName("hasNextPage")
+                                            .setReturnType(TypeNode.BOOLEAN)
+                                            .build()))
+                                .setThenExpr(
+                                    MethodInvocationExpr.builder()
+                                        .setExprReferenceExpr(inputVarExpr)
+                                        .setMethodName("getNextPageAsync")
+                                        .setReturnType(futurePageType)
+                                        .build())
+                                .setElseExpr(
+                                    immediateFutureExprFn.apply(ValueExpr.createNullExpr()))
+                                .build())
+                        .build()))
+            .build();
+    Statement prefetchStatement =
+        WhileStatement.builder()
+            .setConditionExpr(
+                LogicalOperationExpr.logicalOrWithExprs(
+                    pagesIsEmptyExpr,
+                    RelationalOperationExpr.lessThanWithExprs(
+                        pagesMethodExprFn.apply("size").setReturnType(TypeNode.INT).build(),
+                        prefetchDepthVarExpr)))
+            .setBody(
+                Arrays.asList(
+                    ExprStatement.withExpr(
+                        AssignmentExpr.builder()
+                            .setVariableExpr(lastPageFutureVarExpr)
+                            .setValueExpr(
+                                MethodInvocationExpr.builder()
+                                    .setStaticReferenceType(typeStore.get("ApiFutures"))
+                                    .setMethodName("transformAsync")
+                                    .setArguments(
+                                        lastPageFutureVarExpr, nextPageFnExpr, DIRECT_EXECUTOR_EXPR)
+                                    .setReturnType(futurePageType)
+                                    .build())
+                            .build()),
+                    ExprStatement.withExpr(
+                        pagesMethodExprFn
+                            .apply("addLast")
+                            .setArguments(lastPageFutureVarExpr)
+                            .build())))
+            .build();
+
+    MethodDefinition computeNextMethod =
+        MethodDefinition.builder()
+            .setIsOverride(true)
+            .setScope(ScopeNode.PROTECTED)
+            .setReturnType(iteratorType)
+            .setName("computeNext")
+            .setBody(
+                Arrays.asList(
+                    ExprStatement.withExpr(pageAssignExpr),
+                    endOfDataStatement,
+                    ExprStatement.withExpr(lastPageFutureAssignExpr),
+                    prefetchStatement))
+            .setReturnExpr(
+                MethodInvocationExpr.builder()
+                    .setExprReferenceExpr(
+                        MethodInvocationExpr.builder()
+                            .setExprReferenceExpr(pageVarExpr)
+                            .setMethodName("getValues")
+                            .setReturnType(
+                                TypeNode.withReference(
+                                    ConcreteReference.builder()
+                                        .setClazz(Iterable.class)
+                                        .setGenerics(
+                                            Arrays.asList(repeatedResponseType.reference()))
+                                        .build()))
+                            .build())
+                    .setMethodName("iterator")
+                    .setReturnType(iteratorType)
+                    .build())
+            .build();
+
+    return ClassDefinition.builder()
+        .setIsNested(true)
+        .setScope(ScopeNode.PRIVATE)
+        .setIsStatic(true)
+        .setExtendsType(classExtendsType)
+        .setName(className)
+        .setStatements(classStatements)
+        .setMethods(Arrays.asList(privateCtor, computeNextMethod))
+        .build();
+  }
+
   private static ClassDefinition createNestedRpcPageClass(
       Method method,
       TypeNode repeatedResponseType,
@@ -1636,6 +2204,7 @@ public class ServiceClientClassComposer implements ClassComposer {
     List<Class> concreteClazzes =
         Arrays.asList(
             AbstractPagedListResponse.class,
+            ApiExceptions.class,
             ApiFunction.class,
             ApiFuture.class,
             ApiFutures.class,
@@ -1646,13 +2215,16 @@ public class ServiceClientClassComposer implements ClassComposer {
             Generated.class,
             InterruptedException.class,
             IOException.class,
+            Iterators.class,
             MoreExecutors.class,
             Objects.class,
             Operation.class,
             OperationFuture.class,
             OperationCallable.class,
+            Preconditions.class,
             ServerStreamingCallable.class,
             Status.class,
+            StreamSupport.class,
             Strings.class,
             TimeUnit.class,
             UnaryCallable.class);
@@ -1683,7 +2255,12 @@ public class ServiceClientClassComposer implements ClassComposer {
       }
       typeStore.putAll(
           service.pakkage(),
-          Arrays.asList("%sPagedResponse", "%sPage", "%sFixedSizeCollection").stream()
+          Arrays.asList(
+                  "%sPagedResponse",
+                  "%sPage",
+                  "%sFixedSizeCollection",
+                  PREFETCHING_ITERATOR_TYPE_NAME_PATTERN)
+              .stream()
               .map(p -> String.format(p, JavaStyle.toUpperCamelCase(method.name())))
               .collect(Collectors.toList()),
           true,
@@ -1736,25 +2313,14 @@ public class ServiceClientClassComposer implements ClassComposer {
         && type.reference().name().equals("Empty");
   }
 
-  private static void updateGapicMetadata(
-      GapicContext context, String protoPackage, String javaPackage) {
-    context.updateGapicMetadata(
-        context
-            .gapicMetadata()
-            .toBuilder()
-            .setProtoPackage(protoPackage)
-            .setLibraryPackage(javaPackage)
-            .build());
-  }
-
   private static void updateGapicMetadata(
       GapicContext context,
       Service service,
       String clientClassName,
       Map<String, List<String>> grpcRpcToJavaMethodNames) {
-    GapicMetadata.Builder metadataBuilder = context.gapicMetadata().toBuilder();
-    metadataBuilder =
-        metadataBuilder
+    // Only this service's entry is built here. The entries are merged once, when written out.
+    GapicMetadata.Builder metadataBuilder =
+        GapicMetadata.newBuilder()
             .setProtoPackage(service.protoPakkage())
             .setLibraryPackage(service.pakkage());
 
@@ -1778,6 +2344,6 @@ public class ServiceClientClassComposer implements ClassComposer {
             GapicMetadata.ServiceForTransport.newBuilder()
                 .putClients("grpc", serviceClientProtoBuilder.build())
                 .build());
-    context.updateGapicMetadata(metadataBuilder.build());
+    context.addServiceGapicMetadata(service.name(), metadataBuilder.build());
   }
 }
@@ -211,8 +211,7 @@ public class DefaultValueComposer {
             || pattern.equals(ResourceNameConstants.DELETED_TOPIC_LITERAL)) {
           continue;
         }
-        patternPlaceholderTokens.addAll(
-            ResourceNameTokenizer.parseTokenHierarchy(Arrays.asList(pattern)).get(0));
+        patternPlaceholderTokens.addAll(ResourceNameTokenizer.parseTokenHierarchy(pattern));
         break;
       }
     }
@@ -251,6 +250,8 @@ public class DefaultValueComposer {
             .setStaticReferenceType(message.type())
             .setMethodName("newBuilder")
             .build();
+    // Copied on first use, and shared by all the resource reference fields of this message.
+    List<ResourceName> resourceNameList = null;
     for (Field field : message.fields()) {
       if (field.isContainedInOneof() // Avoid colliding fields.
           || ((field.isMessage() || field.isEnum()) // Avoid importing unparsed messages.
@@ -265,10 +266,13 @@ public class DefaultValueComposer {
       Expr defaultExpr = null;
       if (field.hasResourceReference()
           && resourceNames.get(field.resourceReference().resourceTypeString()) != null) {
+        if (resourceNameList == null) {
+          resourceNameList = new ArrayList<>(resourceNames.values());
+        }
         defaultExpr =
             createDefaultValueResourceHelper(
                 resourceNames.get(field.resourceReference().resourceTypeString()),
-                resourceNames.values().stream().collect(Collectors.toList()),
+                resourceNameList,
                 message.name(),
                 /* allowAnonResourceNameClass = */ false);
         defaultExpr =
@@ -289,6 +289,19 @@ public class GrpcServiceStubClassComposer extends AbstractServiceStubClassCompos
         VariableExpr.withVariable(
             Variable.builder().setType(method.inputType()).setName("request").build());
 
+    TypeNode returnType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(Map.class)
+                .setGenerics(TypeNode.STRING.reference(), TypeNode.STRING.reference())
+                .build());
+    Expr returnExpr =
+        MethodInvocationExpr.builder()
+            .setExprReferenceExpr(paramsVarExpr)
+            .setMethodName("build")
+            .setReturnType(returnType)
+            .build();
+
     for (HttpBinding httpBindingFieldBinding : method.httpBindings().pathParameters()) {
       // Handle foo.bar cases by descending into the subfields.
       MethodInvocationExpr.Builder requestFieldGetterExprBuilder =
@@ -315,30 +328,32 @@ public class GrpcServiceStubClassComposer extends AbstractServiceStubClassCompos
               .setArguments(requestBuilderExpr)
               .build();
 
+      Expr fieldNameExpr =
+          ValueExpr.withValue(StringObjectValue.withValue(httpBindingFieldBinding.name()));
+
+      // Most methods route on a single field, where a singleton map saves the builder and its
+      // backing array on every call.
+      if (method.httpBindings().pathParameters().size() == 1) {
+        bodyExprs.clear();
+        returnExpr =
+            MethodInvocationExpr.builder()
+                .setStaticReferenceType(FIXED_TYPESTORE.get("ImmutableMap"))
+                .setMethodName("of")
+                .setArguments(fieldNameExpr, valueOfExpr)
+                .setReturnType(returnType)
+                .build();
+        break;
+      }
+
       Expr paramsPutExpr =
           MethodInvocationExpr.builder()
               .setExprReferenceExpr(paramsVarExpr)
               .setMethodName("put")
-              .setArguments(
-                  ValueExpr.withValue(StringObjectValue.withValue(httpBindingFieldBinding.name())),
-                  valueOfExpr)
+              .setArguments(fieldNameExpr, valueOfExpr)
               .build();
       bodyExprs.add(paramsPutExpr);
     }
 
-    TypeNode returnType =
-        TypeNode.withReference(
-            ConcreteReference.builder()
-                .setClazz(Map.class)
-                .setGenerics(TypeNode.STRING.reference(), TypeNode.STRING.reference())
-                .build());
-    Expr returnExpr =
-        MethodInvocationExpr.builder()
-            .setExprReferenceExpr(paramsVarExpr)
-            .setMethodName("build")
-            .setReturnType(returnType)
-            .build();
-
     MethodDefinition extractMethod =
         MethodDefinition.builder()
             .setIsOverride(true)
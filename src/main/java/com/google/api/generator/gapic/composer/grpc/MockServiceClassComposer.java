@@ -16,17 +16,27 @@ package com.google.api.generator.gapic.composer.grpc;
 
 import com.google.api.core.BetaApi;
 import com.google.api.generator.engine.ast.AnnotationNode;
+import com.google.api.generator.engine.ast.AnonymousClassExpr;
 import com.google.api.generator.engine.ast.AssignmentExpr;
 import com.google.api.generator.engine.ast.ClassDefinition;
+import com.google.api.generator.engine.ast.CommentStatement;
 import com.google.api.generator.engine.ast.ConcreteReference;
 import com.google.api.generator.engine.ast.Expr;
 import com.google.api.generator.engine.ast.ExprStatement;
+import com.google.api.generator.engine.ast.ForStatement;
+import com.google.api.generator.engine.ast.IfStatement;
+import com.google.api.generator.engine.ast.JavaDocComment;
+import com.google.api.generator.engine.ast.LogicalOperationExpr;
 import com.google.api.generator.engine.ast.MethodDefinition;
 import com.google.api.generator.engine.ast.MethodInvocationExpr;
 import com.google.api.generator.engine.ast.NewObjectExpr;
+import com.google.api.generator.engine.ast.PrimitiveValue;
+import com.google.api.generator.engine.ast.RelationalOperationExpr;
+import com.google.api.generator.engine.ast.ReturnExpr;
 import com.google.api.generator.engine.ast.ScopeNode;
 import com.google.api.generator.engine.ast.Statement;
 import com.google.api.generator.engine.ast.TypeNode;
+import com.google.api.generator.engine.ast.ValueExpr;
 import com.google.api.generator.engine.ast.Variable;
 import com.google.api.generator.engine.ast.VariableExpr;
 import com.google.api.generator.gapic.composer.common.ClassComposer;
@@ -37,14 +47,28 @@ import com.google.api.generator.gapic.model.GapicClass.Kind;
 import com.google.api.generator.gapic.model.GapicContext;
 import com.google.api.generator.gapic.model.Service;
 import com.google.protobuf.AbstractMessage;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
 import io.grpc.ServerServiceDefinition;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import javax.annotation.Generated;
 
 public class MockServiceClassComposer implements ClassComposer {
   private static final MockServiceClassComposer INSTANCE = new MockServiceClassComposer();
   private static final String SERVICE_IMPL_VAR_NAME = "serviceImpl";
+  private static final String REQUEST_HEADERS_VAR_NAME = "requestHeaders";
+  private static final String REQUEST_TEMPLATE_NAME = "ReqT";
+  private static final String RESPONSE_TEMPLATE_NAME = "RespT";
+  private static final TypeNode METADATA_TYPE =
+      TypeNode.withReference(ConcreteReference.withClazz(Metadata.class));
 
   private MockServiceClassComposer() {}
 
@@ -53,7 +77,7 @@ public class MockServiceClassComposer implements ClassComposer {
   }
 
   @Override
-  public GapicClass generate(GapicContext ignored, Service service) {
+  public GapicClass generate(GapicContext context, Service service) {
     TypeStore typeStore = createTypes(service);
     String className = ClassNames.getMockServiceClassName(service);
     GapicClass.Kind kind = Kind.TEST;
@@ -66,21 +90,31 @@ public class MockServiceClassComposer implements ClassComposer {
             .setScope(ScopeNode.PUBLIC)
             .setName(className)
             .setImplementsTypes(createClassImplements(typeStore))
-            .setStatements(createFieldDeclarations(service, typeStore))
-            .setMethods(createClassMethods(service, typeStore))
+            .setStatements(createFieldDeclarations(service, context, typeStore))
+            .setMethods(createClassMethods(service, context, typeStore))
             .build();
     return GapicClass.create(kind, classDef);
   }
 
-  private static List<Statement> createFieldDeclarations(Service service, TypeStore typeStore) {
-    return Arrays.asList(
-        ExprStatement.withExpr(
-            VariableExpr.builder()
-                .setVariable(getServiceImplVariable(service, typeStore))
-                .setScope(ScopeNode.PRIVATE)
-                .setIsFinal(true)
-                .setIsDecl(true)
-                .build()));
+  private static List<Statement> createFieldDeclarations(
+      Service service, GapicContext context, TypeStore typeStore) {
+    List<Variable> fields = new ArrayList<>();
+    fields.add(getServiceImplVariable(service, typeStore));
+    if (context.sharedTestClientEnabled()) {
+      fields.add(getRequestHeadersVariable());
+    }
+    List<Statement> fieldDecls = new ArrayList<>();
+    for (Variable field : fields) {
+      fieldDecls.add(
+          ExprStatement.withExpr(
+              VariableExpr.builder()
+                  .setVariable(field)
+                  .setScope(ScopeNode.PRIVATE)
+                  .setIsFinal(true)
+                  .setIsDecl(true)
+                  .build()));
+    }
+    return fieldDecls;
   }
 
   private static List<AnnotationNode> createClassAnnotations(TypeStore typeStore) {
@@ -96,30 +130,62 @@ public class MockServiceClassComposer implements ClassComposer {
     return Arrays.asList(typeStore.get("MockGrpcService"));
   }
 
-  private static List<MethodDefinition> createClassMethods(Service service, TypeStore typeStore) {
+  private static List<MethodDefinition> createClassMethods(
+      Service service, GapicContext context, TypeStore typeStore) {
     VariableExpr serviceImplVarExpr =
         VariableExpr.withVariable(getServiceImplVariable(service, typeStore));
-    return Arrays.asList(
-        createConstructor(service, serviceImplVarExpr, typeStore),
-        createGetRequestsMethod(serviceImplVarExpr, typeStore),
-        createAddResponseMethod(serviceImplVarExpr, typeStore),
-        createAddExceptionMethod(serviceImplVarExpr),
-        createGetServiceDefinitionMethod(serviceImplVarExpr, typeStore),
-        createResetMethod(serviceImplVarExpr));
+    // Tests that share one client across the test class cannot rely on the channel provider to tell
+    // which test sent a header, so the mock records the headers it received since the last reset.
+    VariableExpr requestHeadersVarExpr =
+        context.sharedTestClientEnabled()
+            ? VariableExpr.withVariable(getRequestHeadersVariable())
+            : null;
+    List<MethodDefinition> methods = new ArrayList<>();
+    methods.add(createConstructor(service, serviceImplVarExpr, requestHeadersVarExpr, typeStore));
+    methods.add(createGetRequestsMethod(serviceImplVarExpr, typeStore));
+    methods.add(createAddResponseMethod(serviceImplVarExpr, typeStore));
+    methods.add(createAddExceptionMethod(serviceImplVarExpr));
+    methods.add(
+        createGetServiceDefinitionMethod(serviceImplVarExpr, requestHeadersVarExpr, typeStore));
+    methods.add(createResetMethod(serviceImplVarExpr, requestHeadersVarExpr));
+    if (requestHeadersVarExpr != null) {
+      methods.add(createIsHeaderSentMethod(requestHeadersVarExpr));
+    }
+    return methods;
   }
 
   private static MethodDefinition createConstructor(
-      Service service, VariableExpr serviceImplVarExpr, TypeStore typeStore) {
+      Service service,
+      VariableExpr serviceImplVarExpr,
+      VariableExpr requestHeadersVarExpr,
+      TypeStore typeStore) {
     String mockImplName = ClassNames.getMockServiceImplClassName(service);
-    Expr serviceImplAssignExpr =
-        AssignmentExpr.builder()
-            .setVariableExpr(serviceImplVarExpr)
-            .setValueExpr(NewObjectExpr.builder().setType(typeStore.get(mockImplName)).build())
-            .build();
+    List<Statement> body = new ArrayList<>();
+    body.add(
+        ExprStatement.withExpr(
+            AssignmentExpr.builder()
+                .setVariableExpr(serviceImplVarExpr)
+                .setValueExpr(
+                    NewObjectExpr.builder().setType(typeStore.get(mockImplName)).build())
+                .build()));
+    if (requestHeadersVarExpr != null) {
+      body.add(
+          ExprStatement.withExpr(
+              AssignmentExpr.builder()
+                  .setVariableExpr(requestHeadersVarExpr)
+                  .setValueExpr(
+                      NewObjectExpr.builder()
+                          .setType(
+                              TypeNode.withReference(
+                                  ConcreteReference.withClazz(CopyOnWriteArrayList.class)))
+                          .setIsGeneric(true)
+                          .build())
+                  .build()));
+    }
 
     return MethodDefinition.constructorBuilder()
         .setScope(ScopeNode.PUBLIC)
-        .setBody(Arrays.asList(ExprStatement.withExpr(serviceImplAssignExpr)))
+        .setBody(body)
         .setReturnType(typeStore.get(ClassNames.getMockServiceClassName(service)))
         .build();
   }
@@ -199,7 +265,7 @@ public class MockServiceClassComposer implements ClassComposer {
   }
 
   private static MethodDefinition createGetServiceDefinitionMethod(
-      VariableExpr serviceImplVarExpr, TypeStore typeStore) {
+      VariableExpr serviceImplVarExpr, VariableExpr requestHeadersVarExpr, TypeStore typeStore) {
     TypeNode returnType = typeStore.get("ServerServiceDefinition");
     Expr methodInvocationExpr =
         MethodInvocationExpr.builder()
@@ -207,6 +273,17 @@ public class MockServiceClassComposer implements ClassComposer {
             .setExprReferenceExpr(serviceImplVarExpr)
             .setReturnType(returnType)
             .build();
+    if (requestHeadersVarExpr != null) {
+      methodInvocationExpr =
+          MethodInvocationExpr.builder()
+              .setStaticReferenceType(typeStore.get("ServerInterceptors"))
+              .setMethodName("intercept")
+              .setArguments(
+                  methodInvocationExpr,
+                  createHeaderInterceptorExpr(requestHeadersVarExpr, typeStore))
+              .setReturnType(returnType)
+              .build();
+    }
     return MethodDefinition.builder()
         .setIsOverride(true)
         .setScope(ScopeNode.PUBLIC)
@@ -216,27 +293,218 @@ public class MockServiceClassComposer implements ClassComposer {
         .build();
   }
 
-  private static MethodDefinition createResetMethod(VariableExpr serviceImplVarExpr) {
+  private static Expr createHeaderInterceptorExpr(
+      VariableExpr requestHeadersVarExpr, TypeStore typeStore) {
+    TypeNode requestType = typeStore.get(REQUEST_TEMPLATE_NAME);
+    TypeNode responseType = typeStore.get(RESPONSE_TEMPLATE_NAME);
+    TypeNode listenerType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(ServerCall.Listener.class)
+                .setGenerics(requestType.reference())
+                .build());
+    VariableExpr callVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder()
+                .setName("call")
+                .setType(
+                    TypeNode.withReference(
+                        ConcreteReference.builder()
+                            .setClazz(ServerCall.class)
+                            .setGenerics(requestType.reference(), responseType.reference())
+                            .build()))
+                .build());
+    VariableExpr headersVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("headers").setType(METADATA_TYPE).build());
+    VariableExpr nextVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder()
+                .setName("next")
+                .setType(
+                    TypeNode.withReference(
+                        ConcreteReference.builder()
+                            .setClazz(ServerCallHandler.class)
+                            .setGenerics(requestType.reference(), responseType.reference())
+                            .build()))
+                .build());
+
+    MethodDefinition interceptCallMethod =
+        MethodDefinition.builder()
+            .setIsOverride(true)
+            .setScope(ScopeNode.PUBLIC)
+            .setTemplateNames(Arrays.asList(REQUEST_TEMPLATE_NAME, RESPONSE_TEMPLATE_NAME))
+            .setReturnType(listenerType)
+            .setName("interceptCall")
+            .setArguments(
+                Arrays.asList(callVarExpr, headersVarExpr, nextVarExpr).stream()
+                    .map(v -> v.toBuilder().setIsDecl(true).build())
+                    .collect(Collectors.toList()))
+            .setBody(
+                Arrays.asList(
+                    ExprStatement.withExpr(
+                        MethodInvocationExpr.builder()
+                            .setExprReferenceExpr(requestHeadersVarExpr)
+                            .setMethodName("add")
+                            .setArguments(headersVarExpr)
+                            .build())))
+            .setReturnExpr(
+                MethodInvocationExpr.builder()
+                    .setExprReferenceExpr(nextVarExpr)
+                    .setMethodName("startCall")
+                    .setArguments(callVarExpr, headersVarExpr)
+                    .setReturnType(listenerType)
+                    .build())
+            .build();
+
+    return AnonymousClassExpr.builder()
+        .setType(typeStore.get("ServerInterceptor"))
+        .setMethods(Arrays.asList(interceptCallMethod))
+        .build();
+  }
+
+  private static MethodDefinition createResetMethod(
+      VariableExpr serviceImplVarExpr, VariableExpr requestHeadersVarExpr) {
     String methodName = "reset";
+    List<Statement> body = new ArrayList<>();
+    body.add(
+        ExprStatement.withExpr(
+            MethodInvocationExpr.builder()
+                .setMethodName(methodName)
+                .setExprReferenceExpr(serviceImplVarExpr)
+                .build()));
+    if (requestHeadersVarExpr != null) {
+      body.add(
+          ExprStatement.withExpr(
+              MethodInvocationExpr.builder()
+                  .setMethodName("clear")
+                  .setExprReferenceExpr(requestHeadersVarExpr)
+                  .build()));
+    }
     return MethodDefinition.builder()
         .setIsOverride(true)
         .setScope(ScopeNode.PUBLIC)
         .setReturnType(TypeNode.VOID)
         .setName(methodName)
-        .setBody(
-            Arrays.asList(
-                ExprStatement.withExpr(
+        .setBody(body)
+        .build();
+  }
+
+  private static MethodDefinition createIsHeaderSentMethod(VariableExpr requestHeadersVarExpr) {
+    VariableExpr headerKeyVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("headerKey").setType(TypeNode.STRING).build());
+    VariableExpr headerPatternVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder()
+                .setName("headerPattern")
+                .setType(TypeNode.withReference(ConcreteReference.withClazz(Pattern.class)))
+                .build());
+    TypeNode metadataKeyType =
+        TypeNode.withReference(
+            ConcreteReference.builder()
+                .setClazz(Metadata.Key.class)
+                .setGenerics(TypeNode.STRING.reference())
+                .build());
+    VariableExpr keyVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("key").setType(metadataKeyType).build());
+    VariableExpr headersVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("headers").setType(METADATA_TYPE).build());
+    VariableExpr headerValueVarExpr =
+        VariableExpr.withVariable(
+            Variable.builder().setName("headerValue").setType(TypeNode.STRING).build());
+
+    Expr keyAssignExpr =
+        AssignmentExpr.builder()
+            .setVariableExpr(keyVarExpr.toBuilder().setIsDecl(true).build())
+            .setValueExpr(
+                MethodInvocationExpr.builder()
+                    .setStaticReferenceType(
+                        TypeNode.withReference(ConcreteReference.withClazz(Metadata.Key.class)))
+                    .setMethodName("of")
+                    .setArguments(
+                        headerKeyVarExpr,
+                        VariableExpr.builder()
+                            .setStaticReferenceType(METADATA_TYPE)
+                            .setVariable(
+                                Variable.builder()
+                                    .setName("ASCII_STRING_MARSHALLER")
+                                    .setType(TypeNode.OBJECT)
+                                    .build())
+                            .build())
+                    .setReturnType(metadataKeyType)
+                    .build())
+            .build();
+    Expr headerValueAssignExpr =
+        AssignmentExpr.builder()
+            .setVariableExpr(headerValueVarExpr.toBuilder().setIsDecl(true).build())
+            .setValueExpr(
+                MethodInvocationExpr.builder()
+                    .setExprReferenceExpr(headersVarExpr)
+                    .setMethodName("get")
+                    .setArguments(keyVarExpr)
+                    .setReturnType(TypeNode.STRING)
+                    .build())
+            .build();
+    Expr headerMatchesExpr =
+        LogicalOperationExpr.logicalAndWithExprs(
+            RelationalOperationExpr.notEqualToWithExprs(
+                headerValueVarExpr, ValueExpr.createNullExpr()),
+            MethodInvocationExpr.builder()
+                .setExprReferenceExpr(
                     MethodInvocationExpr.builder()
-                        .setMethodName(methodName)
-                        .setExprReferenceExpr(serviceImplVarExpr)
-                        .build())))
+                        .setExprReferenceExpr(headerPatternVarExpr)
+                        .setMethodName("matcher")
+                        .setArguments(headerValueVarExpr)
+                        .build())
+                .setMethodName("matches")
+                .setReturnType(TypeNode.BOOLEAN)
+                .build());
+    Statement forStatement =
+        ForStatement.builder()
+            .setLocalVariableExpr(headersVarExpr.toBuilder().setIsDecl(true).build())
+            .setCollectionExpr(requestHeadersVarExpr)
+            .setBody(
+                Arrays.asList(
+                    ExprStatement.withExpr(headerValueAssignExpr),
+                    IfStatement.builder()
+                        .setConditionExpr(headerMatchesExpr)
+                        .setBody(
+                            Arrays.asList(
+                                ExprStatement.withExpr(
+                                    ReturnExpr.withExpr(createBooleanValueExpr(true)))))
+                        .build()))
+            .build();
+
+    return MethodDefinition.builder()
+        .setHeaderCommentStatements(
+            CommentStatement.withComment(
+                JavaDocComment.withComment(
+                    "Returns whether a request received since the last reset carried the given"
+                        + " header with a value matching the given pattern.")))
+        .setScope(ScopeNode.PUBLIC)
+        .setReturnType(TypeNode.BOOLEAN)
+        .setName("isHeaderSent")
+        .setArguments(
+            Arrays.asList(
+                headerKeyVarExpr.toBuilder().setIsDecl(true).build(),
+                headerPatternVarExpr.toBuilder().setIsDecl(true).build()))
+        .setBody(Arrays.asList(ExprStatement.withExpr(keyAssignExpr), forStatement))
+        .setReturnExpr(createBooleanValueExpr(false))
         .build();
   }
 
   private static TypeStore createTypes(Service service) {
     List<Class> concreteClazzes =
         Arrays.asList(
-            AbstractMessage.class, BetaApi.class, Generated.class, ServerServiceDefinition.class);
+            AbstractMessage.class,
+            BetaApi.class,
+            Generated.class,
+            ServerInterceptor.class,
+            ServerInterceptors.class,
+            ServerServiceDefinition.class);
     TypeStore typeStore = new TypeStore(concreteClazzes);
 
     typeStore.put("com.google.api.gax.grpc.testing", "MockGrpcService");
@@ -245,6 +513,10 @@ public class MockServiceClassComposer implements ClassComposer {
         Arrays.asList(
             ClassNames.getMockServiceImplClassName(service),
             ClassNames.getMockServiceClassName(service)));
+    // The type variables of the header interceptor are placed in the service package so that they
+    // are never imported.
+    typeStore.putAll(
+        service.pakkage(), Arrays.asList(REQUEST_TEMPLATE_NAME, RESPONSE_TEMPLATE_NAME));
     return typeStore;
   }
 
@@ -254,4 +526,21 @@ public class MockServiceClassComposer implements ClassComposer {
         .setType(typeStore.get(ClassNames.getMockServiceImplClassName(service)))
         .build();
   }
+
+  private static Expr createBooleanValueExpr(boolean value) {
+    return ValueExpr.withValue(
+        PrimitiveValue.builder().setType(TypeNode.BOOLEAN).setValue(String.valueOf(value)).build());
+  }
+
+  private static Variable getRequestHeadersVariable() {
+    return Variable.builder()
+        .setName(REQUEST_HEADERS_VAR_NAME)
+        .setType(
+            TypeNode.withReference(
+                ConcreteReference.builder()
+                    .setClazz(List.class)
+                    .setGenerics(METADATA_TYPE.reference())
+                    .build()))
+        .build();
+  }
 }
@@ -23,11 +23,13 @@ import com.google.api.gax.rpc.StatusCode;
 import com.google.api.generator.engine.ast.AnnotationNode;
 import com.google.api.generator.engine.ast.AssignmentExpr;
 import com.google.api.generator.engine.ast.CastExpr;
+import com.google.api.generator.engine.ast.CommentStatement;
 import com.google.api.generator.engine.ast.ConcreteReference;
 import com.google.api.generator.engine.ast.EnumRefExpr;
 import com.google.api.generator.engine.ast.Expr;
 import com.google.api.generator.engine.ast.ExprStatement;
 import com.google.api.generator.engine.ast.InstanceofExpr;
+import com.google.api.generator.engine.ast.LineComment;
 import com.google.api.generator.engine.ast.MethodDefinition;
 import com.google.api.generator.engine.ast.MethodInvocationExpr;
 import com.google.api.generator.engine.ast.NewObjectExpr;
@@ -57,6 +59,7 @@ import com.google.protobuf.AbstractMessage;
 import io.grpc.StatusRuntimeException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -206,7 +209,10 @@ public class ServiceClientTestClassComposer extends AbstractServiceClientTestCla
     varInitExprs.add(initServiceHelperExpr);
     varInitExprs.add(startServiceHelperExpr);
 
-    List<Statement> body = new ArrayList<>();
+    boolean isSharedClient = context.sharedTestClientEnabled();
+    if (isSharedClient) {
+      varInitExprs.addAll(createClientInitExprs(service, classMemberVarExprs, typeStore));
+    }
 
     return MethodDefinition.builder()
         .setAnnotations(Arrays.asList(AnnotationNode.withType(FIXED_TYPESTORE.get("BeforeClass"))))
@@ -214,7 +220,10 @@ public class ServiceClientTestClassComposer extends AbstractServiceClientTestCla
         .setIsStatic(true)
         .setReturnType(TypeNode.VOID)
         .setName("startStaticServer")
-        .setBody(body)
+        .setThrowsExceptions(
+            isSharedClient
+                ? Arrays.asList(FIXED_TYPESTORE.get("IOException"))
+                : Collections.emptyList())
         .setBody(
             varInitExprs.stream().map(e -> ExprStatement.withExpr(e)).collect(Collectors.toList()))
         .build();
@@ -222,7 +231,20 @@ public class ServiceClientTestClassComposer extends AbstractServiceClientTestCla
 
   @Override
   protected MethodDefinition createStopServerMethod(
-      Service service, Map<String, VariableExpr> classMemberVarExprs) {
+      Service service, GapicContext context, Map<String, VariableExpr> classMemberVarExprs) {
+    List<Expr> stopExprs = new ArrayList<>();
+    if (context.sharedTestClientEnabled()) {
+      stopExprs.add(
+          MethodInvocationExpr.builder()
+              .setExprReferenceExpr(classMemberVarExprs.get(CLIENT_VAR_NAME))
+              .setMethodName("close")
+              .build());
+    }
+    stopExprs.add(
+        MethodInvocationExpr.builder()
+            .setExprReferenceExpr(classMemberVarExprs.get(SERVICE_HELPER_VAR_NAME))
+            .setMethodName("stop")
+            .build());
     return MethodDefinition.builder()
         .setAnnotations(Arrays.asList(AnnotationNode.withType(FIXED_TYPESTORE.get("AfterClass"))))
         .setScope(ScopeNode.PUBLIC)
@@ -230,27 +252,57 @@ public class ServiceClientTestClassComposer extends AbstractServiceClientTestCla
         .setReturnType(TypeNode.VOID)
         .setName("stopServer")
         .setBody(
-            Arrays.asList(
-                ExprStatement.withExpr(
-                    MethodInvocationExpr.builder()
-                        .setExprReferenceExpr(classMemberVarExprs.get(SERVICE_HELPER_VAR_NAME))
-                        .setMethodName("stop")
-                        .build())))
+            stopExprs.stream().map(e -> ExprStatement.withExpr(e)).collect(Collectors.toList()))
         .build();
   }
 
   @Override
   protected MethodDefinition createSetUpMethod(
+      Service service,
+      GapicContext context,
+      Map<String, VariableExpr> classMemberVarExprs,
+      TypeStore typeStore) {
+    Expr resetServiceHelperExpr =
+        MethodInvocationExpr.builder()
+            .setExprReferenceExpr(classMemberVarExprs.get(SERVICE_HELPER_VAR_NAME))
+            .setMethodName("reset")
+            .build();
+
+    MethodDefinition.Builder setUpMethodBuilder =
+        MethodDefinition.builder()
+            .setAnnotations(Arrays.asList(AnnotationNode.withType(FIXED_TYPESTORE.get("Before"))))
+            .setScope(ScopeNode.PUBLIC)
+            .setReturnType(TypeNode.VOID)
+            .setName("setUp");
+    // A shared client lives as long as the test class, so only the mock services need resetting.
+    if (context.sharedTestClientEnabled()) {
+      return setUpMethodBuilder
+          .setBody(
+              Arrays.asList(
+                  CommentStatement.withComment(
+                      LineComment.withComment(
+                          "The tests share one client and one set of mock services, so they must"
+                              + " not run in parallel.")),
+                  ExprStatement.withExpr(resetServiceHelperExpr)))
+          .build();
+    }
+
+    List<Expr> setUpExprs = new ArrayList<>();
+    setUpExprs.add(resetServiceHelperExpr);
+    setUpExprs.addAll(createClientInitExprs(service, classMemberVarExprs, typeStore));
+    return setUpMethodBuilder
+        .setThrowsExceptions(Arrays.asList(FIXED_TYPESTORE.get("IOException")))
+        .setBody(
+            setUpExprs.stream().map(e -> ExprStatement.withExpr(e)).collect(Collectors.toList()))
+        .build();
+  }
+
+  private static List<Expr> createClientInitExprs(
       Service service, Map<String, VariableExpr> classMemberVarExprs, TypeStore typeStore) {
     VariableExpr clientVarExpr = classMemberVarExprs.get(CLIENT_VAR_NAME);
     VariableExpr serviceHelperVarExpr = classMemberVarExprs.get(SERVICE_HELPER_VAR_NAME);
     VariableExpr channelProviderVarExpr = classMemberVarExprs.get(CHANNEL_PROVIDER_VAR_NAME);
 
-    Expr resetServiceHelperExpr =
-        MethodInvocationExpr.builder()
-            .setExprReferenceExpr(serviceHelperVarExpr)
-            .setMethodName("reset")
-            .build();
     Expr channelProviderInitExpr =
         AssignmentExpr.builder()
             .setVariableExpr(channelProviderVarExpr)
@@ -320,48 +372,40 @@ public class ServiceClientTestClassComposer extends AbstractServiceClientTestCla
                     .build())
             .build();
 
-    return MethodDefinition.builder()
-        .setAnnotations(Arrays.asList(AnnotationNode.withType(FIXED_TYPESTORE.get("Before"))))
-        .setScope(ScopeNode.PUBLIC)
-        .setReturnType(TypeNode.VOID)
-        .setName("setUp")
-        .setThrowsExceptions(Arrays.asList(FIXED_TYPESTORE.get("IOException")))
-        .setBody(
-            Arrays.asList(
-                    resetServiceHelperExpr,
-                    channelProviderInitExpr,
-                    initLocalSettingsExpr,
-                    initClientExpr)
-                .stream()
-                .map(e -> ExprStatement.withExpr(e))
-                .collect(Collectors.toList()))
-        .build();
+    return Arrays.asList(channelProviderInitExpr, initLocalSettingsExpr, initClientExpr);
   }
 
   @Override
-  protected MethodDefinition createTearDownMethod(
-      Service service, Map<String, VariableExpr> classMemberVarExprs) {
-    return MethodDefinition.builder()
-        .setAnnotations(Arrays.asList(AnnotationNode.withType(FIXED_TYPESTORE.get("After"))))
-        .setScope(ScopeNode.PUBLIC)
-        .setReturnType(TypeNode.VOID)
-        .setName("tearDown")
-        .setThrowsExceptions(
-            Arrays.asList(TypeNode.withReference(ConcreteReference.withClazz(Exception.class))))
-        .setBody(
-            Arrays.asList(
-                ExprStatement.withExpr(
-                    MethodInvocationExpr.builder()
-                        .setExprReferenceExpr(classMemberVarExprs.get(CLIENT_VAR_NAME))
-                        .setMethodName("close")
-                        .build())))
-        .build();
+  protected List<MethodDefinition> createTearDownMethod(
+      Service service, GapicContext context, Map<String, VariableExpr> classMemberVarExprs) {
+    // Shared clients are closed in stopServer instead, so there is nothing to tear down.
+    if (context.sharedTestClientEnabled()) {
+      return Collections.emptyList();
+    }
+    return Arrays.asList(
+        MethodDefinition.builder()
+            .setAnnotations(Arrays.asList(AnnotationNode.withType(FIXED_TYPESTORE.get("After"))))
+            .setScope(ScopeNode.PUBLIC)
+            .setReturnType(TypeNode.VOID)
+            .setName("tearDown")
+            .setThrowsExceptions(
+                Arrays.asList(
+                    TypeNode.withReference(ConcreteReference.withClazz(Exception.class))))
+            .setBody(
+                Arrays.asList(
+                    ExprStatement.withExpr(
+                        MethodInvocationExpr.builder()
+                            .setExprReferenceExpr(classMemberVarExprs.get(CLIENT_VAR_NAME))
+                            .setMethodName("close")
+                            .build())))
+            .build());
   }
 
   @Override
   protected List<Statement> constructRpcTestCheckerLogic(
       Method method,
       Service service,
+      GapicContext context,
       boolean isRequestArg,
       Map<String, VariableExpr> classMemberVarExprs,
       VariableExpr requestVarExpr,
@@ -516,9 +560,15 @@ public class ServiceClientTestClassComposer extends AbstractServiceClientTestCla
             .setStaticReferenceType(FIXED_GRPC_TYPESTORE.get("GaxGrpcProperties"))
             .setMethodName("getDefaultApiClientHeaderPattern")
             .build();
+    // The channel provider of a shared client remembers the headers of every earlier test, so ask
+    // the mock service about the requests it received since it was last reset instead.
     Expr headerSentExpr =
         MethodInvocationExpr.builder()
-            .setExprReferenceExpr(classMemberVarExprs.get("channelProvider"))
+            .setExprReferenceExpr(
+                classMemberVarExprs.get(
+                    context.sharedTestClientEnabled()
+                        ? getMockServiceVarName(service)
+                        : CHANNEL_PROVIDER_VAR_NAME))
             .setMethodName("isHeaderSent")
             .setArguments(headerKeyExpr, headerPatternExpr)
             .build();
@@ -17,6 +17,9 @@ package com.google.api.generator.gapic.composer.resourcename;
 import com.google.api.generator.gapic.utils.ResourceNameConstants;
 import com.google.api.pathtemplate.PathTemplate;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -33,57 +36,75 @@ public class ResourceNameTokenizer {
 
   private static final String NON_SLASH_SEP_REGEX = "\\}(_|\\-|\\.|~)\\{";
 
+  // Resource name helpers, default values, tests and samples all tokenize the same patterns, so
+  // each pattern's token hierarchy is computed once and shared.
+  private static final Cache<String, ImmutableList<String>> TOKEN_HIERARCHY_CACHE =
+      CacheBuilder.newBuilder().maximumSize(10_000).build();
+
   public static List<List<String>> parseTokenHierarchy(List<String> patterns) {
     List<List<String>> tokenHierachies = new ArrayList<>();
     for (String pattern : patterns) {
-      List<String> hierarchy = new ArrayList<>();
-      Set<String> vars = PathTemplate.create(pattern).vars();
-      String[] rawPatternTokens = pattern.split(SLASH);
-      List<String> patternTokens = new ArrayList<>();
+      tokenHierachies.add(parseTokenHierarchy(pattern));
+    }
+    return tokenHierachies;
+  }
 
-      // Process variables.
-      for (String rawPatternToken : rawPatternTokens) {
-        // PubSub exception case.
-        if (rawPatternToken.equals(ResourceNameConstants.DELETED_TOPIC_LITERAL)) {
-          hierarchy.add(rawPatternToken);
-          continue;
-        }
+  /** Returns the variable tokens of the given pattern, in order. The result is immutable. */
+  public static List<String> parseTokenHierarchy(String pattern) {
+    ImmutableList<String> hierarchy = TOKEN_HIERARCHY_CACHE.getIfPresent(pattern);
+    if (hierarchy == null) {
+      hierarchy = ImmutableList.copyOf(tokenize(pattern));
+      TOKEN_HIERARCHY_CACHE.put(pattern, hierarchy);
+    }
+    return hierarchy;
+  }
 
-        if (!rawPatternToken.startsWith(LEFT_BRACE) || !rawPatternToken.endsWith(RIGHT_BRACE)) {
-          continue;
-        }
-        // Add any non-slash separated tokens in the order that they're seen.
-        for (String subToken : rawPatternToken.split(NON_SLASH_SEP_REGEX)) {
-          String processedSubToken =
-              subToken.replace(LEFT_BRACE, EMPTY).replace(RIGHT_BRACE, EMPTY);
-          if (!patternTokens.contains(processedSubToken)) {
-            patternTokens.add(processedSubToken);
-          }
+  private static List<String> tokenize(String pattern) {
+    List<String> hierarchy = new ArrayList<>();
+    Set<String> vars = PathTemplate.create(pattern).vars();
+    String[] rawPatternTokens = pattern.split(SLASH);
+    List<String> patternTokens = new ArrayList<>();
+
+    // Process variables.
+    for (String rawPatternToken : rawPatternTokens) {
+      // PubSub exception case.
+      if (rawPatternToken.equals(ResourceNameConstants.DELETED_TOPIC_LITERAL)) {
+        hierarchy.add(rawPatternToken);
+        continue;
+      }
+
+      if (!rawPatternToken.startsWith(LEFT_BRACE) || !rawPatternToken.endsWith(RIGHT_BRACE)) {
+        continue;
+      }
+      // Add any non-slash separated tokens in the order that they're seen.
+      for (String subToken : rawPatternToken.split(NON_SLASH_SEP_REGEX)) {
+        String processedSubToken = subToken.replace(LEFT_BRACE, EMPTY).replace(RIGHT_BRACE, EMPTY);
+        if (!patternTokens.contains(processedSubToken)) {
+          patternTokens.add(processedSubToken);
         }
       }
+    }
 
-      for (String patternToken : patternTokens) {
-        // Handle wildcards.
-        final String processedPatternToken =
-            // Replacement order matters - ensure the first is not a subcomponent of the second.
-            patternToken.replace(EQUALS_PATH_WILDCARD, EMPTY).replace(EQUALS_WILDCARD, EMPTY);
+    for (String patternToken : patternTokens) {
+      // Handle wildcards.
+      final String processedPatternToken =
+          // Replacement order matters - ensure the first is not a subcomponent of the second.
+          patternToken.replace(EQUALS_PATH_WILDCARD, EMPTY).replace(EQUALS_WILDCARD, EMPTY);
 
-        List<String> candidateVars =
-            vars.stream()
-                // Check that the token matches the variable exactly, to avoid mismatching on
-                // variables with same-named subcomponents.
-                // Otherwise, "customer_client_link" will match with "customer".
-                .filter(v -> processedPatternToken.equals(v))
-                .collect(Collectors.toList());
-        Preconditions.checkState(
-            !candidateVars.isEmpty(),
-            String.format(
-                "No variable candidates found for token %s in pattern %s among variables %s",
-                processedPatternToken, pattern, vars));
-        hierarchy.add(processedPatternToken);
-      }
-      tokenHierachies.add(hierarchy);
+      List<String> candidateVars =
+          vars.stream()
+              // Check that the token matches the variable exactly, to avoid mismatching on
+              // variables with same-named subcomponents.
+              // Otherwise, "customer_client_link" will match with "customer".
+              .filter(v -> processedPatternToken.equals(v))
+              .collect(Collectors.toList());
+      Preconditions.checkState(
+          !candidateVars.isEmpty(),
+          String.format(
+              "No variable candidates found for token %s in pattern %s among variables %s",
+              processedPatternToken, pattern, vars));
+      hierarchy.add(processedPatternToken);
     }
-    return tokenHierachies;
+    return hierarchy;
   }
 }
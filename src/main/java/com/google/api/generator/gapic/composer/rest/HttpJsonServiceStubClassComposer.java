@@ -419,7 +419,10 @@ public class HttpJsonServiceStubClassComposer extends AbstractServiceStubClassCo
 
       serializerExpr = serializerVarExpr;
 
-      bodyStatements.add(ExprStatement.withExpr(serializerAssignExpr));
+      // Skip creating a serializer for requests with no fields to put.
+      if (!httpBindingFieldNames.isEmpty()) {
+        bodyStatements.add(ExprStatement.withExpr(serializerAssignExpr));
+      }
     }
 
     VariableExpr requestVarExpr =
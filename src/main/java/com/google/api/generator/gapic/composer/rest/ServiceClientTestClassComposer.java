@@ -107,7 +107,7 @@ public class ServiceClientTestClassComposer extends AbstractServiceClientTestCla
 
   @Override
   protected List<Statement> createClassMemberFieldDecls(
-      Map<String, VariableExpr> classMemberVarExprs) {
+      GapicContext context, Map<String, VariableExpr> classMemberVarExprs) {
     return classMemberVarExprs.values().stream()
         .map(
             v ->
@@ -244,7 +244,7 @@ public class ServiceClientTestClassComposer extends AbstractServiceClientTestCla
 
   @Override
   protected MethodDefinition createStopServerMethod(
-      Service service, Map<String, VariableExpr> classMemberVarExprs) {
+      Service service, GapicContext context, Map<String, VariableExpr> classMemberVarExprs) {
     return MethodDefinition.builder()
         .setAnnotations(Arrays.asList(AnnotationNode.withType(FIXED_TYPESTORE.get("AfterClass"))))
         .setScope(ScopeNode.PUBLIC)
@@ -263,7 +263,10 @@ public class ServiceClientTestClassComposer extends AbstractServiceClientTestCla
 
   @Override
   protected MethodDefinition createSetUpMethod(
-      Service service, Map<String, VariableExpr> classMemberVarExprs, TypeStore typeStore) {
+      Service service,
+      GapicContext context,
+      Map<String, VariableExpr> classMemberVarExprs,
+      TypeStore typeStore) {
 
     return MethodDefinition.builder()
         .setAnnotations(Arrays.asList(AnnotationNode.withType(FIXED_TYPESTORE.get("Before"))))
@@ -275,29 +278,32 @@ public class ServiceClientTestClassComposer extends AbstractServiceClientTestCla
   }
 
   @Override
-  protected MethodDefinition createTearDownMethod(
-      Service service, Map<String, VariableExpr> classMemberVarExprs) {
-    return MethodDefinition.builder()
-        .setAnnotations(Arrays.asList(AnnotationNode.withType(FIXED_TYPESTORE.get("After"))))
-        .setScope(ScopeNode.PUBLIC)
-        .setReturnType(TypeNode.VOID)
-        .setName("tearDown")
-        .setThrowsExceptions(
-            Arrays.asList(TypeNode.withReference(ConcreteReference.withClazz(Exception.class))))
-        .setBody(
-            Arrays.asList(
-                ExprStatement.withExpr(
-                    MethodInvocationExpr.builder()
-                        .setExprReferenceExpr(classMemberVarExprs.get(MOCK_SERVICE_VAR_NAME))
-                        .setMethodName("reset")
-                        .build())))
-        .build();
+  protected List<MethodDefinition> createTearDownMethod(
+      Service service, GapicContext context, Map<String, VariableExpr> classMemberVarExprs) {
+    return Arrays.asList(
+        MethodDefinition.builder()
+            .setAnnotations(Arrays.asList(AnnotationNode.withType(FIXED_TYPESTORE.get("After"))))
+            .setScope(ScopeNode.PUBLIC)
+            .setReturnType(TypeNode.VOID)
+            .setName("tearDown")
+            .setThrowsExceptions(
+                Arrays.asList(
+                    TypeNode.withReference(ConcreteReference.withClazz(Exception.class))))
+            .setBody(
+                Arrays.asList(
+                    ExprStatement.withExpr(
+                        MethodInvocationExpr.builder()
+                            .setExprReferenceExpr(classMemberVarExprs.get(MOCK_SERVICE_VAR_NAME))
+                            .setMethodName("reset")
+                            .build())))
+            .build());
   }
 
   @Override
   protected List<Statement> constructRpcTestCheckerLogic(
       Method method,
       Service service,
+      GapicContext context,
       boolean isRequestArg,
       Map<String, VariableExpr> classMemberVarExprs,
       VariableExpr requestVarExpr,
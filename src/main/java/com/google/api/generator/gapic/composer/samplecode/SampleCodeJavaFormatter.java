@@ -17,6 +17,8 @@ package com.google.api.generator.gapic.composer.samplecode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.googlejavaformat.java.Formatter;
 import com.google.googlejavaformat.java.FormatterException;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class SampleCodeJavaFormatter {
 
@@ -27,6 +29,14 @@ public final class SampleCodeJavaFormatter {
   private static final String FAKE_CLASS_TITLE = "public class FakeClass { void fakeMethod() {";
   private static final String FAKE_CLASS_CLOSE = "}}";
 
+  // Used for formatting several samples at once, each in its own fake method.
+  private static final String FAKE_BATCH_CLASS_TITLE = "public class FakeClass {";
+  private static final String FAKE_METHOD_TITLE_PATTERN = "void fakeMethod%d() {";
+  private static final String FAKE_METHOD_CLOSE = "}";
+  private static final String FORMATTED_FAKE_METHOD_TITLE_PREFIX = "  void fakeMethod";
+  private static final String FORMATTED_FAKE_METHOD_CLOSE = "  }";
+  private static final String FORMATTED_BODY_INDENT = "    ";
+
   /**
    * This method is used to format sample code string.
    *
@@ -58,6 +68,79 @@ public final class SampleCodeJavaFormatter {
         .trim();
   }
 
+  /**
+   * Formats several sample code strings with a single formatter pass.
+   *
+   * @param sampleCodes Strings that are each composed by statements.
+   * @return The formatted sample code strings, in the same order. Each is identical to the result
+   *     of calling {@link #format(String)} on it.
+   */
+  public static List<String> formatAll(List<String> sampleCodes) {
+    if (sampleCodes.isEmpty()) {
+      return new ArrayList<>();
+    }
+    // Wrap each sample in its own method of a single fake class, then split the formatted class
+    // back into one sample per method.
+    StringBuilder buffer = new StringBuilder();
+    buffer.append(FAKE_BATCH_CLASS_TITLE);
+    for (int i = 0; i < sampleCodes.size(); i++) {
+      buffer.append(String.format(FAKE_METHOD_TITLE_PATTERN, i));
+      buffer.append(sampleCodes.get(i));
+      buffer.append(FAKE_METHOD_CLOSE);
+    }
+    buffer.append(FAKE_METHOD_CLOSE);
+
+    String formattedString = null;
+    try {
+      formattedString = FORMATTER.formatSource(buffer.toString());
+    } catch (FormatterException e) {
+      throw new FormatException(
+          String.format("The sample code should be string where is composed by statements; %s", e));
+    }
+
+    // Method bodies are indented by at least four spaces, so any line with a two-space indent is
+    // either a fake method's title or its closing brace.
+    List<String> formattedSampleCodes = new ArrayList<>(sampleCodes.size());
+    StringBuilder sampleCodeBuilder = null;
+    int lineStart = 0;
+    while (lineStart < formattedString.length()) {
+      int lineEnd = formattedString.indexOf('\n', lineStart);
+      if (lineEnd < 0) {
+        lineEnd = formattedString.length();
+      }
+      String line = formattedString.substring(lineStart, lineEnd);
+      lineStart = lineEnd + 1;
+
+      if (sampleCodeBuilder == null) {
+        if (line.startsWith(FORMATTED_FAKE_METHOD_TITLE_PREFIX)) {
+          if (line.endsWith("{}")) {
+            formattedSampleCodes.add("");
+          } else {
+            sampleCodeBuilder = new StringBuilder();
+          }
+        }
+      } else if (line.equals(FORMATTED_FAKE_METHOD_CLOSE)) {
+        formattedSampleCodes.add(sampleCodeBuilder.toString().trim());
+        sampleCodeBuilder = null;
+      } else {
+        sampleCodeBuilder
+            .append(
+                line.startsWith(FORMATTED_BODY_INDENT)
+                    ? line.substring(FORMATTED_BODY_INDENT.length())
+                    : line)
+            .append('\n');
+      }
+    }
+
+    if (formattedSampleCodes.size() != sampleCodes.size()) {
+      throw new FormatException(
+          String.format(
+              "Expected %d formatted samples but found %d",
+              sampleCodes.size(), formattedSampleCodes.size()));
+    }
+    return formattedSampleCodes;
+  }
+
   @VisibleForTesting
   protected static class FormatException extends RuntimeException {
     public FormatException(String errorMessage) {
@@ -16,8 +16,11 @@ package com.google.api.generator.gapic.composer.samplecode;
 
 import com.google.api.generator.engine.ast.Statement;
 import com.google.api.generator.engine.writer.JavaWriterVisitor;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class SampleCodeWriter {
 
@@ -26,12 +29,43 @@ public final class SampleCodeWriter {
   }
 
   public static String write(List<Statement> statements) {
+    return writeAll(Arrays.asList(statements)).get(0);
+  }
+
+  /**
+   * Writes several samples, formatting them in a single formatter pass. Structurally identical
+   * samples, such as the class header sample and its RPC method's sample, are only formatted once.
+   */
+  public static List<String> writeAll(List<List<Statement>> samples) {
     JavaWriterVisitor visitor = new JavaWriterVisitor();
-    for (Statement statement : statements) {
-      statement.accept(visitor);
+    List<String> sampleCodes = new ArrayList<>(samples.size());
+    // Maps each distinct unformatted sample to its index in the formatter input.
+    Map<String, Integer> distinctSampleCodes = new LinkedHashMap<>();
+    for (List<Statement> statements : samples) {
+      visitor.clear();
+      for (Statement statement : statements) {
+        statement.accept(visitor);
+      }
+      String sampleCode = visitor.write();
+      sampleCodes.add(sampleCode);
+      distinctSampleCodes.putIfAbsent(sampleCode, distinctSampleCodes.size());
     }
-    String formattedSampleCode = SampleCodeJavaFormatter.format(visitor.write());
+
+    List<String> toFormat = new ArrayList<>(distinctSampleCodes.keySet());
+    List<String> formattedSampleCodes =
+        toFormat.size() == 1
+            ? Arrays.asList(SampleCodeJavaFormatter.format(toFormat.get(0)))
+            : SampleCodeJavaFormatter.formatAll(toFormat);
+
+    List<String> results = new ArrayList<>(sampleCodes.size());
+    for (String sampleCode : sampleCodes) {
+      results.add(escapeAtSign(formattedSampleCodes.get(distinctSampleCodes.get(sampleCode))));
+    }
+    return results;
+  }
+
+  private static String escapeAtSign(String formattedSampleCode) {
     // Escape character "@" in the markdown code block <pre>{@code...} tags.
-    return formattedSampleCode.replaceAll("@", "{@literal @}");
+    return formattedSampleCode.replace("@", "{@literal @}");
   }
 }
@@ -57,6 +57,8 @@ import com.google.common.base.Strings;
 import com.google.longrunning.Operation;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -64,19 +66,17 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 public class ServiceClientSampleCodeComposer {
+  // Keys of the class header samples returned by formatClassSampleCodes.
+  public static final String CLASS_HEADER_METHOD_SAMPLE_KEY = "#classHeaderMethod";
+  public static final String CLASS_HEADER_CREDENTIALS_SAMPLE_KEY = "#classHeaderCredentials";
+  public static final String CLASS_HEADER_ENDPOINT_SAMPLE_KEY = "#classHeaderEndpoint";
 
   public static String composeClassHeaderMethodSampleCode(
       Service service,
       TypeNode clientType,
       Map<String, ResourceName> resourceNames,
       Map<String, Message> messageTypes) {
-    // Use the first pure unary RPC method's sample code as showcase, if no such method exists, use
-    // the first method in the service's methods list.
-    Method method =
-        service.methods().stream()
-            .filter(m -> m.stream() == Stream.NONE && !m.hasLro() && !m.isPaged())
-            .findFirst()
-            .orElse(service.methods().get(0));
+    Method method = getClassHeaderMethod(service);
     if (method.stream() == Stream.NONE) {
       if (method.methodSignatures().isEmpty()) {
         return composeRpcDefaultMethodHeaderSampleCode(
@@ -91,6 +91,129 @@ public class ServiceClientSampleCodeComposer {
 
   public static String composeClassHeaderCredentialsSampleCode(
       TypeNode clientType, TypeNode settingsType) {
+    return SampleCodeWriter.write(createClassHeaderCredentialsStatements(clientType, settingsType));
+  }
+
+  public static String composeClassHeaderEndpointSampleCode(
+      TypeNode clientType, TypeNode settingsType) {
+    return SampleCodeWriter.write(createClassHeaderEndpointStatements(clientType, settingsType));
+  }
+
+  /**
+   * Formats every sample of the service's client class with a single formatter pass: the class
+   * header samples, then the samples of each RPC method variant, request object method and callable
+   * method. Returns the formatted samples keyed by the *_SAMPLE_KEY constants and the
+   * *SampleKey(...) methods below.
+   */
+  public static Map<String, String> formatClassSampleCodes(
+      Service service,
+      TypeNode clientType,
+      TypeNode settingsType,
+      Map<String, ResourceName> resourceNames,
+      Map<String, Message> messageTypes) {
+    Map<String, List<Statement>> samples = new LinkedHashMap<>();
+    samples.put(
+        CLASS_HEADER_CREDENTIALS_SAMPLE_KEY,
+        createClassHeaderCredentialsStatements(clientType, settingsType));
+    samples.put(
+        CLASS_HEADER_ENDPOINT_SAMPLE_KEY,
+        createClassHeaderEndpointStatements(clientType, settingsType));
+    for (Method method : service.methods()) {
+      if (method.stream() == Stream.NONE) {
+        for (List<MethodArgument> signature : method.methodSignatures()) {
+          samples.put(
+              rpcMethodSampleKey(method, signature),
+              Arrays.asList(
+                  createRpcMethodHeaderSampleStatement(
+                      method, clientType, signature, resourceNames, messageTypes)));
+        }
+        samples.put(
+            rpcDefaultMethodSampleKey(method),
+            Arrays.asList(
+                createRpcDefaultMethodHeaderSampleStatement(
+                    method, clientType, resourceNames, messageTypes)));
+      }
+      if (method.hasLro()) {
+        samples.put(
+            lroCallableMethodSampleKey(method),
+            Arrays.asList(
+                createLroCallableMethodHeaderSampleStatement(
+                    method, clientType, resourceNames, messageTypes)));
+      }
+      if (method.isPaged()) {
+        samples.put(
+            pagedCallableMethodSampleKey(method),
+            Arrays.asList(
+                createPagedCallableMethodHeaderSampleStatement(
+                    method, clientType, resourceNames, messageTypes)));
+      }
+      samples.put(
+          callableMethodSampleKey(method),
+          Arrays.asList(
+              method.stream() == Stream.NONE
+                  ? createRegularCallableMethodHeaderSampleStatement(
+                      method, clientType, resourceNames, messageTypes)
+                  : createStreamCallableMethodHeaderSampleStatement(
+                      method, clientType, resourceNames, messageTypes)));
+    }
+
+    List<String> sampleCodes = SampleCodeWriter.writeAll(new ArrayList<>(samples.values()));
+    Map<String, String> sampleCodesByKey = new HashMap<>();
+    int i = 0;
+    for (String key : samples.keySet()) {
+      sampleCodesByKey.put(key, sampleCodes.get(i++));
+    }
+    // The class header sample is a copy of one of the RPC method samples.
+    sampleCodesByKey.put(
+        CLASS_HEADER_METHOD_SAMPLE_KEY,
+        sampleCodesByKey.get(getClassHeaderMethodSampleKey(service)));
+    return sampleCodesByKey;
+  }
+
+  public static String rpcMethodSampleKey(Method method, List<MethodArgument> signature) {
+    return String.format(
+        "%s(%s)",
+        method.name(),
+        signature.stream().map(MethodArgument::name).collect(Collectors.joining(",")));
+  }
+
+  public static String rpcDefaultMethodSampleKey(Method method) {
+    return String.format("%s(request)", method.name());
+  }
+
+  public static String lroCallableMethodSampleKey(Method method) {
+    return String.format("%s#lroCallable", method.name());
+  }
+
+  public static String pagedCallableMethodSampleKey(Method method) {
+    return String.format("%s#pagedCallable", method.name());
+  }
+
+  public static String callableMethodSampleKey(Method method) {
+    return String.format("%s#callable", method.name());
+  }
+
+  private static String getClassHeaderMethodSampleKey(Service service) {
+    Method method = getClassHeaderMethod(service);
+    if (method.stream() != Stream.NONE) {
+      return callableMethodSampleKey(method);
+    }
+    return method.methodSignatures().isEmpty()
+        ? rpcDefaultMethodSampleKey(method)
+        : rpcMethodSampleKey(method, method.methodSignatures().get(0));
+  }
+
+  private static Method getClassHeaderMethod(Service service) {
+    // Use the first pure unary RPC method's sample code as showcase, if no such method exists, use
+    // the first method in the service's methods list.
+    return service.methods().stream()
+        .filter(m -> m.stream() == Stream.NONE && !m.hasLro() && !m.isPaged())
+        .findFirst()
+        .orElse(service.methods().get(0));
+  }
+
+  private static List<Statement> createClassHeaderCredentialsStatements(
+      TypeNode clientType, TypeNode settingsType) {
     // Initialize clientSettings with builder() method.
     // e.g. EchoSettings echoSettings =
     // EchoSettings.newBuilder().setCredentialsProvider(FixedCredentialsProvider.create("myCredentials")).build();
@@ -155,13 +278,11 @@ public class ServiceClientSampleCodeComposer {
             .setVariableExpr(clientVarExpr.toBuilder().setIsDecl(true).build())
             .setValueExpr(createMethodExpr)
             .build();
-    return SampleCodeWriter.write(
-        Arrays.asList(
-            ExprStatement.withExpr(initSettingsVarExpr),
-            ExprStatement.withExpr(initClientVarExpr)));
+    return Arrays.asList(
+        ExprStatement.withExpr(initSettingsVarExpr), ExprStatement.withExpr(initClientVarExpr));
   }
 
-  public static String composeClassHeaderEndpointSampleCode(
+  private static List<Statement> createClassHeaderEndpointStatements(
       TypeNode clientType, TypeNode settingsType) {
     // Initialize client settings with builder() method.
     // e.g. EchoSettings echoSettings = EchoSettings.newBuilder().setEndpoint("myEndpoint").build();
@@ -220,10 +341,8 @@ public class ServiceClientSampleCodeComposer {
             .setValueExpr(createMethodExpr)
             .build();
 
-    return SampleCodeWriter.write(
-        Arrays.asList(
-            ExprStatement.withExpr(initSettingsVarExpr),
-            ExprStatement.withExpr(initClientVarExpr)));
+    return Arrays.asList(
+        ExprStatement.withExpr(initSettingsVarExpr), ExprStatement.withExpr(initClientVarExpr));
   }
 
   public static String composeRpcMethodHeaderSampleCode(
@@ -232,6 +351,17 @@ public class ServiceClientSampleCodeComposer {
       List<MethodArgument> arguments,
       Map<String, ResourceName> resourceNames,
       Map<String, Message> messageTypes) {
+    return SampleCodeWriter.write(
+        createRpcMethodHeaderSampleStatement(
+            method, clientType, arguments, resourceNames, messageTypes));
+  }
+
+  private static Statement createRpcMethodHeaderSampleStatement(
+      Method method,
+      TypeNode clientType,
+      List<MethodArgument> arguments,
+      Map<String, ResourceName> resourceNames,
+      Map<String, Message> messageTypes) {
     VariableExpr clientVarExpr =
         VariableExpr.withVariable(
             Variable.builder()
@@ -254,7 +384,7 @@ public class ServiceClientSampleCodeComposer {
     if (method.isPaged()) {
       bodyStatements.addAll(
           composeUnaryPagedRpcMethodBodyStatements(
-              method, clientVarExpr, rpcMethodArgVarExprs, bodyExprs, messageTypes));
+              method, clientVarExpr, rpcMethodArgVarExprs, bodyExprs));
     } else if (method.hasLro()) {
       bodyStatements.addAll(
           composeUnaryLroRpcMethodBodyStatements(
@@ -265,12 +395,11 @@ public class ServiceClientSampleCodeComposer {
               method, clientVarExpr, rpcMethodArgVarExprs, bodyExprs));
     }
 
-    return SampleCodeWriter.write(
-        TryCatchStatement.builder()
-            .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
-            .setTryBody(bodyStatements)
-            .setIsSampleCode(true)
-            .build());
+    return TryCatchStatement.builder()
+        .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
+        .setTryBody(bodyStatements)
+        .setIsSampleCode(true)
+        .build();
   }
 
   public static String composeRpcDefaultMethodHeaderSampleCode(
@@ -278,6 +407,16 @@ public class ServiceClientSampleCodeComposer {
       TypeNode clientType,
       Map<String, ResourceName> resourceNames,
       Map<String, Message> messageTypes) {
+    return SampleCodeWriter.write(
+        createRpcDefaultMethodHeaderSampleStatement(
+            method, clientType, resourceNames, messageTypes));
+  }
+
+  private static Statement createRpcDefaultMethodHeaderSampleStatement(
+      Method method,
+      TypeNode clientType,
+      Map<String, ResourceName> resourceNames,
+      Map<String, Message> messageTypes) {
     VariableExpr clientVarExpr =
         VariableExpr.withVariable(
             Variable.builder()
@@ -311,7 +450,7 @@ public class ServiceClientSampleCodeComposer {
     if (method.isPaged()) {
       bodyStatements.addAll(
           composeUnaryPagedRpcMethodBodyStatements(
-              method, clientVarExpr, rpcMethodArgVarExprs, bodyExprs, messageTypes));
+              method, clientVarExpr, rpcMethodArgVarExprs, bodyExprs));
     } else if (method.hasLro()) {
       bodyStatements.addAll(
           composeUnaryLroRpcMethodBodyStatements(
@@ -322,12 +461,11 @@ public class ServiceClientSampleCodeComposer {
               method, clientVarExpr, rpcMethodArgVarExprs, bodyExprs));
     }
 
-    return SampleCodeWriter.write(
-        TryCatchStatement.builder()
-            .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
-            .setTryBody(bodyStatements)
-            .setIsSampleCode(true)
-            .build());
+    return TryCatchStatement.builder()
+        .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
+        .setTryBody(bodyStatements)
+        .setIsSampleCode(true)
+        .build();
   }
 
   // Compose sample code for the method where it is CallableMethodKind.LRO.
@@ -336,6 +474,16 @@ public class ServiceClientSampleCodeComposer {
       TypeNode clientType,
       Map<String, ResourceName> resourceNames,
       Map<String, Message> messageTypes) {
+    return SampleCodeWriter.write(
+        createLroCallableMethodHeaderSampleStatement(
+            method, clientType, resourceNames, messageTypes));
+  }
+
+  private static Statement createLroCallableMethodHeaderSampleStatement(
+      Method method,
+      TypeNode clientType,
+      Map<String, ResourceName> resourceNames,
+      Map<String, Message> messageTypes) {
     VariableExpr clientVarExpr =
         VariableExpr.withVariable(
             Variable.builder()
@@ -434,12 +582,11 @@ public class ServiceClientSampleCodeComposer {
         bodyExprs.stream().map(e -> ExprStatement.withExpr(e)).collect(Collectors.toList()));
     bodyExprs.clear();
 
-    return SampleCodeWriter.write(
-        TryCatchStatement.builder()
-            .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
-            .setTryBody(bodyStatements)
-            .setIsSampleCode(true)
-            .build());
+    return TryCatchStatement.builder()
+        .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
+        .setTryBody(bodyStatements)
+        .setIsSampleCode(true)
+        .build();
   }
 
   // Compose sample code for the method where it is CallableMethodKind.PAGED.
@@ -448,6 +595,16 @@ public class ServiceClientSampleCodeComposer {
       TypeNode clientType,
       Map<String, ResourceName> resourceNames,
       Map<String, Message> messageTypes) {
+    return SampleCodeWriter.write(
+        createPagedCallableMethodHeaderSampleStatement(
+            method, clientType, resourceNames, messageTypes));
+  }
+
+  private static Statement createPagedCallableMethodHeaderSampleStatement(
+      Method method,
+      TypeNode clientType,
+      Map<String, ResourceName> resourceNames,
+      Map<String, Message> messageTypes) {
     VariableExpr clientVarExpr =
         VariableExpr.withVariable(
             Variable.builder()
@@ -475,14 +632,12 @@ public class ServiceClientSampleCodeComposer {
     List<Expr> bodyExprs = new ArrayList<>();
     bodyExprs.add(requestAssignmentExpr);
 
-    // Find the repeated field.
-    Message methodOutputMessage = messageTypes.get(method.outputType().reference().fullName());
-    Field repeatedPagedResultsField = methodOutputMessage.findAndUnwrapPaginatedRepeatedField();
+    Field repeatedPagedResultsField = method.pagedResultsField();
     Preconditions.checkNotNull(
         repeatedPagedResultsField,
-        String.format(
-            "No repeated field found on message %s for method %s",
-            methodOutputMessage.name(), method.name()));
+        "No repeated field found on message %s for method %s",
+        method.outputType().reference().name(),
+        method.name());
     TypeNode repeatedResponseType = repeatedPagedResultsField.type();
 
     // Create ApiFuture Variable Expression with assign value by invoking client paged callable
@@ -553,12 +708,11 @@ public class ServiceClientSampleCodeComposer {
             .build();
     bodyStatements.add(repeatedResponseForStatement);
 
-    return SampleCodeWriter.write(
-        TryCatchStatement.builder()
-            .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
-            .setTryBody(bodyStatements)
-            .setIsSampleCode(true)
-            .build());
+    return TryCatchStatement.builder()
+        .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
+        .setTryBody(bodyStatements)
+        .setIsSampleCode(true)
+        .build();
   }
 
   // Compose sample code for the method where it is CallableMethodKind.REGULAR.
@@ -567,6 +721,16 @@ public class ServiceClientSampleCodeComposer {
       TypeNode clientType,
       Map<String, ResourceName> resourceNames,
       Map<String, Message> messageTypes) {
+    return SampleCodeWriter.write(
+        createRegularCallableMethodHeaderSampleStatement(
+            method, clientType, resourceNames, messageTypes));
+  }
+
+  private static Statement createRegularCallableMethodHeaderSampleStatement(
+      Method method,
+      TypeNode clientType,
+      Map<String, ResourceName> resourceNames,
+      Map<String, Message> messageTypes) {
     VariableExpr clientVarExpr =
         VariableExpr.withVariable(
             Variable.builder()
@@ -597,18 +761,17 @@ public class ServiceClientSampleCodeComposer {
 
     if (method.isPaged()) {
       bodyStatements.addAll(
-          composePagedCallableBodyStatements(method, clientVarExpr, requestVarExpr, messageTypes));
+          composePagedCallableBodyStatements(method, clientVarExpr, requestVarExpr));
     } else {
       bodyStatements.addAll(
           composeUnaryOrLroCallableBodyStatements(method, clientVarExpr, requestVarExpr));
     }
 
-    return SampleCodeWriter.write(
-        TryCatchStatement.builder()
-            .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
-            .setTryBody(bodyStatements)
-            .setIsSampleCode(true)
-            .build());
+    return TryCatchStatement.builder()
+        .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
+        .setTryBody(bodyStatements)
+        .setIsSampleCode(true)
+        .build();
   }
 
   public static String composeStreamCallableMethodHeaderSampleCode(
@@ -616,6 +779,16 @@ public class ServiceClientSampleCodeComposer {
       TypeNode clientType,
       Map<String, ResourceName> resourceNames,
       Map<String, Message> messageTypes) {
+    return SampleCodeWriter.write(
+        createStreamCallableMethodHeaderSampleStatement(
+            method, clientType, resourceNames, messageTypes));
+  }
+
+  private static Statement createStreamCallableMethodHeaderSampleStatement(
+      Method method,
+      TypeNode clientType,
+      Map<String, ResourceName> resourceNames,
+      Map<String, Message> messageTypes) {
     VariableExpr clientVarExpr =
         VariableExpr.withVariable(
             Variable.builder()
@@ -652,12 +825,11 @@ public class ServiceClientSampleCodeComposer {
           composeStreamClientBodyStatements(method, clientVarExpr, requestAssignmentExpr));
     }
 
-    return SampleCodeWriter.write(
-        TryCatchStatement.builder()
-            .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
-            .setTryBody(bodyStatements)
-            .setIsSampleCode(true)
-            .build());
+    return TryCatchStatement.builder()
+        .setTryResourceExpr(assignClientVariableWithCreateMethodExpr(clientVarExpr))
+        .setTryBody(bodyStatements)
+        .setIsSampleCode(true)
+        .build();
   }
 
   private static List<Statement> composeUnaryRpcMethodBodyStatements(
@@ -698,22 +870,13 @@ public class ServiceClientSampleCodeComposer {
       Method method,
       VariableExpr clientVarExpr,
       List<VariableExpr> rpcMethodArgVarExprs,
-      List<Expr> bodyExprs,
-      Map<String, Message> messageTypes) {
-
-    // Find the repeated field.
-    Message methodOutputMessage = messageTypes.get(method.outputType().reference().fullName());
-    Preconditions.checkNotNull(
-        methodOutputMessage,
-        "Output message %s not found, keys: ",
-        method.outputType().reference().fullName(),
-        messageTypes.keySet().toString());
-    Field repeatedPagedResultsField = methodOutputMessage.findAndUnwrapPaginatedRepeatedField();
+      List<Expr> bodyExprs) {
+    Field repeatedPagedResultsField = method.pagedResultsField();
     Preconditions.checkNotNull(
         repeatedPagedResultsField,
-        String.format(
-            "No repeated field found on message %s for method %s",
-            methodOutputMessage.name(), method.name()));
+        "No repeated field found on message %s for method %s",
+        method.outputType().reference().name(),
+        method.name());
     TypeNode repeatedResponseType = repeatedPagedResultsField.type();
 
     // For loop paged response item on iterateAll method.
@@ -1128,18 +1291,13 @@ public class ServiceClientSampleCodeComposer {
   }
 
   private static List<Statement> composePagedCallableBodyStatements(
-      Method method,
-      VariableExpr clientVarExpr,
-      VariableExpr requestVarExpr,
-      Map<String, Message> messageTypes) {
-    // Find the repeated field.
-    Message methodOutputMessage = messageTypes.get(method.outputType().reference().fullName());
-    Field repeatedPagedResultsField = methodOutputMessage.findAndUnwrapPaginatedRepeatedField();
+      Method method, VariableExpr clientVarExpr, VariableExpr requestVarExpr) {
+    Field repeatedPagedResultsField = method.pagedResultsField();
     Preconditions.checkNotNull(
         repeatedPagedResultsField,
-        String.format(
-            "No repeated field found on message %s for method %s",
-            methodOutputMessage.name(), method.name()));
+        "No repeated field found on message %s for method %s",
+        method.outputType().reference().name(),
+        method.name());
     TypeNode repeatedResponseType = repeatedPagedResultsField.type();
 
     // Assign future variable by invoking paged callable method.
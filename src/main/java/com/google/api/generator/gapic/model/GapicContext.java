@@ -23,13 +23,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
 import javax.annotation.Nullable;
 
 @AutoValue
 public abstract class GapicContext {
-  // Keep a non-AutoValue reference to GapicMetadata, since we need to update
+  // Keep a non-AutoValue reference to the GapicMetadata collector, since we need to update
   // it iteratively as we generate client methods.
-  private GapicMetadata gapicMetadata = defaultGapicMetadata();
+  private final GapicMetadataCollector gapicMetadataCollector =
+      new GapicMetadataCollector(defaultGapicMetadata());
 
   // Maps the message name (as it appears in the protobuf) to Messages.
   public abstract ImmutableMap<String, Message> messages();
@@ -46,8 +48,33 @@ public abstract class GapicContext {
 
   public abstract boolean gapicMetadataEnabled();
 
+  // Whether generated transport stubs should create their callables lazily, on first use.
+  public abstract boolean lazyCallablesEnabled();
+
+  // Whether generated clients should have byte[] and ByteBuffer overloads for bytes arguments.
+  public abstract boolean zeroCopyBytesEnabled();
+
+  // Whether generated paged responses should have prefetching iterators and stream views.
+  public abstract boolean prefetchingPaginationEnabled();
+
+  // Whether generated clients should have *Async overloads of their unary methods.
+  public abstract boolean asyncOverloadsEnabled();
+
+  // Whether generated transport stubs should report per-method metrics to a pluggable recorder.
+  public abstract boolean methodMetricsEnabled();
+
+  // Whether generated stub settings builders should copy per-method settings only on first access.
+  public abstract boolean copyOnWriteSettingsEnabled();
+
+  // Whether generated gRPC client tests should create their client once per class, not per test.
+  public abstract boolean sharedTestClientEnabled();
+
+  // The compression level of the generated srcjars, from Deflater.NO_COMPRESSION, which stores
+  // entries without compressing them, to Deflater.BEST_COMPRESSION.
+  public abstract int srcjarCompressionLevel();
+
   public GapicMetadata gapicMetadata() {
-    return gapicMetadata;
+    return gapicMetadataCollector.build(services());
   }
 
   @Nullable
@@ -60,8 +87,9 @@ public abstract class GapicContext {
     return serviceYamlProto() != null;
   }
 
-  public void updateGapicMetadata(GapicMetadata newMetadata) {
-    gapicMetadata = newMetadata;
+  // Safe to call concurrently for different services.
+  public void addServiceGapicMetadata(String serviceName, GapicMetadata serviceMetadata) {
+    gapicMetadataCollector.addServiceMetadata(serviceName, serviceMetadata);
   }
 
   static GapicMetadata defaultGapicMetadata() {
@@ -80,7 +108,15 @@ public abstract class GapicContext {
   public static Builder builder() {
     return new AutoValue_GapicContext.Builder()
         .setMixinServices(Collections.emptyList())
-        .setGapicMetadataEnabled(false);
+        .setGapicMetadataEnabled(false)
+        .setLazyCallablesEnabled(false)
+        .setZeroCopyBytesEnabled(false)
+        .setPrefetchingPaginationEnabled(false)
+        .setAsyncOverloadsEnabled(false)
+        .setMethodMetricsEnabled(false)
+        .setCopyOnWriteSettingsEnabled(false)
+        .setSharedTestClientEnabled(false)
+        .setSrcjarCompressionLevel(Deflater.DEFAULT_COMPRESSION);
   }
 
   @AutoValue.Builder
@@ -108,6 +144,22 @@ public abstract class GapicContext {
 
     public abstract Builder setGapicMetadataEnabled(boolean gapicMetadataEnabled);
 
+    public abstract Builder setLazyCallablesEnabled(boolean lazyCallablesEnabled);
+
+    public abstract Builder setZeroCopyBytesEnabled(boolean zeroCopyBytesEnabled);
+
+    public abstract Builder setPrefetchingPaginationEnabled(boolean prefetchingPaginationEnabled);
+
+    public abstract Builder setAsyncOverloadsEnabled(boolean asyncOverloadsEnabled);
+
+    public abstract Builder setMethodMetricsEnabled(boolean methodMetricsEnabled);
+
+    public abstract Builder setCopyOnWriteSettingsEnabled(boolean copyOnWriteSettingsEnabled);
+
+    public abstract Builder setSharedTestClientEnabled(boolean sharedTestClientEnabled);
+
+    public abstract Builder setSrcjarCompressionLevel(int srcjarCompressionLevel);
+
     public abstract Builder setTransport(Transport transport);
 
     public abstract GapicContext build();
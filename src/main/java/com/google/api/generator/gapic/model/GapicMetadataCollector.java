@@ -0,0 +1,55 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.api.generator.gapic.model;
+
+import com.google.gapic.metadata.GapicMetadata;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accumulates the GapicMetadata entry of each service as its client is composed.
+ *
+ * <p>Entries may be added concurrently, and are only merged into a single GapicMetadata proto when
+ * it is requested.
+ */
+public class GapicMetadataCollector {
+  private final GapicMetadata defaultMetadata;
+  // Maps service names to a GapicMetadata holding the packages and client of that service only.
+  private final Map<String, GapicMetadata> serviceMetadata = new ConcurrentHashMap<>();
+
+  public GapicMetadataCollector(GapicMetadata defaultMetadata) {
+    this.defaultMetadata = defaultMetadata;
+  }
+
+  public void addServiceMetadata(String serviceName, GapicMetadata metadata) {
+    serviceMetadata.put(serviceName, metadata);
+  }
+
+  /**
+   * Merges the collected entries in the given service order, so that the result does not depend on
+   * the order in which the entries were added. Later services take precedence for the packages.
+   */
+  public GapicMetadata build(List<Service> services) {
+    GapicMetadata.Builder metadataBuilder = defaultMetadata.toBuilder();
+    for (Service service : services) {
+      GapicMetadata metadata = serviceMetadata.get(service.name());
+      if (metadata != null) {
+        metadataBuilder.mergeFrom(metadata);
+      }
+    }
+    return metadataBuilder.build();
+  }
+}
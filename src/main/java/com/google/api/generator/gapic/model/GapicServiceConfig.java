@@ -14,6 +14,7 @@
 
 package com.google.api.generator.gapic.model;
 
+import com.google.auto.value.AutoValue;
 import com.google.protobuf.Duration;
 import com.google.rpc.Code;
 import io.grpc.serviceconfig.MethodConfig;
@@ -25,6 +26,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class GapicServiceConfig {
@@ -47,6 +49,11 @@ public class GapicServiceConfig {
   private final Map<MethodConfig.Name, GapicBatchingSettings> batchingSettingsTable =
       new HashMap<>();
 
+  // Maps "proto.package.ServiceName" to a table of method names to their resolved configs. Entries
+  // are computed on first lookup and dropped whenever the LRO or batching settings change.
+  private final Map<String, Map<String, ResolvedMethodConfig>> resolvedMethodConfigTable =
+      new ConcurrentHashMap<>();
+
   private Optional<GapicLanguageSettings> languageSettingsOpt = Optional.empty();
 
   private GapicServiceConfig(
@@ -78,6 +85,7 @@ public class GapicServiceConfig {
       return;
     }
     lroRetrySettingsTable.clear();
+    resolvedMethodConfigTable.clear();
     for (GapicLroRetrySettings lroRetrySetting : lroRetrySettingsOpt.get()) {
       lroRetrySettingsTable.put(
           MethodConfig.Name.newBuilder()
@@ -95,6 +103,7 @@ public class GapicServiceConfig {
       return;
     }
     batchingSettingsTable.clear();
+    resolvedMethodConfigTable.clear();
     for (GapicBatchingSettings batchingSetting : batchingSettingsOpt.get()) {
       batchingSettingsTable.put(
           MethodConfig.Name.newBuilder()
@@ -117,46 +126,40 @@ public class GapicServiceConfig {
 
   public Map<String, GapicRetrySettings> getAllGapicRetrySettings(Service service) {
     return service.methods().stream()
+        .map(m -> getResolvedMethodConfig(service, m))
         .collect(
             Collectors.toMap(
-                m -> getRetryParamsName(service, m),
-                m -> toGapicRetrySettings(service, m),
+                ResolvedMethodConfig::retryParamsName,
+                ResolvedMethodConfig::retrySettings,
                 (r1, r2) -> r2,
                 LinkedHashMap::new));
   }
 
   public Map<String, List<Code>> getAllRetryCodes(Service service) {
     return service.methods().stream()
+        .map(m -> getResolvedMethodConfig(service, m))
         .collect(
             Collectors.toMap(
-                m -> getRetryCodeName(service, m),
-                m -> retryCodesLookup(service, m),
+                ResolvedMethodConfig::retryCodeName,
+                ResolvedMethodConfig::retryCodes,
                 (l1, l2) -> l2,
                 LinkedHashMap::new));
   }
 
   public String getRetryCodeName(Service service, Method method) {
-    Optional<Integer> retryPolicyIndexOpt = retryPolicyIndexLookup(service, method);
-    if (retryPolicyIndexOpt.isPresent()) {
-      return getRetryCodeName(retryPolicyIndexOpt.get());
-    }
-    return NO_RETRY_CODES_NAME;
+    return getResolvedMethodConfig(service, method).retryCodeName();
   }
 
   public String getRetryParamsName(Service service, Method method) {
-    Optional<Integer> retryPolicyIndexOpt = retryPolicyIndexLookup(service, method);
-    if (retryPolicyIndexOpt.isPresent()) {
-      return getRetryParamsName(retryPolicyIndexOpt.get());
-    }
-    return NO_RETRY_PARAMS_NAME;
+    return getResolvedMethodConfig(service, method).retryParamsName();
   }
 
   public boolean hasLroRetrySetting(Service service, Method method) {
-    return lroRetrySettingsTable.containsKey(toName(service, method));
+    return getResolvedMethodConfig(service, method).lroRetrySetting().isPresent();
   }
 
   public boolean hasBatchingSetting(Service service, Method method) {
-    return batchingSettingsTable.containsKey(toName(service, method));
+    return getResolvedMethodConfig(service, method).batchingSetting().isPresent();
   }
 
   public boolean hasBatchingSetting(String protoPakkage, String serviceName, String methodName) {
@@ -168,15 +171,40 @@ public class GapicServiceConfig {
   }
 
   public Optional<GapicLroRetrySettings> getLroRetrySetting(Service service, Method method) {
-    return hasLroRetrySetting(service, method)
-        ? Optional.of(lroRetrySettingsTable.get(toName(service, method)))
-        : Optional.empty();
+    return getResolvedMethodConfig(service, method).lroRetrySetting();
   }
 
   public Optional<GapicBatchingSettings> getBatchingSetting(Service service, Method method) {
-    return hasBatchingSetting(service, method)
-        ? Optional.of(batchingSettingsTable.get(toName(service, method)))
-        : Optional.empty();
+    return getResolvedMethodConfig(service, method).batchingSetting();
+  }
+
+  /**
+   * Returns the effective retry, timeout, LRO, and batching configuration for the given method.
+   * Each (service, method) pair is resolved once, so repeated lookups are plain field reads.
+   */
+  public ResolvedMethodConfig getResolvedMethodConfig(Service service, Method method) {
+    return resolvedMethodConfigTable
+        .computeIfAbsent(serviceToNameString(service), k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(method.name(), k -> resolveMethodConfig(service, method));
+  }
+
+  private ResolvedMethodConfig resolveMethodConfig(Service service, Method method) {
+    MethodConfig.Name serviceMethodName = toName(service, method);
+    Optional<Integer> retryPolicyIndexOpt = retryPolicyIndexLookup(service, method);
+    return ResolvedMethodConfig.builder()
+        .setRetryCodeName(
+            retryPolicyIndexOpt.isPresent()
+                ? getRetryCodeName(retryPolicyIndexOpt.get())
+                : NO_RETRY_CODES_NAME)
+        .setRetryParamsName(
+            retryPolicyIndexOpt.isPresent()
+                ? getRetryParamsName(retryPolicyIndexOpt.get())
+                : NO_RETRY_PARAMS_NAME)
+        .setRetrySettings(toGapicRetrySettings(service, method))
+        .setRetryCodes(retryCodesLookup(service, method))
+        .setLroRetrySetting(Optional.ofNullable(lroRetrySettingsTable.get(serviceMethodName)))
+        .setBatchingSetting(Optional.ofNullable(batchingSettingsTable.get(serviceMethodName)))
+        .build();
   }
 
   private GapicRetrySettings toGapicRetrySettings(Service service, Method method) {
@@ -283,4 +311,41 @@ public class GapicServiceConfig {
   private String serviceToNameString(Service service) {
     return String.format("%s.%s", service.protoPakkage(), service.name());
   }
+
+  /** The effective service config settings of a single method. */
+  @AutoValue
+  public abstract static class ResolvedMethodConfig {
+    public abstract String retryCodeName();
+
+    public abstract String retryParamsName();
+
+    public abstract GapicRetrySettings retrySettings();
+
+    public abstract List<Code> retryCodes();
+
+    public abstract Optional<GapicLroRetrySettings> lroRetrySetting();
+
+    public abstract Optional<GapicBatchingSettings> batchingSetting();
+
+    static Builder builder() {
+      return new AutoValue_GapicServiceConfig_ResolvedMethodConfig.Builder();
+    }
+
+    @AutoValue.Builder
+    abstract static class Builder {
+      abstract Builder setRetryCodeName(String retryCodeName);
+
+      abstract Builder setRetryParamsName(String retryParamsName);
+
+      abstract Builder setRetrySettings(GapicRetrySettings retrySettings);
+
+      abstract Builder setRetryCodes(List<Code> retryCodes);
+
+      abstract Builder setLroRetrySetting(Optional<GapicLroRetrySettings> lroRetrySetting);
+
+      abstract Builder setBatchingSetting(Optional<GapicBatchingSettings> batchingSetting);
+
+      abstract ResolvedMethodConfig build();
+    }
+  }
 }
@@ -14,10 +14,12 @@
 
 package com.google.api.generator.gapic.model;
 
+import com.google.api.generator.gapic.utils.HttpPathTemplate;
 import com.google.api.generator.gapic.utils.JavaStyle;
 import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @AutoValue
 public abstract class HttpBindings {
@@ -70,13 +72,10 @@ public abstract class HttpBindings {
   //   in .proto file: "/global/instanceTemplates/{instance_template=*}"
   //   in .java file:  "/global/instanceTemplates/{instanceTemplate=*}"
   public String patternLowerCamel() {
-    String lowerCamelPattern = pattern();
-    for (HttpBinding pathParam : pathParameters()) {
-      lowerCamelPattern =
-          lowerCamelPattern.replaceAll(
-              "\\{" + pathParam.name(), "{" + JavaStyle.toLowerCamelCase(pathParam.name()));
-    }
-    return lowerCamelPattern;
+    Set<String> pathParamNames =
+        pathParameters().stream().map(HttpBinding::name).collect(Collectors.toSet());
+    return HttpPathTemplate.parse(pattern())
+        .format(n -> pathParamNames.contains(n) ? JavaStyle.toLowerCamelCase(n) : n);
   }
 
   @AutoValue.Builder
@@ -51,6 +51,13 @@ public abstract class Message {
 
   public abstract ImmutableMap<String, Field> fieldMap();
 
+  // The fields with a resource reference, in declaration order. Derived from fields() on build.
+  public abstract ImmutableList<Field> resourceReferenceFields();
+
+  // The result of findAndUnwrapPaginatedRepeatedField(), derived from fields() on build.
+  @Nullable
+  abstract Field paginatedRepeatedField();
+
   // The resource name annotation (and definition) in this message. Optional.
   // Expected dto be empty for messages that have no such definition.
   @Nullable
@@ -74,7 +81,12 @@ public abstract class Message {
   /** Returns the first list repeated field in a message, unwrapped from its list type. */
   @Nullable
   public Field findAndUnwrapPaginatedRepeatedField() {
-    for (Field field : fields()) {
+    return paginatedRepeatedField();
+  }
+
+  @Nullable
+  private static Field unwrapPaginatedRepeatedField(List<Field> fields) {
+    for (Field field : fields) {
       if (field.isMap()) {
         List<Reference> repeatedGenericMapRefs = field.type().reference().generics();
 
@@ -89,7 +101,7 @@ public abstract class Message {
         return field.toBuilder().setType(paginatedType).build();
       }
     }
-    for (Field field : fields()) {
+    for (Field field : fields) {
       if (field.isRepeated() && !field.isMap()) {
         Reference repeatedGenericRef = field.type().reference().generics().get(0);
         return field.toBuilder().setType(TypeNode.withReference(repeatedGenericRef)).build();
@@ -103,6 +115,7 @@ public abstract class Message {
         .setOuterNestedTypes(Collections.emptyList())
         .setFields(Collections.emptyList())
         .setFieldMap(Collections.emptyMap())
+        .setResourceReferenceFields(Collections.emptyList())
         .setEnumValues(Collections.emptyMap());
   }
 
@@ -131,6 +144,10 @@ public abstract class Message {
 
     abstract Builder setFieldMap(Map<String, Field> fieldMap);
 
+    abstract Builder setResourceReferenceFields(List<Field> resourceReferenceFields);
+
+    abstract Builder setPaginatedRepeatedField(@Nullable Field paginatedRepeatedField);
+
     abstract ImmutableList<Field> fields();
 
     abstract ImmutableMap<String, Integer> enumValues();
@@ -138,18 +155,21 @@ public abstract class Message {
     abstract Message autoBuild();
 
     public Message build() {
-      Message message = autoBuild();
-      if (!message.fields().isEmpty()) {
-        Map<String, Field> fieldMap =
-            fields().stream().collect(Collectors.toMap(f -> f.name(), f -> f));
-        // Handles string occurrences of a field's original name in a protobuf, such as
-        // in the method signature annotaiton.
-        fields().stream()
-            .filter(f -> f.hasFieldNameConflict())
-            .forEach(f -> fieldMap.put(f.originalName(), f));
-        message = message.toBuilder().setFieldMap(fieldMap).autoBuild();
-      }
-      return message;
+      // Index the fields once here, rather than scanning them in every composer that needs them.
+      // This is always done, so that indexes copied by toBuilder() never go stale.
+      List<Field> fields = fields();
+      Map<String, Field> fieldMap =
+          fields.stream().collect(Collectors.toMap(f -> f.name(), f -> f));
+      // Handles string occurrences of a field's original name in a protobuf, such as
+      // in the method signature annotaiton.
+      fields.stream()
+          .filter(f -> f.hasFieldNameConflict())
+          .forEach(f -> fieldMap.put(f.originalName(), f));
+      return setFieldMap(fieldMap)
+          .setResourceReferenceFields(
+              fields.stream().filter(f -> f.hasResourceReference()).collect(Collectors.toList()))
+          .setPaginatedRepeatedField(unwrapPaginatedRepeatedField(fields))
+          .autoBuild();
     }
   }
 }
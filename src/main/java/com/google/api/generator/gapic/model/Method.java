@@ -46,6 +46,11 @@ public abstract class Method {
   @Nullable
   public abstract String pageSizeFieldName();
 
+  // The repeated field in the output message that holds a paged method's results. Repeated fields
+  // are unwrapped to their element type. Null if the method is not paged.
+  @Nullable
+  public abstract Field pagedResultsField();
+
   public abstract boolean isDeprecated();
 
   @Nullable
@@ -129,6 +134,8 @@ public abstract class Method {
 
     public abstract Builder setPageSizeFieldName(String pagedFieldName);
 
+    public abstract Builder setPagedResultsField(Field pagedResultsField);
+
     public abstract Builder setIsDeprecated(boolean isDeprecated);
 
     public abstract Method build();
@@ -16,15 +16,8 @@ package com.google.api.generator.gapic.protoparser;
 
 import com.google.api.generator.gapic.model.GapicLanguageSettings;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.base.Strings;
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.Map;
 import java.util.Optional;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.SafeConstructor;
 
 public class GapicLanguageSettingsParser {
   private static final String YAML_KEY_LANGUAGE_SETTINGS = "language_settings";
@@ -40,25 +33,11 @@ public class GapicLanguageSettingsParser {
 
   @VisibleForTesting
   static Optional<GapicLanguageSettings> parse(String gapicYamlConfigFilePath) {
-    if (Strings.isNullOrEmpty(gapicYamlConfigFilePath)
-        || !(new File(gapicYamlConfigFilePath)).exists()) {
-      return Optional.empty();
-    }
-
-    String fileContents = null;
-
-    try {
-      fileContents = new String(Files.readAllBytes(Paths.get(gapicYamlConfigFilePath)));
-    } catch (IOException e) {
-      return Optional.empty();
-    }
-
-    Yaml yaml = new Yaml(new SafeConstructor());
-    Map<String, Object> yamlMap = yaml.load(fileContents);
-    return parseFromMap(yamlMap);
+    Optional<Map<String, Object>> yamlMapOpt = YamlConfigLoader.load(gapicYamlConfigFilePath);
+    return yamlMapOpt.isPresent() ? parseFromMap(yamlMapOpt.get()) : Optional.empty();
   }
 
-  private static Optional<GapicLanguageSettings> parseFromMap(Map<String, Object> yamlMap) {
+  static Optional<GapicLanguageSettings> parseFromMap(Map<String, Object> yamlMap) {
     if (!yamlMap.containsKey(YAML_KEY_LANGUAGE_SETTINGS)) {
       return Optional.empty();
     }
@@ -21,7 +21,7 @@ import com.google.api.generator.gapic.model.Field;
 import com.google.api.generator.gapic.model.HttpBindings;
 import com.google.api.generator.gapic.model.HttpBindings.HttpBinding;
 import com.google.api.generator.gapic.model.Message;
-import com.google.api.pathtemplate.PathTemplate;
+import com.google.api.generator.gapic.utils.HttpPathTemplate;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
@@ -33,7 +33,6 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class HttpRuleParser {
   private static final String ASTERISK = "*";
@@ -170,10 +169,8 @@ public class HttpRuleParser {
       return bindings;
     }
 
-    PathTemplate template = PathTemplate.create(pattern);
-    // Filter out any unbound variable like "$0, $1, etc.
-    bindings.addAll(
-        template.vars().stream().filter(s -> !s.contains("$")).collect(Collectors.toSet()));
+    // Only braced variables are bound. Bare wildcards like "*" are not collected at all.
+    bindings.addAll(HttpPathTemplate.parse(pattern).variableNames());
     return bindings;
   }
 
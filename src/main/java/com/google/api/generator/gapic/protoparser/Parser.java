@@ -21,10 +21,8 @@ import com.google.api.ResourceDescriptor;
 import com.google.api.ResourceProto;
 import com.google.api.generator.engine.ast.TypeNode;
 import com.google.api.generator.gapic.model.Field;
-import com.google.api.generator.gapic.model.GapicBatchingSettings;
 import com.google.api.generator.gapic.model.GapicContext;
 import com.google.api.generator.gapic.model.GapicLanguageSettings;
-import com.google.api.generator.gapic.model.GapicLroRetrySettings;
 import com.google.api.generator.gapic.model.GapicServiceConfig;
 import com.google.api.generator.gapic.model.HttpBindings;
 import com.google.api.generator.gapic.model.LongrunningOperation;
@@ -38,9 +36,12 @@ import com.google.api.generator.gapic.model.Transport;
 import com.google.api.generator.gapic.utils.ResourceNameConstants;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
 import com.google.longrunning.OperationInfo;
 import com.google.longrunning.OperationsProto;
 import com.google.protobuf.DescriptorProtos.FieldOptions;
@@ -68,9 +69,12 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.zip.Deflater;
 
 public class Parser {
   private static final String COMMA = ",";
@@ -79,6 +83,10 @@ public class Parser {
   private static final String DOT = ".";
   private static final String SLASH = "/";
 
+  // Service YAML rule selectors are comma-separated lists of fully-qualified method names.
+  private static final Splitter SELECTOR_SPLITTER =
+      Splitter.on(COMMA).trimResults().omitEmptyStrings();
+
   private static final ResourceName WILDCARD_RESOURCE_NAME =
       ResourceName.createWildcard("*", "com.google.api.wildcard.placeholder");
 
@@ -102,35 +110,37 @@ public class Parser {
   }
 
   public static GapicContext parse(CodeGeneratorRequest request) {
-    Optional<String> gapicYamlConfigPathOpt =
-        PluginArgumentParser.parseGapicYamlConfigPath(request);
-    Optional<List<GapicBatchingSettings>> batchingSettingsOpt =
-        BatchingSettingsConfigParser.parse(gapicYamlConfigPathOpt);
-    Optional<List<GapicLroRetrySettings>> lroRetrySettingsOpt =
-        GapicLroRetrySettingsParser.parse(gapicYamlConfigPathOpt);
-    Optional<GapicLanguageSettings> languageSettingsOpt =
-        GapicLanguageSettingsParser.parse(gapicYamlConfigPathOpt);
+    // Config files don't depend on the protos, so load them while the descriptors are parsed.
+    CompletableFuture<Optional<GapicServiceConfig>> serviceConfigFuture =
+        CompletableFuture.supplyAsync(() -> parseServiceConfig(request));
+    CompletableFuture<Optional<com.google.api.Service>> serviceYamlProtoFuture =
+        CompletableFuture.supplyAsync(
+            () -> {
+              Optional<String> serviceYamlConfigPathOpt =
+                  PluginArgumentParser.parseServiceYamlConfigPath(request);
+              return serviceYamlConfigPathOpt.isPresent()
+                  ? ServiceYamlParser.parse(serviceYamlConfigPathOpt.get())
+                  : Optional.empty();
+            });
     Optional<String> transportOpt = PluginArgumentParser.parseTransport(request);
+    int srcjarCompressionLevel = parseSrcjarCompressionLevel(request);
 
     boolean willGenerateMetadata = PluginArgumentParser.hasMetadataFlag(request);
-
-    Optional<String> serviceConfigPathOpt = PluginArgumentParser.parseJsonConfigPath(request);
-    String serviceConfigPath = serviceConfigPathOpt.isPresent() ? serviceConfigPathOpt.get() : null;
-    Optional<GapicServiceConfig> serviceConfigOpt = ServiceConfigParser.parse(serviceConfigPath);
-    if (serviceConfigOpt.isPresent()) {
-      GapicServiceConfig serviceConfig = serviceConfigOpt.get();
-      serviceConfig.setLroRetrySettings(lroRetrySettingsOpt);
-      serviceConfig.setBatchingSettings(batchingSettingsOpt);
-      serviceConfig.setLanguageSettings(languageSettingsOpt);
-      serviceConfigOpt = Optional.of(serviceConfig);
-    }
-
-    Optional<String> serviceYamlConfigPathOpt =
-        PluginArgumentParser.parseServiceYamlConfigPath(request);
-    Optional<com.google.api.Service> serviceYamlProtoOpt =
-        serviceYamlConfigPathOpt.isPresent()
-            ? ServiceYamlParser.parse(serviceYamlConfigPathOpt.get())
-            : Optional.empty();
+    boolean willGenerateLazyCallables = PluginArgumentParser.hasLazyCallablesFlag(request);
+    boolean willGenerateZeroCopyBytes = PluginArgumentParser.hasZeroCopyBytesFlag(request);
+    boolean willGeneratePrefetchingPagination =
+        PluginArgumentParser.hasPrefetchingPaginationFlag(request);
+    boolean willGenerateAsyncOverloads = PluginArgumentParser.hasAsyncOverloadsFlag(request);
+    boolean willGenerateMethodMetrics = PluginArgumentParser.hasMethodMetricsFlag(request);
+    boolean willGenerateCopyOnWriteSettings =
+        PluginArgumentParser.hasCopyOnWriteSettingsFlag(request);
+    boolean willGenerateSharedTestClient = PluginArgumentParser.hasSharedTestClientFlag(request);
+    // Lazily-created callables are built outside the constructor that wraps them with metrics.
+    Preconditions.checkArgument(
+        !(willGenerateMethodMetrics && willGenerateLazyCallables),
+        "The %s option cannot be used together with %s",
+        PluginArgumentParser.KEY_METHOD_METRICS,
+        PluginArgumentParser.KEY_LAZY_CALLABLES);
 
     // Collect the resource references seen in messages.
     Set<ResourceReference> outputResourceReferencesSeen = new HashSet<>();
@@ -142,6 +152,9 @@ public class Parser {
     Map<String, ResourceName> resourceNames = parseResourceNames(request);
     messages = updateResourceNamesInMessages(messages, resourceNames.values());
 
+    Optional<GapicServiceConfig> serviceConfigOpt = joinConfig(serviceConfigFuture);
+    Optional<com.google.api.Service> serviceYamlProtoOpt = joinConfig(serviceYamlProtoFuture);
+
     Set<ResourceName> outputArgResourceNames = new HashSet<>();
     List<Service> mixinServices = new ArrayList<>();
     Transport transport = Transport.parse(transportOpt.orElse(Transport.GRPC.toString()));
@@ -192,11 +205,67 @@ public class Parser {
         .setHelperResourceNames(outputArgResourceNames)
         .setServiceConfig(serviceConfigOpt.isPresent() ? serviceConfigOpt.get() : null)
         .setGapicMetadataEnabled(willGenerateMetadata)
+        .setLazyCallablesEnabled(willGenerateLazyCallables)
+        .setZeroCopyBytesEnabled(willGenerateZeroCopyBytes)
+        .setPrefetchingPaginationEnabled(willGeneratePrefetchingPagination)
+        .setAsyncOverloadsEnabled(willGenerateAsyncOverloads)
+        .setMethodMetricsEnabled(willGenerateMethodMetrics)
+        .setCopyOnWriteSettingsEnabled(willGenerateCopyOnWriteSettings)
+        .setSharedTestClientEnabled(willGenerateSharedTestClient)
+        .setSrcjarCompressionLevel(srcjarCompressionLevel)
         .setServiceYamlProto(serviceYamlProtoOpt.isPresent() ? serviceYamlProtoOpt.get() : null)
         .setTransport(transport)
         .build();
   }
 
+  private static int parseSrcjarCompressionLevel(CodeGeneratorRequest request) {
+    Optional<String> levelOpt = PluginArgumentParser.parseSrcjarCompressionLevel(request);
+    if (!levelOpt.isPresent()) {
+      return Deflater.DEFAULT_COMPRESSION;
+    }
+    Integer level = Ints.tryParse(levelOpt.get());
+    Preconditions.checkArgument(
+        level != null
+            && (level == Deflater.DEFAULT_COMPRESSION
+                || (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION)),
+        "Invalid %s value %s, expected %s to %s",
+        PluginArgumentParser.KEY_SRCJAR_COMPRESSION_LEVEL,
+        levelOpt.get(),
+        Deflater.NO_COMPRESSION,
+        Deflater.BEST_COMPRESSION);
+    return level;
+  }
+
+  private static Optional<GapicServiceConfig> parseServiceConfig(CodeGeneratorRequest request) {
+    // The gapic YAML is read and parsed once, and shared by all the parsers that need it.
+    Optional<Map<String, Object>> gapicYamlMapOpt =
+        YamlConfigLoader.load(PluginArgumentParser.parseGapicYamlConfigPath(request));
+    Optional<String> serviceConfigPathOpt = PluginArgumentParser.parseJsonConfigPath(request);
+    String serviceConfigPath = serviceConfigPathOpt.isPresent() ? serviceConfigPathOpt.get() : null;
+    Optional<GapicServiceConfig> serviceConfigOpt = ServiceConfigParser.parse(serviceConfigPath);
+    if (serviceConfigOpt.isPresent()) {
+      GapicServiceConfig serviceConfig = serviceConfigOpt.get();
+      serviceConfig.setLroRetrySettings(
+          gapicYamlMapOpt.flatMap(GapicLroRetrySettingsParser::parseFromMap));
+      serviceConfig.setBatchingSettings(
+          gapicYamlMapOpt.flatMap(BatchingSettingsConfigParser::parseFromMap));
+      serviceConfig.setLanguageSettings(
+          gapicYamlMapOpt.flatMap(GapicLanguageSettingsParser::parseFromMap));
+      serviceConfigOpt = Optional.of(serviceConfig);
+    }
+    return serviceConfigOpt;
+  }
+
+  private static <T> T joinConfig(CompletableFuture<T> configFuture) {
+    try {
+      return configFuture.join();
+    } catch (CompletionException e) {
+      // Surface config errors the same way as if they had been parsed on this thread.
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
   public static List<Service> parseServices(
       CodeGeneratorRequest request,
       Map<String, Message> messageTypes,
@@ -265,15 +334,13 @@ public class Parser {
         if (httpBindings == null) {
           continue;
         }
-        for (String rpcFullNameRaw : httpRule.getSelector().split(",")) {
-          String rpcFullName = rpcFullNameRaw.trim();
+        for (String rpcFullName : SELECTOR_SPLITTER.split(httpRule.getSelector())) {
           mixedInMethodsToHttpRules.put(rpcFullName, httpBindings);
         }
       }
       for (DocumentationRule docRule :
           serviceYamlProtoOpt.get().getDocumentation().getRulesList()) {
-        for (String rpcFullNameRaw : docRule.getSelector().split(",")) {
-          String rpcFullName = rpcFullNameRaw.trim();
+        for (String rpcFullName : SELECTOR_SPLITTER.split(docRule.getSelector())) {
           mixedInMethodsToDocs.put(rpcFullName, docRule.getDescription());
         }
       }
@@ -555,13 +622,12 @@ public class Parser {
   }
 
   private static boolean isMapType(Descriptor messageDescriptor) {
-    List<String> fieldNames =
-        messageDescriptor.getFields().stream().map(f -> f.getName()).collect(Collectors.toList());
+    List<FieldDescriptor> fields = messageDescriptor.getFields();
     // Ends in "Entry" and has exactly two fields, named "key" and "value".
     return messageDescriptor.getName().endsWith("Entry")
-        && fieldNames.size() == 2
-        && fieldNames.get(0).equals("key")
-        && fieldNames.get(1).equals("value");
+        && fields.size() == 2
+        && fields.get(0).getName().equals("key")
+        && fields.get(1).getName().equals("value");
   }
 
   /**
@@ -652,6 +718,13 @@ public class Parser {
                       serviceDescriptor.getName(),
                       protoMethod.getName());
 
+      String pageSizeFieldName = parsePageSizeFieldName(protoMethod, messageTypes, transport);
+      if (pageSizeFieldName != null) {
+        TypeNode outputType = TypeParser.parseType(protoMethod.getOutputType());
+        Message outputMessage = messageTypes.get(outputType.reference().fullName());
+        methodBuilder.setPagedResultsField(outputMessage.findAndUnwrapPaginatedRepeatedField());
+      }
+
       methods.add(
           methodBuilder
               .setName(protoMethod.getName())
@@ -670,41 +743,39 @@ public class Parser {
                       outputArgResourceNames))
               .setHttpBindings(httpBindings)
               .setIsBatching(isBatching)
-              .setPageSizeFieldName(parsePageSizeFieldName(protoMethod, messageTypes, transport))
+              .setPageSizeFieldName(pageSizeFieldName)
               .setIsDeprecated(isDeprecated)
               .build());
 
       // Any input type that has a resource reference will need a resource name helper class.
-      for (Field field : inputMessage.fields()) {
-        if (field.hasResourceReference()) {
-          String resourceTypeString = field.resourceReference().resourceTypeString();
-          ResourceName resourceName = null;
-          // Support older resource_references that specify only the final typename, e.g. FooBar
-          // versus example.com/FooBar.
-          if (resourceTypeString.indexOf(SLASH) < 0) {
-            Optional<String> actualResourceTypeNameOpt =
-                resourceNames.keySet().stream()
-                    .filter(k -> k.substring(k.lastIndexOf(SLASH) + 1).equals(resourceTypeString))
-                    .findFirst();
-            if (actualResourceTypeNameOpt.isPresent()) {
-              resourceName = resourceNames.get(actualResourceTypeNameOpt.get());
-            }
-          } else {
-            resourceName = resourceNames.get(resourceTypeString);
-          }
-
-          if (ResourceNameConstants.WILDCARD_PATTERN.equals(resourceTypeString)) {
-            resourceName = WILDCARD_RESOURCE_NAME;
-          } else {
-            Preconditions.checkNotNull(
-                resourceName,
-                String.format(
-                    "Resource name %s not found; parsing field %s in message %s in method %s",
-                    resourceTypeString, field.name(), inputMessage.name(), protoMethod.getName()));
+      for (Field field : inputMessage.resourceReferenceFields()) {
+        String resourceTypeString = field.resourceReference().resourceTypeString();
+        ResourceName resourceName = null;
+        // Support older resource_references that specify only the final typename, e.g. FooBar
+        // versus example.com/FooBar.
+        if (resourceTypeString.indexOf(SLASH) < 0) {
+          Optional<String> actualResourceTypeNameOpt =
+              resourceNames.keySet().stream()
+                  .filter(k -> k.substring(k.lastIndexOf(SLASH) + 1).equals(resourceTypeString))
+                  .findFirst();
+          if (actualResourceTypeNameOpt.isPresent()) {
+            resourceName = resourceNames.get(actualResourceTypeNameOpt.get());
           }
+        } else {
+          resourceName = resourceNames.get(resourceTypeString);
+        }
 
-          outputArgResourceNames.add(resourceName);
+        if (ResourceNameConstants.WILDCARD_PATTERN.equals(resourceTypeString)) {
+          resourceName = WILDCARD_RESOURCE_NAME;
+        } else {
+          Preconditions.checkNotNull(
+              resourceName,
+              String.format(
+                  "Resource name %s not found; parsing field %s in message %s in method %s",
+                  resourceTypeString, field.name(), inputMessage.name(), protoMethod.getName()));
         }
+
+        outputArgResourceNames.add(resourceName);
       }
     }
 
@@ -29,8 +29,16 @@ public class PluginArgumentParser {
   @VisibleForTesting static final String KEY_GRPC_SERVICE_CONFIG = "grpc-service-config";
   @VisibleForTesting static final String KEY_GAPIC_CONFIG = "gapic-config";
   @VisibleForTesting static final String KEY_METADATA = "metadata";
+  @VisibleForTesting static final String KEY_LAZY_CALLABLES = "lazy-callables";
+  @VisibleForTesting static final String KEY_ZERO_COPY_BYTES = "zero-copy-bytes";
+  @VisibleForTesting static final String KEY_PREFETCHING_PAGINATION = "prefetching-pagination";
+  @VisibleForTesting static final String KEY_ASYNC_OVERLOADS = "async-overloads";
+  @VisibleForTesting static final String KEY_METHOD_METRICS = "method-metrics";
+  @VisibleForTesting static final String KEY_COPY_ON_WRITE_SETTINGS = "copy-on-write-settings";
+  @VisibleForTesting static final String KEY_SHARED_TEST_CLIENT = "shared-test-client";
   @VisibleForTesting static final String KEY_SERVICE_YAML_CONFIG = "api-service-config";
   @VisibleForTesting static final String KEY_TRANSPORT = "transport";
+  @VisibleForTesting static final String KEY_SRCJAR_COMPRESSION_LEVEL = "srcjar-compression-level";
 
   private static final String JSON_FILE_ENDING = "grpc_service_config.json";
   private static final String GAPIC_YAML_FILE_ENDING = "gapic.yaml";
@@ -52,10 +60,42 @@ public class PluginArgumentParser {
     return parseConfigArgument(request.getParameter(), KEY_TRANSPORT);
   }
 
+  static Optional<String> parseSrcjarCompressionLevel(CodeGeneratorRequest request) {
+    return parseSrcjarCompressionLevel(request.getParameter());
+  }
+
   static boolean hasMetadataFlag(CodeGeneratorRequest request) {
     return hasMetadataFlag(request.getParameter());
   }
 
+  static boolean hasLazyCallablesFlag(CodeGeneratorRequest request) {
+    return hasLazyCallablesFlag(request.getParameter());
+  }
+
+  static boolean hasZeroCopyBytesFlag(CodeGeneratorRequest request) {
+    return hasZeroCopyBytesFlag(request.getParameter());
+  }
+
+  static boolean hasPrefetchingPaginationFlag(CodeGeneratorRequest request) {
+    return hasPrefetchingPaginationFlag(request.getParameter());
+  }
+
+  static boolean hasAsyncOverloadsFlag(CodeGeneratorRequest request) {
+    return hasAsyncOverloadsFlag(request.getParameter());
+  }
+
+  static boolean hasMethodMetricsFlag(CodeGeneratorRequest request) {
+    return hasMethodMetricsFlag(request.getParameter());
+  }
+
+  static boolean hasCopyOnWriteSettingsFlag(CodeGeneratorRequest request) {
+    return hasCopyOnWriteSettingsFlag(request.getParameter());
+  }
+
+  static boolean hasSharedTestClientFlag(CodeGeneratorRequest request) {
+    return hasSharedTestClientFlag(request.getParameter());
+  }
+
   /** Expects a comma-separated list of file paths. */
   @VisibleForTesting
   static Optional<String> parseJsonConfigPath(String pluginProtocArgument) {
@@ -73,6 +113,11 @@ public class PluginArgumentParser {
         pluginProtocArgument, KEY_SERVICE_YAML_CONFIG, SERVICE_YAML_FILE_ENDING);
   }
 
+  @VisibleForTesting
+  static Optional<String> parseSrcjarCompressionLevel(String pluginProtocArgument) {
+    return parseConfigArgument(pluginProtocArgument, KEY_SRCJAR_COMPRESSION_LEVEL);
+  }
+
   @VisibleForTesting
   private static Optional<String> parseConfigArgument(String pluginProtocArgument, String key) {
     if (Strings.isNullOrEmpty(pluginProtocArgument)) {
@@ -93,6 +138,48 @@ public class PluginArgumentParser {
     return Arrays.stream(pluginProtocArgument.split(COMMA)).anyMatch(s -> s.equals(KEY_METADATA));
   }
 
+  @VisibleForTesting
+  static boolean hasLazyCallablesFlag(String pluginProtocArgument) {
+    return Arrays.stream(pluginProtocArgument.split(COMMA))
+        .anyMatch(s -> s.equals(KEY_LAZY_CALLABLES));
+  }
+
+  @VisibleForTesting
+  static boolean hasZeroCopyBytesFlag(String pluginProtocArgument) {
+    return Arrays.stream(pluginProtocArgument.split(COMMA))
+        .anyMatch(s -> s.equals(KEY_ZERO_COPY_BYTES));
+  }
+
+  @VisibleForTesting
+  static boolean hasPrefetchingPaginationFlag(String pluginProtocArgument) {
+    return Arrays.stream(pluginProtocArgument.split(COMMA))
+        .anyMatch(s -> s.equals(KEY_PREFETCHING_PAGINATION));
+  }
+
+  @VisibleForTesting
+  static boolean hasAsyncOverloadsFlag(String pluginProtocArgument) {
+    return Arrays.stream(pluginProtocArgument.split(COMMA))
+        .anyMatch(s -> s.equals(KEY_ASYNC_OVERLOADS));
+  }
+
+  @VisibleForTesting
+  static boolean hasMethodMetricsFlag(String pluginProtocArgument) {
+    return Arrays.stream(pluginProtocArgument.split(COMMA))
+        .anyMatch(s -> s.equals(KEY_METHOD_METRICS));
+  }
+
+  @VisibleForTesting
+  static boolean hasCopyOnWriteSettingsFlag(String pluginProtocArgument) {
+    return Arrays.stream(pluginProtocArgument.split(COMMA))
+        .anyMatch(s -> s.equals(KEY_COPY_ON_WRITE_SETTINGS));
+  }
+
+  @VisibleForTesting
+  static boolean hasSharedTestClientFlag(String pluginProtocArgument) {
+    return Arrays.stream(pluginProtocArgument.split(COMMA))
+        .anyMatch(s -> s.equals(KEY_SHARED_TEST_CLIENT));
+  }
+
   private static Optional<String> parseFileArgument(
       String pluginProtocArgument, String key, String fileEnding) {
     if (Strings.isNullOrEmpty(pluginProtocArgument)) {
@@ -14,36 +14,21 @@
 
 package com.google.api.generator.gapic.protoparser;
 
-import com.google.common.base.Strings;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.util.JsonFormat;
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.SafeConstructor;
 
 public class ServiceYamlParser {
   public static Optional<com.google.api.Service> parse(String serviceYamlFilePath) {
-    if (Strings.isNullOrEmpty(serviceYamlFilePath) || !(new File(serviceYamlFilePath)).exists()) {
-      return Optional.empty();
-    }
-
-    String fileContents = null;
-    try {
-      fileContents = new String(Files.readAllBytes(Paths.get(serviceYamlFilePath)));
-    } catch (IOException e) {
-      return Optional.empty();
-    }
+    Optional<Map<String, Object>> yamlMapOpt = YamlConfigLoader.load(serviceYamlFilePath);
+    return yamlMapOpt.isPresent() ? parseFromMap(yamlMapOpt.get()) : Optional.empty();
+  }
 
-    Yaml yaml = new Yaml(new SafeConstructor());
-    Map<String, Object> yamlMap = yaml.load(fileContents);
+  static Optional<com.google.api.Service> parseFromMap(Map<String, Object> yamlMap) {
     Gson gson = new GsonBuilder().setPrettyPrinting().setLenient().create();
     String jsonString = gson.toJson(yamlMap, LinkedHashMap.class);
     // Use the full name instead of an import, to avoid reader confusion with this and
@@ -0,0 +1,50 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.api.generator.gapic.protoparser;
+
+import com.google.common.base.Strings;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+// Reads and parses YAML config files, so that the result can be shared by all the parsers that
+// need a view of the same file.
+public class YamlConfigLoader {
+  public static Optional<Map<String, Object>> load(Optional<String> yamlFilePathOpt) {
+    return yamlFilePathOpt.isPresent() ? load(yamlFilePathOpt.get()) : Optional.empty();
+  }
+
+  public static Optional<Map<String, Object>> load(String yamlFilePath) {
+    if (Strings.isNullOrEmpty(yamlFilePath) || !(new File(yamlFilePath)).exists()) {
+      return Optional.empty();
+    }
+
+    String fileContents = null;
+    try {
+      fileContents = new String(Files.readAllBytes(Paths.get(yamlFilePath)));
+    } catch (IOException e) {
+      return Optional.empty();
+    }
+
+    Yaml yaml = new Yaml(new SafeConstructor());
+    Map<String, Object> yamlMap = yaml.load(fileContents);
+    return Optional.ofNullable(yamlMap);
+  }
+}
@@ -21,47 +21,91 @@ import com.google.api.generator.gapic.model.GapicClass;
 import com.google.api.generator.gapic.model.GapicContext;
 import com.google.api.generator.gapic.model.GapicPackageInfo;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.MessageOrBuilder;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
 import com.google.protobuf.util.JsonFormat;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipOutputStream;
 
+/**
+ * Writes the generated code into three srcjars: main sources, resource name helpers, and tests.
+ *
+ * <p>The generated code is already formatted, so the srcjars can be compiled as they are. Their
+ * bytes only depend on the generated code, so that unchanged code hits build caches.
+ */
 public class Writer {
+  // Sync'd to the srcjar outputs of _java_gapic_postprocess_srcjar in java_gapic.bzl.
+  static final String RESOURCE_NAME_SRCJAR_SUFFIX = "-resource-name";
+  static final String TEST_SRCJAR_SUFFIX = "-test";
+
+  private static final String SRCJAR_EXTENSION = ".srcjar";
+  private static final String PLACEHOLDER_FILE_NAME = "PlaceholderFile.java";
+  // Use a fixed entry time, the same one Bazel uses for its own jars, so that unchanged code always
+  // produces byte-identical srcjars. Zip entries store local times, so this is built in the local
+  // time zone.
+  private static final long ENTRY_TIME =
+      new GregorianCalendar(2010, Calendar.JANUARY, 1, 0, 0, 0).getTimeInMillis();
+
   static class GapicWriterException extends RuntimeException {
     public GapicWriterException(String errorMessage) {
       super(errorMessage);
     }
   }
 
+  /**
+   * Writes the main srcjar to {@code outputFilePath}. The resource name and test srcjars are
+   * written next to it, with {@link #RESOURCE_NAME_SRCJAR_SUFFIX} and {@link #TEST_SRCJAR_SUFFIX}
+   * appended to the file name.
+   */
   public static CodeGeneratorResponse write(
       GapicContext context,
       List<GapicClass> clazzes,
       GapicPackageInfo gapicPackageInfo,
       String outputFilePath) {
-    ByteString.Output output = ByteString.newOutput();
+    int compressionLevel = context.srcjarCompressionLevel();
+    SrcjarWriter mainSrcjar = new SrcjarWriter(compressionLevel);
+    SrcjarWriter resourceNameSrcjar = new SrcjarWriter(compressionLevel);
+    SrcjarWriter testSrcjar = new SrcjarWriter(compressionLevel);
     JavaWriterVisitor codeWriter = new JavaWriterVisitor();
-    JarOutputStream jos = null;
-    try {
-      jos = new JarOutputStream(output);
-    } catch (IOException e) {
-      throw new GapicWriterException(e.getMessage());
-    }
 
-    for (GapicClass gapicClazz : clazzes) {
+    // Sort the classes, so that the entry order does not depend on the order of composition.
+    List<GapicClass> sortedClazzes =
+        clazzes.stream()
+            .sorted(
+                Comparator.comparing((GapicClass c) -> c.classDefinition().packageString())
+                    .thenComparing(c -> c.classDefinition().classIdentifier().name()))
+            .collect(Collectors.toList());
+    for (GapicClass gapicClazz : sortedClazzes) {
       ClassDefinition clazz = gapicClazz.classDefinition();
 
       clazz.accept(codeWriter);
       String code = codeWriter.write();
       codeWriter.clear();
 
-      String path = getPath(clazz.packageString(), clazz.classIdentifier().name());
       String className = clazz.classIdentifier().name();
-      JarEntry jarEntry = new JarEntry(String.format("%s/%s.java", path, className));
+      SrcjarWriter srcjar = mainSrcjar;
+      // Resource name helpers go into the protobuf package.
+      if (className.endsWith("Name")) {
+        srcjar = resourceNameSrcjar;
+      } else if (className.startsWith("Mock") || className.endsWith("Test")) {
+        srcjar = testSrcjar;
+      }
+      String path = getPath(clazz.packageString());
       try {
-        jos.putNextEntry(jarEntry);
-        jos.write(code.getBytes());
+        srcjar.write(String.format("%s/%s.java", path, className), code);
       } catch (IOException e) {
         throw new GapicWriterException(
             String.format(
@@ -76,54 +120,140 @@ public class Writer {
     String code = codeWriter.write();
     codeWriter.clear();
 
-    String path = "src/main/java/" + packageInfo.pakkage().replaceAll("\\.", "/");
-    JarEntry jarEntry = new JarEntry(String.format("%s/package-info.java", path));
+    String path = getPath(packageInfo.pakkage());
     try {
-      jos.putNextEntry(jarEntry);
-      jos.write(code.getBytes());
+      mainSrcjar.write(String.format("%s/package-info.java", path), code);
     } catch (IOException e) {
       throw new GapicWriterException("Could not write code for package-info.java");
     }
 
     if (context.gapicMetadataEnabled()) {
       // Write the mdatadata file.
-      jarEntry = new JarEntry(String.format("%s/gapic_metadata.json", path));
       try {
-        jos.putNextEntry(jarEntry);
-        jos.write(JsonFormat.printer().print(context.gapicMetadata()).getBytes());
+        mainSrcjar.writeJson(
+            String.format("%s/gapic_metadata.json", path), context.gapicMetadata());
       } catch (IOException e) {
         throw new GapicWriterException("Could not write gapic_metadata.json");
       }
     }
 
+    // Some APIs don't have resource name helpers, like BigQuery v2. Add an empty file so that the
+    // resource name library can still be built. These files are deleted during the final packaging
+    // process (see java_gapic_pkg.bzl).
+    if (!resourceNameSrcjar.hasEntries()) {
+      try {
+        resourceNameSrcjar.write(PLACEHOLDER_FILE_NAME, "");
+      } catch (IOException e) {
+        throw new GapicWriterException("Could not write " + PLACEHOLDER_FILE_NAME);
+      }
+    }
+
+    CodeGeneratorResponse.Builder response = CodeGeneratorResponse.newBuilder();
+    response.setSupportedFeatures(CodeGeneratorResponse.Feature.FEATURE_PROTO3_OPTIONAL_VALUE);
+    addSrcjarFile(response, getSrcjarPath(outputFilePath, ""), mainSrcjar);
+    addSrcjarFile(
+        response, getSrcjarPath(outputFilePath, RESOURCE_NAME_SRCJAR_SUFFIX), resourceNameSrcjar);
+    addSrcjarFile(response, getSrcjarPath(outputFilePath, TEST_SRCJAR_SUFFIX), testSrcjar);
+    return response.build();
+  }
+
+  private static void addSrcjarFile(
+      CodeGeneratorResponse.Builder response, String srcjarPath, SrcjarWriter srcjar) {
     try {
-      jos.finish();
-      jos.flush();
+      response.addFileBuilder().setName(srcjarPath).setContentBytes(srcjar.finish());
     } catch (IOException e) {
       throw new GapicWriterException(e.getMessage());
     }
+  }
 
-    CodeGeneratorResponse.Builder response = CodeGeneratorResponse.newBuilder();
-    response
-        .setSupportedFeatures(CodeGeneratorResponse.Feature.FEATURE_PROTO3_OPTIONAL_VALUE)
-        .addFileBuilder()
-        .setName(outputFilePath)
-        .setContentBytes(output.toByteString());
-    return response.build();
+  private static String getSrcjarPath(String outputFilePath, String suffix) {
+    String basePath =
+        outputFilePath.endsWith(SRCJAR_EXTENSION)
+            ? outputFilePath.substring(0, outputFilePath.length() - SRCJAR_EXTENSION.length())
+            : outputFilePath;
+    return basePath + suffix + SRCJAR_EXTENSION;
+  }
+
+  private static String getPath(String pakkage) {
+    return pakkage.replaceAll("\\.", "/");
   }
 
-  private static String getPath(String pakkage, String className) {
-    String path = pakkage.replaceAll("\\.", "/");
-    if (className.startsWith("Mock") || className.endsWith("Test")) {
-      path = "src/test/java/" + path;
-    } else {
-      path = "src/main/java/" + path;
+  /**
+   * Writes the entries of a single srcjar into memory. No manifest is written. With {@link
+   * Deflater#NO_COMPRESSION}, entries are stored as they are, which is the fastest to write.
+   */
+  private static class SrcjarWriter {
+    private final ByteString.Output output = ByteString.newOutput();
+    private final JarOutputStream jos;
+    private final boolean isStored;
+    private boolean hasEntries;
+
+    SrcjarWriter(int compressionLevel) {
+      try {
+        jos = new JarOutputStream(output);
+      } catch (IOException e) {
+        throw new GapicWriterException(e.getMessage());
+      }
+      isStored = compressionLevel == Deflater.NO_COMPRESSION;
+      if (isStored) {
+        jos.setMethod(ZipOutputStream.STORED);
+      } else {
+        jos.setLevel(compressionLevel);
+      }
+    }
+
+    boolean hasEntries() {
+      return hasEntries;
+    }
+
+    void write(String entryPath, String code) throws IOException {
+      write(entryPath, code.getBytes(StandardCharsets.UTF_8));
     }
 
-    // Resource name helpers go into the protobuf package. Denote this with "proto/src/main/*".
-    if (className.endsWith("Name")) {
-      path = "proto/" + path;
+    void write(String entryPath, byte[] content) throws IOException {
+      JarEntry jarEntry = new JarEntry(entryPath);
+      if (isStored) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        jarEntry.setSize(content.length);
+        jarEntry.setCompressedSize(content.length);
+        jarEntry.setCrc(crc.getValue());
+      }
+      putNextEntry(jarEntry);
+      jos.write(content);
+    }
+
+    void writeJson(String entryPath, MessageOrBuilder message) throws IOException {
+      // Stored entries need their size and checksum up front, so only those are printed to bytes
+      // first.
+      if (isStored) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        printJson(message, content);
+        write(entryPath, content.toByteArray());
+        return;
+      }
+      putNextEntry(new JarEntry(entryPath));
+      printJson(message, jos);
+    }
+
+    private void putNextEntry(JarEntry jarEntry) throws IOException {
+      jarEntry.setTime(ENTRY_TIME);
+      jos.putNextEntry(jarEntry);
+      hasEntries = true;
+    }
+
+    private static void printJson(MessageOrBuilder message, OutputStream output)
+        throws IOException {
+      // Flush rather than close, since closing would also close the srcjar stream.
+      OutputStreamWriter writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+      JsonFormat.printer().appendTo(message, writer);
+      writer.flush();
+    }
+
+    ByteString finish() throws IOException {
+      jos.finish();
+      jos.flush();
+      return output.toByteString();
     }
-    return path;
   }
 }
@@ -0,0 +1,119 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.api.generator.gapic.utils;
+
+import com.google.api.pathtemplate.PathTemplate;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import java.util.function.Function;
+
+/**
+ * A google.api.http path pattern split into its variable names and the literal text around them.
+ *
+ * <p>For example, "/v1/{name=projects/*}/books:search" has the variable name "name" and the
+ * literals "/v1/{" and "=projects/*}/books:search". The brace structure is checked while scanning,
+ * and each new pattern is also validated once by PathTemplate, as the generated client would.
+ */
+public final class HttpPathTemplate {
+  private static final char VARIABLE_START = '{';
+  private static final char VARIABLE_END = '}';
+  private static final char VARIABLE_PATTERN_START = '=';
+
+  // Mixin rules and additional bindings share patterns, and every method of a REST client reads its
+  // pattern again when composing, so parsed templates are memoized.
+  private static final long MAX_CACHED_TEMPLATES = 10_000;
+  private static final Cache<String, HttpPathTemplate> TEMPLATE_CACHE =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_TEMPLATES).build();
+
+  private final ImmutableList<String> variableNames;
+  // Always holds one more element than variableNames. The pattern is the concatenation of
+  // literals[0], variableNames[0], literals[1], ..., variableNames[n - 1], literals[n].
+  private final ImmutableList<String> literals;
+
+  private HttpPathTemplate(ImmutableList<String> variableNames, ImmutableList<String> literals) {
+    this.variableNames = variableNames;
+    this.literals = literals;
+  }
+
+  public static HttpPathTemplate parse(String pattern) {
+    HttpPathTemplate template = TEMPLATE_CACHE.getIfPresent(pattern);
+    if (template == null) {
+      template = scan(pattern);
+      // Throws a ValidationException on invalid segments, such as more than one "**" wildcard.
+      PathTemplate.create(pattern);
+      TEMPLATE_CACHE.put(pattern, template);
+    }
+    return template;
+  }
+
+  /** Returns the variable names, which may be dotted field paths, in order of appearance. */
+  public ImmutableList<String> variableNames() {
+    return variableNames;
+  }
+
+  public ImmutableList<String> literals() {
+    return literals;
+  }
+
+  /** Returns the pattern with each variable name replaced by the result of the given function. */
+  public String format(Function<String, String> variableNameMapper) {
+    StringBuilder sb = new StringBuilder(literals.get(0));
+    for (int i = 0; i < variableNames.size(); i++) {
+      sb.append(variableNameMapper.apply(variableNames.get(i))).append(literals.get(i + 1));
+    }
+    return sb.toString();
+  }
+
+  private static HttpPathTemplate scan(String pattern) {
+    ImmutableList.Builder<String> variableNames = ImmutableList.builder();
+    ImmutableList.Builder<String> literals = ImmutableList.builder();
+    int literalStart = 0;
+    int variableStart = pattern.indexOf(VARIABLE_START);
+    while (variableStart >= 0) {
+      int nameStart = variableStart + 1;
+      int variableEnd = pattern.indexOf(VARIABLE_END, nameStart);
+      Preconditions.checkArgument(
+          variableEnd >= 0,
+          "Unclosed variable at index %s in path template %s",
+          variableStart,
+          pattern);
+      int nextVariableStart = pattern.indexOf(VARIABLE_START, nameStart);
+      Preconditions.checkArgument(
+          nextVariableStart < 0 || nextVariableStart > variableEnd,
+          "Nested variable at index %s in path template %s",
+          nextVariableStart,
+          pattern);
+
+      int nameEnd = nameStart;
+      while (nameEnd < variableEnd && pattern.charAt(nameEnd) != VARIABLE_PATTERN_START) {
+        nameEnd++;
+      }
+      Preconditions.checkArgument(
+          nameEnd > nameStart,
+          "Empty variable name at index %s in path template %s",
+          variableStart,
+          pattern);
+
+      literals.add(pattern.substring(literalStart, nameStart));
+      variableNames.add(pattern.substring(nameStart, nameEnd));
+      literalStart = nameEnd;
+      variableStart = nextVariableStart;
+    }
+    literals.add(pattern.substring(literalStart));
+    return new HttpPathTemplate(variableNames.build(), literals.build());
+  }
+}
@@ -14,29 +14,131 @@
 
 package com.google.api.generator.gapic.utils;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ascii;
 import com.google.common.base.CaseFormat;
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.stream.IntStream;
 
 public class JavaStyle {
   private static final String UNDERSCORE = "_";
 
+  // The same field, method and resource names are converted many times over while composing an
+  // API, so conversions are memoized. The bound keeps long-running callers from growing these
+  // without limit.
+  private static final long MAX_CACHED_NAMES = 10_000;
+  private static final Cache<String, String> LOWER_CAMEL_CASE_CACHE = createCache();
+  private static final Cache<String, String> UPPER_CAMEL_CASE_CACHE = createCache();
+  private static final Cache<String, String> UPPER_SNAKE_CASE_CACHE = createCache();
+
   public static String toLowerCamelCase(String s) {
     if (Strings.isNullOrEmpty(s)) {
       return s;
     }
+    String result = LOWER_CAMEL_CASE_CACHE.getIfPresent(s);
+    if (result == null) {
+      result = toCamelCase(s, false);
+      LOWER_CAMEL_CASE_CACHE.put(s, result);
+    }
+    return result;
+  }
 
-    s = s.replace('-', '_');
+  public static String toUpperCamelCase(String s) {
+    if (Strings.isNullOrEmpty(s)) {
+      return s;
+    }
+    String result = UPPER_CAMEL_CASE_CACHE.getIfPresent(s);
+    if (result == null) {
+      result = toCamelCase(s, true);
+      UPPER_CAMEL_CASE_CACHE.put(s, result);
+    }
+    return result;
+  }
 
-    if (s.indexOf(UNDERSCORE) >= 0) {
-      s = CaseFormat.LOWER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, s);
+  public static String toUpperSnakeCase(String s) {
+    if (s == null) {
+      return toUpperSnakeCaseWithCaseFormat(s);
+    }
+    String result = UPPER_SNAKE_CASE_CACHE.getIfPresent(s);
+    if (result == null) {
+      result = toUpperSnakeCaseFromUpperCamel(toUpperCamelCase(s));
+      UPPER_SNAKE_CASE_CACHE.put(s, result);
     }
+    return result;
+  }
 
-    return capitalizeLettersAfterDigits(
-        String.format("%s%s", s.substring(0, 1).toLowerCase(), s.substring(1)));
+  /**
+   * Converts a non-empty string to camel case in a single pass over its characters. Non-ASCII
+   * strings, whose case mappings may change their length, use the CaseFormat-based conversion.
+   */
+  private static String toCamelCase(String s, boolean isUpperCamel) {
+    if (!CharMatcher.ascii().matchesAllOf(s)) {
+      return toCamelCaseWithCaseFormat(s, isUpperCamel);
+    }
+
+    char[] chars = new char[s.length()];
+    int length = 0;
+    if (s.indexOf('_') < 0 && s.indexOf('-') < 0) {
+      s.getChars(0, s.length(), chars, 0);
+      length = s.length();
+    } else {
+      // Same as CaseFormat.LOWER_UNDERSCORE to UPPER_CAMEL: capitalize the first letter of each
+      // word and lowercase the rest, dropping the separators.
+      boolean isWordStart = true;
+      for (int i = 0; i < s.length(); i++) {
+        char c = s.charAt(i);
+        if (c == '_' || c == '-') {
+          isWordStart = true;
+          continue;
+        }
+        chars[length++] = isWordStart ? Ascii.toUpperCase(c) : Ascii.toLowerCase(c);
+        isWordStart = false;
+      }
+      if (length == 0) {
+        // Only separators. Keep the original behavior, which fails on the empty result.
+        return toCamelCaseWithCaseFormat(s, isUpperCamel);
+      }
+    }
+
+    chars[0] = isUpperCamel ? Ascii.toUpperCase(chars[0]) : Ascii.toLowerCase(chars[0]);
+    // Capitalize letters after digits.
+    for (int i = 1; i < length; i++) {
+      if (isAsciiDigit(chars[i - 1])) {
+        chars[i] = Ascii.toUpperCase(chars[i]);
+      }
+    }
+    return new String(chars, 0, length);
   }
 
-  public static String toUpperCamelCase(String s) {
+  // Same as CaseFormat.UPPER_CAMEL to UPPER_UNDERSCORE.
+  private static String toUpperSnakeCaseFromUpperCamel(String s) {
+    if (!CharMatcher.ascii().matchesAllOf(s)) {
+      return CaseFormat.UPPER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, s);
+    }
+    StringBuilder sb = new StringBuilder(s.length() + 4);
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (i > 0 && Ascii.isUpperCase(c)) {
+        sb.append('_');
+      }
+      sb.append(Ascii.toUpperCase(c));
+    }
+    return sb.toString();
+  }
+
+  private static boolean isAsciiDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static Cache<String, String> createCache() {
+    return CacheBuilder.newBuilder().maximumSize(MAX_CACHED_NAMES).build();
+  }
+
+  @VisibleForTesting
+  static String toCamelCaseWithCaseFormat(String s, boolean isUpperCamel) {
     if (Strings.isNullOrEmpty(s)) {
       return s;
     }
@@ -46,13 +148,16 @@ public class JavaStyle {
     if (s.indexOf(UNDERSCORE) >= 0) {
       s = CaseFormat.LOWER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, s);
     }
-    return capitalizeLettersAfterDigits(
-        String.format("%s%s", s.substring(0, 1).toUpperCase(), s.substring(1)));
+
+    String firstLetter =
+        isUpperCamel ? s.substring(0, 1).toUpperCase() : s.substring(0, 1).toLowerCase();
+    return capitalizeLettersAfterDigits(String.format("%s%s", firstLetter, s.substring(1)));
   }
 
-  public static String toUpperSnakeCase(String s) {
-    String result = CaseFormat.UPPER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, toUpperCamelCase(s));
-    return result;
+  @VisibleForTesting
+  static String toUpperSnakeCaseWithCaseFormat(String s) {
+    return CaseFormat.UPPER_CAMEL.to(
+        CaseFormat.UPPER_UNDERSCORE, toCamelCaseWithCaseFormat(s, true));
   }
 
   private static String capitalizeLettersAfterDigits(String s) {
@@ -111,6 +111,15 @@ public class ImportWriterVisitorTest {
     assertEquals("", writerVisitor.write());
   }
 
+  @Test
+  public void collidesWithImport_sameShortNameDifferentPackage() {
+    TypeNode.withReference(ConcreteReference.withClazz(List.class)).accept(writerVisitor);
+
+    assertThat(writerVisitor.collidesWithImport("java.util", "List")).isFalse();
+    assertThat(writerVisitor.collidesWithImport("java.awt", "List")).isTrue();
+    assertThat(writerVisitor.collidesWithImport("java.awt", "Map")).isFalse();
+  }
+
   @Test
   public void writeNewObjectExprImports_basic() {
     // [Constructing] `new ArrayList<>()`
@@ -641,6 +641,50 @@ public class JavaWriterVisitorTest {
     assertEquals(expected, writerVisitor.write());
   }
 
+  @Test
+  public void writeJavaDocComment_repeatedComment() {
+    JavaDocComment javaDocComment =
+        JavaDocComment.builder()
+            .addComment("Deletes a shelf.\nReturns NOT_FOUND if the shelf does not exist.")
+            .addParam("name", "The name of the shelf to delete.")
+            .build();
+    String expected =
+        LineFormatter.lines(
+            "/**\n",
+            "* Deletes a shelf.\n",
+            "* Returns NOT_FOUND if the shelf does not exist.\n",
+            "* @param name The name of the shelf to delete.\n",
+            "*/\n");
+    javaDocComment.accept(writerVisitor);
+    assertEquals(expected, writerVisitor.write());
+
+    // Rendering the same comment again yields identical output.
+    writerVisitor.clear();
+    javaDocComment.accept(writerVisitor);
+    assertEquals(expected, writerVisitor.write());
+  }
+
+  @Test
+  public void splitLines_matchesRegexSplit() {
+    List<String> comments =
+        Arrays.asList(
+            "",
+            "one line",
+            "first\nsecond",
+            "first\r\nsecond",
+            "\nleading newline",
+            "trailing newlines\n\n",
+            "\n",
+            "\r\n\r\n",
+            "carriage\rreturn",
+            "blank\n\nline\r\n");
+    for (String comment : comments) {
+      assertThat(JavaWriterVisitor.splitLines(comment))
+          .containsExactlyElementsIn(comment.split("\\r?\\n"))
+          .inOrder();
+    }
+  }
+
   @Test
   public void writeTernaryExpr_basic() {
     Variable variable = Variable.builder().setName("x").setType(TypeNode.INT).build();
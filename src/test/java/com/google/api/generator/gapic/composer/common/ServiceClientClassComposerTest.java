@@ -15,14 +15,26 @@
 package com.google.api.generator.gapic.composer.common;
 
 import static com.google.api.generator.test.framework.Assert.assertCodeEquals;
+import static com.google.common.truth.Truth.assertThat;
 
+import com.google.api.generator.engine.ast.MethodDefinition;
+import com.google.api.generator.engine.ast.TypeNode;
 import com.google.api.generator.engine.writer.JavaWriterVisitor;
+import com.google.api.generator.gapic.composer.store.TypeStore;
 import com.google.api.generator.gapic.model.GapicClass;
 import com.google.api.generator.gapic.model.GapicContext;
+import com.google.api.generator.gapic.model.Message;
+import com.google.api.generator.gapic.model.Method;
+import com.google.api.generator.gapic.model.MethodArgument;
 import com.google.api.generator.gapic.model.Service;
 import com.google.api.generator.test.framework.Utils;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.Test;
 
 public class ServiceClientClassComposerTest {
@@ -39,6 +51,24 @@ public class ServiceClientClassComposerTest {
     assertCodeEquals(goldenFilePath, visitor.write());
   }
 
+  @Test
+  public void generateServiceClasses_prefetchingPagination() {
+    GapicContext context =
+        TestProtoLoader.instance().parseShowcaseEcho().toBuilder()
+            .setPrefetchingPaginationEnabled(true)
+            .build();
+    Service echoProtoService = context.services().get(0);
+    GapicClass clazz = ServiceClientClassComposer.instance().generate(context, echoProtoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(
+        this.getClass(), "EchoClientPrefetchingPagination.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(Utils.getGoldenDir(this.getClass()), "EchoClientPrefetchingPagination.golden");
+    assertCodeEquals(goldenFilePath, visitor.write());
+  }
+
   @Test
   public void generateServiceClasses_deprecated() {
     GapicContext context = TestProtoLoader.instance().parseDeprecatedService();
@@ -53,6 +83,69 @@ public class ServiceClientClassComposerTest {
     assertCodeEquals(goldenFilePath, visitor.write());
   }
 
+  @Test
+  public void generateServiceClasses_asyncOverloads() {
+    GapicContext context =
+        TestProtoLoader.instance().parseDeprecatedService().toBuilder()
+            .setAsyncOverloadsEnabled(true)
+            .build();
+    Service protoService = context.services().get(0);
+    GapicClass clazz = ServiceClientClassComposer.instance().generate(context, protoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(
+        this.getClass(), "DeprecatedServiceClientAsyncOverloads.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(
+            Utils.getGoldenDir(this.getClass()), "DeprecatedServiceClientAsyncOverloads.golden");
+    assertCodeEquals(goldenFilePath, visitor.write());
+  }
+
+  @Test
+  public void generateServiceClasses_echoAsyncOverloads() {
+    GapicContext context =
+        TestProtoLoader.instance().parseShowcaseEcho().toBuilder()
+            .setAsyncOverloadsEnabled(true)
+            .build();
+    Service echoProtoService = context.services().get(0);
+    GapicClass clazz = ServiceClientClassComposer.instance().generate(context, echoProtoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(this.getClass(), "EchoClientAsyncOverloads.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(Utils.getGoldenDir(this.getClass()), "EchoClientAsyncOverloads.golden");
+    assertCodeEquals(goldenFilePath, visitor.write());
+  }
+
+  @Test
+  public void generateServiceClasses_asyncOverloadsSkipConflictingNames() {
+    GapicContext context =
+        TestProtoLoader.instance().parseShowcaseEcho().toBuilder()
+            .setAsyncOverloadsEnabled(true)
+            .build();
+    Service echoProtoService = context.services().get(0);
+    Method blockMethod =
+        echoProtoService.methods().stream()
+            .filter(m -> m.name().equals("Block"))
+            .findFirst()
+            .get();
+    List<Method> methods = new ArrayList<>(echoProtoService.methods());
+    methods.add(blockMethod.toBuilder().setName("BlockAsync").build());
+    Service service = echoProtoService.toBuilder().setMethods(methods).build();
+    GapicClass clazz = ServiceClientClassComposer.instance().generate(context, service);
+
+    // The BlockAsync RPC owns the blockAsync name, so Block gets no async overload.
+    List<String> methodNames =
+        clazz.classDefinition().methods().stream()
+            .map(m -> m.methodIdentifier().name())
+            .collect(Collectors.toList());
+    assertThat(Collections.frequency(methodNames, "blockAsync")).isEqualTo(1);
+    assertThat(methodNames).contains("blockAsyncCallable");
+    assertThat(methodNames).contains("collideNameAsync");
+  }
+
   @Test
   public void generateServiceClasses_methodSignatureHasNestedFields() {
     GapicContext context = TestProtoLoader.instance().parseShowcaseIdentity();
@@ -78,4 +171,58 @@ public class ServiceClientClassComposerTest {
     Path goldenFilePath = Paths.get(Utils.getGoldenDir(this.getClass()), "BookshopClient.golden");
     assertCodeEquals(goldenFilePath, visitor.write());
   }
+
+  @Test
+  public void createZeroCopyBytesMethodVariants_bytesArgument() {
+    GapicContext context = TestProtoLoader.instance().parseShowcaseTesting();
+    Service protoService = context.services().get(0);
+    Method method =
+        protoService.methods().stream()
+            .filter(m -> m.name().equals("VerifyTest"))
+            .findFirst()
+            .get();
+    Message inputMessage = context.messages().get(method.inputType().reference().fullName());
+    List<MethodArgument> signature =
+        Arrays.asList(
+            MethodArgument.builder()
+                .setName("name")
+                .setType(TypeNode.STRING)
+                .setField(inputMessage.fieldMap().get("name"))
+                .build(),
+            MethodArgument.builder()
+                .setName("answer")
+                .setType(TypeNode.BYTESTRING)
+                .setField(inputMessage.fieldMap().get("answer"))
+                .build());
+    method = method.toBuilder().setMethodSignatures(Arrays.asList(signature)).build();
+
+    List<MethodDefinition> methods =
+        ServiceClientClassComposer.createZeroCopyBytesMethodVariants(method, new TypeStore());
+    assertThat(methods).hasSize(2);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    methods.get(0).accept(visitor);
+    assertThat(visitor.write())
+        .contains("public final VerifyTestResponse verifyTest(String name, byte[] answer)");
+    assertThat(visitor.write())
+        .contains("return verifyTest(name, UnsafeByteOperations.unsafeWrap(answer));");
+
+    visitor.clear();
+    methods.get(1).accept(visitor);
+    assertThat(visitor.write())
+        .contains("public final VerifyTestResponse verifyTest(String name, ByteBuffer answer)");
+    assertThat(visitor.write()).contains("wrapped, not copied");
+  }
+
+  @Test
+  public void createZeroCopyBytesMethodVariants_noBytesArguments() {
+    GapicContext context = TestProtoLoader.instance().parseShowcaseEcho();
+    Service echoProtoService = context.services().get(0);
+    for (Method method : echoProtoService.methods()) {
+      assertThat(
+              ServiceClientClassComposer.createZeroCopyBytesMethodVariants(
+                  method, new TypeStore()))
+          .isEmpty();
+    }
+  }
 }
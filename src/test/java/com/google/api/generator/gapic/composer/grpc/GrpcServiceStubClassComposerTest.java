@@ -52,6 +52,61 @@ public class GrpcServiceStubClassComposerTest {
     Assert.assertCodeEquals(goldenFilePath, visitor.write());
   }
 
+  @Test
+  public void generateGrpcServiceStubClass_lazyCallables() {
+    GapicContext context =
+        GrpcTestProtoLoader.instance().parseDeprecatedService().toBuilder()
+            .setLazyCallablesEnabled(true)
+            .build();
+    Service protoService = context.services().get(0);
+    GapicClass clazz = GrpcServiceStubClassComposer.instance().generate(context, protoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(
+        this.getClass(), "GrpcDeprecatedServiceStubLazyCallables.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(
+            Utils.getGoldenDir(this.getClass()), "GrpcDeprecatedServiceStubLazyCallables.golden");
+    Assert.assertCodeEquals(goldenFilePath, visitor.write());
+  }
+
+  @Test
+  public void generateGrpcServiceStubClass_methodMetrics() {
+    GapicContext context =
+        GrpcTestProtoLoader.instance().parseDeprecatedService().toBuilder()
+            .setMethodMetricsEnabled(true)
+            .build();
+    Service protoService = context.services().get(0);
+    GapicClass clazz = GrpcServiceStubClassComposer.instance().generate(context, protoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(
+        this.getClass(), "GrpcDeprecatedServiceStubMethodMetrics.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(
+            Utils.getGoldenDir(this.getClass()), "GrpcDeprecatedServiceStubMethodMetrics.golden");
+    Assert.assertCodeEquals(goldenFilePath, visitor.write());
+  }
+
+  @Test
+  public void generateGrpcServiceStubClass_methodMetricsWithPaging() {
+    GapicContext context =
+        GrpcTestProtoLoader.instance().parseShowcaseEcho().toBuilder()
+            .setMethodMetricsEnabled(true)
+            .build();
+    Service echoProtoService = context.services().get(0);
+    GapicClass clazz = GrpcServiceStubClassComposer.instance().generate(context, echoProtoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(this.getClass(), "GrpcEchoStubMethodMetrics.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(Utils.getGoldenDir(this.getClass()), "GrpcEchoStubMethodMetrics.golden");
+    Assert.assertCodeEquals(goldenFilePath, visitor.write());
+  }
+
   @Test
   public void generateGrpcServiceStubClass_httpBindings() {
     GapicContext context = GrpcTestProtoLoader.instance().parseShowcaseTesting();
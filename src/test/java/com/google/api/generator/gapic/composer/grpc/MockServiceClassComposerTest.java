@@ -38,6 +38,23 @@ public class MockServiceClassComposerTest {
     Assert.assertCodeEquals(goldenFilePath, visitor.write());
   }
 
+  @Test
+  public void generateServiceClasses_sharedClient() {
+    GapicContext context =
+        GrpcTestProtoLoader.instance().parseShowcaseEcho().toBuilder()
+            .setSharedTestClientEnabled(true)
+            .build();
+    Service echoProtoService = context.services().get(0);
+    GapicClass clazz = MockServiceClassComposer.instance().generate(context, echoProtoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(this.getClass(), "MockEchoSharedClient.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(Utils.getGoldenDir(this.getClass()), "MockEchoSharedClient.golden");
+    Assert.assertCodeEquals(goldenFilePath, visitor.write());
+  }
+
   @Test
   public void generateServiceClasses_deprecated() {
     GapicContext context = GrpcTestProtoLoader.instance().parseDeprecatedService();
@@ -55,6 +55,43 @@ public class ServiceClientTestClassComposerTest {
     assertCodeEquals(goldenFilePath, visitor.write());
   }
 
+  @Test
+  public void generateClientTest_sharedClient() {
+    GapicContext context =
+        GrpcTestProtoLoader.instance().parseDeprecatedService().toBuilder()
+            .setSharedTestClientEnabled(true)
+            .build();
+    Service protoService = context.services().get(0);
+    GapicClass clazz = ServiceClientTestClassComposer.instance().generate(context, protoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(
+        this.getClass(), "DeprecatedServiceClientTestSharedClient.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(
+            Utils.getGoldenDir(this.getClass()), "DeprecatedServiceClientTestSharedClient.golden");
+    assertCodeEquals(goldenFilePath, visitor.write());
+  }
+
+  @Test
+  public void generateClientTest_echoClientSharedClient() {
+    GapicContext context =
+        GrpcTestProtoLoader.instance().parseShowcaseEcho().toBuilder()
+            .setSharedTestClientEnabled(true)
+            .build();
+    Service echoProtoService = context.services().get(0);
+    GapicClass clazz =
+        ServiceClientTestClassComposer.instance().generate(context, echoProtoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(this.getClass(), "EchoClientTestSharedClient.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(Utils.getGoldenDir(this.getClass()), "EchoClientTestSharedClient.golden");
+    assertCodeEquals(goldenFilePath, visitor.write());
+  }
+
   @Test
   public void generateClientTest_testingClientResnameWithOnePatternWithNonSlashSepNames() {
     GapicContext context = GrpcTestProtoLoader.instance().parseShowcaseTesting();
@@ -85,4 +85,60 @@ public class ServiceStubSettingsClassComposerTest {
         Paths.get(Utils.getGoldenDir(this.getClass()), "DeprecatedServiceStubSettings.golden");
     Assert.assertCodeEquals(goldenFilePath, visitor.write());
   }
+
+  @Test
+  public void generateServiceStubSettingsClasses_copyOnWrite() {
+    GapicContext context =
+        GrpcTestProtoLoader.instance().parseDeprecatedService().toBuilder()
+            .setCopyOnWriteSettingsEnabled(true)
+            .build();
+    Service protoService = context.services().get(0);
+    GapicClass clazz = ServiceStubSettingsClassComposer.instance().generate(context, protoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(
+        this.getClass(), "DeprecatedServiceStubSettingsCopyOnWrite.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(
+            Utils.getGoldenDir(this.getClass()), "DeprecatedServiceStubSettingsCopyOnWrite.golden");
+    Assert.assertCodeEquals(goldenFilePath, visitor.write());
+  }
+
+  @Test
+  public void generateServiceStubSettingsClasses_copyOnWriteWithPagingLroAndStreaming() {
+    GapicContext context =
+        GrpcTestProtoLoader.instance().parseShowcaseEcho().toBuilder()
+            .setCopyOnWriteSettingsEnabled(true)
+            .build();
+    Service echoProtoService = context.services().get(0);
+    GapicClass clazz =
+        ServiceStubSettingsClassComposer.instance().generate(context, echoProtoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(this.getClass(), "EchoStubSettingsCopyOnWrite.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(Utils.getGoldenDir(this.getClass()), "EchoStubSettingsCopyOnWrite.golden");
+    Assert.assertCodeEquals(goldenFilePath, visitor.write());
+  }
+
+  @Test
+  public void generateServiceStubSettingsClasses_copyOnWriteWithBatching() {
+    GapicContext context =
+        GrpcTestProtoLoader.instance().parseLogging().toBuilder()
+            .setCopyOnWriteSettingsEnabled(true)
+            .build();
+    Service protoService = context.services().get(0);
+    GapicClass clazz = ServiceStubSettingsClassComposer.instance().generate(context, protoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(
+        this.getClass(), "LoggingServiceV2StubSettingsCopyOnWrite.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(
+            Utils.getGoldenDir(this.getClass()), "LoggingServiceV2StubSettingsCopyOnWrite.golden");
+    Assert.assertCodeEquals(goldenFilePath, visitor.write());
+  }
 }
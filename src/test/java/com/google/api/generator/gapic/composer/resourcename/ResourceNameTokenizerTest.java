@@ -16,6 +16,7 @@ package com.google.api.generator.gapic.composer.resourcename;
 
 import static com.google.common.truth.Truth.assertThat;
 import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
 
 import com.google.protobuf.Descriptors.FileDescriptor;
 import com.google.protobuf.Descriptors.ServiceDescriptor;
@@ -121,4 +122,15 @@ public class ResourceNameTokenizerTest {
     assertThat(tokenHierarchies.get(1))
         .containsExactly("project", "environment", "user", "session");
   }
+
+  @Test
+  public void parseTokenHierarchy_singlePatternIsShared() {
+    String pattern = "projects/{project}/locations/{location}/instances/{instance}";
+    List<String> hierarchy = ResourceNameTokenizer.parseTokenHierarchy(pattern);
+    assertThat(hierarchy).containsExactly("project", "location", "instance").inOrder();
+    assertThat(ResourceNameTokenizer.parseTokenHierarchy(pattern)).isSameInstanceAs(hierarchy);
+    assertThat(ResourceNameTokenizer.parseTokenHierarchy(Arrays.asList(pattern)).get(0))
+        .isSameInstanceAs(hierarchy);
+    assertThrows(UnsupportedOperationException.class, () -> hierarchy.add("book"));
+  }
 }
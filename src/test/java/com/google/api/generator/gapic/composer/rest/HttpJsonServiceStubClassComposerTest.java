@@ -39,4 +39,24 @@ public class HttpJsonServiceStubClassComposerTest {
         Paths.get(Utils.getGoldenDir(this.getClass()), "HttpJsonComplianceStub.golden");
     Assert.assertCodeEquals(goldenFilePath, visitor.write());
   }
+
+  @Test
+  public void generateHttpJsonServiceStubClass_methodMetrics() {
+    GapicContext context =
+        RestTestProtoLoader.instance().parseCompliance().toBuilder()
+            .setMethodMetricsEnabled(true)
+            .build();
+    Service echoProtoService = context.services().get(0);
+    GapicClass clazz =
+        HttpJsonServiceStubClassComposer.instance().generate(context, echoProtoService);
+
+    JavaWriterVisitor visitor = new JavaWriterVisitor();
+    clazz.classDefinition().accept(visitor);
+    Utils.saveCodegenToFile(
+        this.getClass(), "HttpJsonComplianceStubMethodMetrics.golden", visitor.write());
+    Path goldenFilePath =
+        Paths.get(
+            Utils.getGoldenDir(this.getClass()), "HttpJsonComplianceStubMethodMetrics.golden");
+    Assert.assertCodeEquals(goldenFilePath, visitor.write());
+  }
 }
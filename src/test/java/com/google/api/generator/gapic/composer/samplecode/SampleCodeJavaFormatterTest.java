@@ -19,6 +19,8 @@ import static org.junit.Assert.assertThrows;
 
 import com.google.api.generator.gapic.composer.samplecode.SampleCodeJavaFormatter.FormatException;
 import com.google.api.generator.testutils.LineFormatter;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
 
 public class SampleCodeJavaFormatterTest {
@@ -66,6 +68,32 @@ public class SampleCodeJavaFormatterTest {
     assertEquals(expected, result);
   }
 
+  @Test
+  public void validFormatAllSampleCodes_matchesSingleFormat() {
+    List<String> sampleCodes =
+        Arrays.asList(
+            LineFormatter.lines("try(boolean condition = false){", "int x = 3;", "}"),
+            "SubscriptionAdminSettings subscriptionAdminSettings = "
+                + "SubscriptionAdminSettings.newBuilder().setEndpoint(myEndpoint).build();",
+            "echoSettingsBuilder.echoSettings().setRetrySettings("
+                + "echoSettingsBuilder.echoSettings().getRetrySettings().toBuilder()"
+                + ".setTotalTimeout(Duration.ofSeconds(30)).build());");
+    List<String> results = SampleCodeJavaFormatter.formatAll(sampleCodes);
+    assertEquals(sampleCodes.size(), results.size());
+    for (int i = 0; i < sampleCodes.size(); i++) {
+      assertEquals(SampleCodeJavaFormatter.format(sampleCodes.get(i)), results.get(i));
+    }
+  }
+
+  @Test
+  public void invalidFormatAllSampleCodes_nonStatement() {
+    assertThrows(
+        FormatException.class,
+        () -> {
+          SampleCodeJavaFormatter.formatAll(Arrays.asList("int x = 3;", "abc"));
+        });
+  }
+
   @Test
   public void invalidFormatSampleCode_nonStatement() {
     assertThrows(
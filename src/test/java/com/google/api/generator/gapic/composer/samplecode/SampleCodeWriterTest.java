@@ -29,6 +29,7 @@ import com.google.api.generator.engine.ast.ValueExpr;
 import com.google.api.generator.engine.ast.Variable;
 import com.google.api.generator.engine.ast.VariableExpr;
 import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
 
 public class SampleCodeWriterTest {
@@ -69,6 +70,32 @@ public class SampleCodeWriterTest {
     assertEquals(expected, result);
   }
 
+  @Test
+  public void writeAllSampleCodes_duplicateSamples() {
+    List<Statement> firstSample =
+        Arrays.asList(ExprStatement.withExpr(createAssignmentExpr("x", "3", TypeNode.INT)));
+    List<Statement> secondSample =
+        Arrays.asList(
+            TryCatchStatement.builder()
+                .setTryResourceExpr(createAssignmentExpr("aBool", "false", TypeNode.BOOLEAN))
+                .setTryBody(
+                    Arrays.asList(
+                        ExprStatement.withExpr(createAssignmentExpr("y", "4", TypeNode.INT))))
+                .setIsSampleCode(true)
+                .build());
+    List<String> results = SampleCodeWriter.writeAll(Arrays.asList(firstSample, secondSample));
+    assertEquals(2, results.size());
+    assertEquals("int x = 3;", results.get(0));
+    assertEquals("try (boolean aBool = false) {\n  int y = 4;\n}", results.get(1));
+
+    // A batched sample is formatted the same way as on its own.
+    assertEquals(results.get(1), SampleCodeWriter.write(secondSample));
+    // Duplicate samples in one batch are formatted once.
+    assertEquals(
+        Arrays.asList("int x = 3;", "int x = 3;"),
+        SampleCodeWriter.writeAll(Arrays.asList(firstSample, firstSample)));
+  }
+
   private AssignmentExpr createAssignmentExpr(String varName, String varValue, TypeNode type) {
     Variable variable = Variable.builder().setName(varName).setType(type).build();
     VariableExpr variableExpr =
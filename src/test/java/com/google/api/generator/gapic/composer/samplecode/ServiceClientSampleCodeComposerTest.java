@@ -328,6 +328,76 @@ public class ServiceClientSampleCodeComposerTest {
     assertEquals(expected, results);
   }
 
+  @Test
+  public void formatClassSampleCodes_matchesSingleSamples() {
+    FileDescriptor echoFileDescriptor = EchoOuterClass.getDescriptor();
+    Map<String, ResourceName> resourceNames = Parser.parseResourceNames(echoFileDescriptor);
+    Map<String, Message> messageTypes = Parser.parseMessages(echoFileDescriptor);
+    Set<ResourceName> outputResourceNames = new HashSet<>();
+    List<Service> services =
+        Parser.parseService(
+            echoFileDescriptor, messageTypes, resourceNames, Optional.empty(), outputResourceNames);
+    Service echoProtoService = services.get(0);
+    TypeNode clientType =
+        TypeNode.withReference(
+            VaporReference.builder()
+                .setName("EchoClient")
+                .setPakkage(SHOWCASE_PACKAGE_NAME)
+                .build());
+    TypeNode settingsType =
+        TypeNode.withReference(
+            VaporReference.builder()
+                .setName("EchoSettings")
+                .setPakkage(SHOWCASE_PACKAGE_NAME)
+                .build());
+    Map<String, String> sampleCodes =
+        ServiceClientSampleCodeComposer.formatClassSampleCodes(
+            echoProtoService, clientType, settingsType, resourceNames, messageTypes);
+
+    assertEquals(
+        ServiceClientSampleCodeComposer.composeClassHeaderMethodSampleCode(
+            echoProtoService, clientType, resourceNames, messageTypes),
+        sampleCodes.get(ServiceClientSampleCodeComposer.CLASS_HEADER_METHOD_SAMPLE_KEY));
+    assertEquals(
+        ServiceClientSampleCodeComposer.composeClassHeaderCredentialsSampleCode(
+            clientType, settingsType),
+        sampleCodes.get(ServiceClientSampleCodeComposer.CLASS_HEADER_CREDENTIALS_SAMPLE_KEY));
+    for (Method method : echoProtoService.methods()) {
+      if (method.stream() == Stream.NONE) {
+        for (List<MethodArgument> signature : method.methodSignatures()) {
+          assertEquals(
+              ServiceClientSampleCodeComposer.composeRpcMethodHeaderSampleCode(
+                  method, clientType, signature, resourceNames, messageTypes),
+              sampleCodes.get(
+                  ServiceClientSampleCodeComposer.rpcMethodSampleKey(method, signature)));
+        }
+        assertEquals(
+            ServiceClientSampleCodeComposer.composeRpcDefaultMethodHeaderSampleCode(
+                method, clientType, resourceNames, messageTypes),
+            sampleCodes.get(ServiceClientSampleCodeComposer.rpcDefaultMethodSampleKey(method)));
+      }
+      if (method.hasLro()) {
+        assertEquals(
+            ServiceClientSampleCodeComposer.composeLroCallableMethodHeaderSampleCode(
+                method, clientType, resourceNames, messageTypes),
+            sampleCodes.get(ServiceClientSampleCodeComposer.lroCallableMethodSampleKey(method)));
+      }
+      if (method.isPaged()) {
+        assertEquals(
+            ServiceClientSampleCodeComposer.composePagedCallableMethodHeaderSampleCode(
+                method, clientType, resourceNames, messageTypes),
+            sampleCodes.get(ServiceClientSampleCodeComposer.pagedCallableMethodSampleKey(method)));
+      }
+      assertEquals(
+          method.stream() == Stream.NONE
+              ? ServiceClientSampleCodeComposer.composeRegularCallableMethodHeaderSampleCode(
+                  method, clientType, resourceNames, messageTypes)
+              : ServiceClientSampleCodeComposer.composeStreamCallableMethodHeaderSampleCode(
+                  method, clientType, resourceNames, messageTypes),
+          sampleCodes.get(ServiceClientSampleCodeComposer.callableMethodSampleKey(method)));
+    }
+  }
+
   // =======================================Unary RPC Method Sample Code=======================//
   /*
   @Test
@@ -1000,14 +1070,6 @@ public class ServiceClientSampleCodeComposerTest {
                 .setType(TypeNode.STRING)
                 .setField(Field.builder().setName("filter").setType(TypeNode.STRING).build())
                 .build());
-    Method method =
-        Method.builder()
-            .setName("ListContent")
-            .setMethodSignatures(Arrays.asList(arguments))
-            .setInputType(inputType)
-            .setOutputType(outputType)
-            .setPageSizeFieldName(PAGINATED_FIELD_NAME)
-            .build();
     Reference repeatedResponseReference =
         VaporReference.builder().setName("Content").setPakkage(SHOWCASE_PACKAGE_NAME).build();
     Field repeatedField =
@@ -1032,6 +1094,15 @@ public class ServiceClientSampleCodeComposerTest {
             .setFields(Arrays.asList(repeatedField, nextPagedTokenField))
             .build();
     messageTypes.put("com.google.showcase.v1beta1.ListContentResponse", listContentResponseMessage);
+    Method method =
+        Method.builder()
+            .setName("ListContent")
+            .setMethodSignatures(Arrays.asList(arguments))
+            .setInputType(inputType)
+            .setOutputType(outputType)
+            .setPageSizeFieldName(PAGINATED_FIELD_NAME)
+            .setPagedResultsField(listContentResponseMessage.findAndUnwrapPaginatedRepeatedField())
+            .build();
 
     String results =
         ServiceClientSampleCodeComposer.composeRpcMethodHeaderSampleCode(
@@ -1073,14 +1144,6 @@ public class ServiceClientSampleCodeComposerTest {
                 .setPakkage(SHOWCASE_PACKAGE_NAME)
                 .build());
     List<MethodArgument> arguments = Collections.emptyList();
-    Method method =
-        Method.builder()
-            .setName("ListContent")
-            .setMethodSignatures(Arrays.asList(arguments))
-            .setInputType(inputType)
-            .setOutputType(outputType)
-            .setPageSizeFieldName(PAGINATED_FIELD_NAME)
-            .build();
     Reference repeatedResponseReference =
         VaporReference.builder().setName("Content").setPakkage(SHOWCASE_PACKAGE_NAME).build();
     Field repeatedField =
@@ -1105,6 +1168,15 @@ public class ServiceClientSampleCodeComposerTest {
             .setFields(Arrays.asList(repeatedField, nextPagedTokenField))
             .build();
     messageTypes.put("com.google.showcase.v1beta1.ListContentResponse", listContentResponseMessage);
+    Method method =
+        Method.builder()
+            .setName("ListContent")
+            .setMethodSignatures(Arrays.asList(arguments))
+            .setInputType(inputType)
+            .setOutputType(outputType)
+            .setPageSizeFieldName(PAGINATED_FIELD_NAME)
+            .setPagedResultsField(listContentResponseMessage.findAndUnwrapPaginatedRepeatedField())
+            .build();
 
     String results =
         ServiceClientSampleCodeComposer.composeRpcMethodHeaderSampleCode(
@@ -1434,6 +1506,8 @@ public class ServiceClientSampleCodeComposerTest {
                 .setName("PagedExpandResponse")
                 .setPakkage(SHOWCASE_PACKAGE_NAME)
                 .build());
+    Field pagedResultsField =
+        messageTypes.get(outputType.reference().fullName()).findAndUnwrapPaginatedRepeatedField();
     Method method =
         Method.builder()
             .setName("PagedExpand")
@@ -1441,6 +1515,7 @@ public class ServiceClientSampleCodeComposerTest {
             .setOutputType(outputType)
             .setMethodSignatures(Collections.emptyList())
             .setPageSizeFieldName(PAGINATED_FIELD_NAME)
+            .setPagedResultsField(pagedResultsField)
             .build();
     String results =
         ServiceClientSampleCodeComposer.composeRpcDefaultMethodHeaderSampleCode(
@@ -1484,6 +1559,8 @@ public class ServiceClientSampleCodeComposerTest {
                 .setName("PagedExpandResponse")
                 .setPakkage(SHOWCASE_PACKAGE_NAME)
                 .build());
+    Field pagedResultsField =
+        messageTypes.get(outputType.reference().fullName()).findAndUnwrapPaginatedRepeatedField();
     Method method =
         Method.builder()
             .setName("PagedExpand")
@@ -1491,6 +1568,7 @@ public class ServiceClientSampleCodeComposerTest {
             .setOutputType(outputType)
             .setMethodSignatures(Collections.emptyList())
             .setPageSizeFieldName(PAGINATED_FIELD_NAME)
+            .setPagedResultsField(pagedResultsField)
             .build();
     assertThrows(
         NullPointerException.class,
@@ -1831,12 +1909,15 @@ public class ServiceClientSampleCodeComposerTest {
                 .setName("PagedExpandResponse")
                 .setPakkage(SHOWCASE_PACKAGE_NAME)
                 .build());
+    Field pagedResultsField =
+        messageTypes.get(outputType.reference().fullName()).findAndUnwrapPaginatedRepeatedField();
     Method method =
         Method.builder()
             .setName("PagedExpand")
             .setInputType(inputType)
             .setOutputType(outputType)
             .setPageSizeFieldName(PAGINATED_FIELD_NAME)
+            .setPagedResultsField(pagedResultsField)
             .build();
     String results =
         ServiceClientSampleCodeComposer.composePagedCallableMethodHeaderSampleCode(
@@ -1883,12 +1964,15 @@ public class ServiceClientSampleCodeComposerTest {
                 .setName("PagedExpandResponse")
                 .setPakkage(SHOWCASE_PACKAGE_NAME)
                 .build());
+    Field pagedResultsField =
+        messageTypes.get(outputType.reference().fullName()).findAndUnwrapPaginatedRepeatedField();
     Method method =
         Method.builder()
             .setName("PagedExpand")
             .setInputType(inputType)
             .setOutputType(outputType)
             .setPageSizeFieldName(PAGINATED_FIELD_NAME)
+            .setPagedResultsField(pagedResultsField)
             .build();
     assertThrows(
         NullPointerException.class,
@@ -2444,6 +2528,8 @@ public class ServiceClientSampleCodeComposerTest {
                 .setName("PagedExpandResponse")
                 .setPakkage(SHOWCASE_PACKAGE_NAME)
                 .build());
+    Field pagedResultsField =
+        messageTypes.get(outputType.reference().fullName()).findAndUnwrapPaginatedRepeatedField();
     Method method =
         Method.builder()
             .setName("PagedExpand")
@@ -2451,6 +2537,7 @@ public class ServiceClientSampleCodeComposerTest {
             .setOutputType(outputType)
             .setMethodSignatures(Collections.emptyList())
             .setPageSizeFieldName(PAGINATED_FIELD_NAME)
+            .setPagedResultsField(pagedResultsField)
             .build();
     String results =
         ServiceClientSampleCodeComposer.composeRegularCallableMethodHeaderSampleCode(
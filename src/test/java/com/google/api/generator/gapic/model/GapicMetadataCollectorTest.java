@@ -0,0 +1,73 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.api.generator.gapic.model;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.gapic.metadata.GapicMetadata;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class GapicMetadataCollectorTest {
+  @Test
+  public void build_mergesInServiceOrder() {
+    GapicMetadataCollector collector =
+        new GapicMetadataCollector(GapicMetadata.newBuilder().setLanguage("java").build());
+    Service echo = createService("Echo");
+    Service identity = createService("Identity");
+    Service messaging = createService("Messaging");
+
+    // Added out of order, and without an entry for Messaging.
+    collector.addServiceMetadata("Identity", createServiceMetadata("Identity", "IdentityClient"));
+    collector.addServiceMetadata("Echo", createServiceMetadata("Echo", "EchoClient"));
+
+    List<Service> services = Arrays.asList(echo, identity, messaging);
+    GapicMetadata metadata = collector.build(services);
+    assertThat(metadata.getLanguage()).isEqualTo("java");
+    assertThat(metadata.getProtoPackage()).isEqualTo("google.showcase.v1beta1");
+    assertThat(metadata.getServicesMap().keySet()).containsExactly("Echo", "Identity").inOrder();
+    GapicMetadata.ServiceAsClient identityClient =
+        metadata.getServicesMap().get("Identity").getClientsMap().get("grpc");
+    assertThat(identityClient.getLibraryClient()).isEqualTo("IdentityClient");
+    assertThat(collector.build(services)).isEqualTo(metadata);
+  }
+
+  private static Service createService(String name) {
+    return Service.builder()
+        .setName(name)
+        .setDefaultHost("localhost:7469")
+        .setOauthScopes(Arrays.asList())
+        .setPakkage("com.google.showcase.v1beta1")
+        .setProtoPakkage("google.showcase.v1beta1")
+        .setOriginalJavaPackage("com.google.showcase.v1beta1")
+        .setOverriddenName(name)
+        .build();
+  }
+
+  private static GapicMetadata createServiceMetadata(String serviceName, String clientName) {
+    return GapicMetadata.newBuilder()
+        .setProtoPackage("google.showcase.v1beta1")
+        .setLibraryPackage("com.google.showcase.v1beta1")
+        .putServices(
+            serviceName,
+            GapicMetadata.ServiceForTransport.newBuilder()
+                .putClients(
+                    "grpc",
+                    GapicMetadata.ServiceAsClient.newBuilder().setLibraryClient(clientName).build())
+                .build())
+        .build();
+  }
+}
@@ -243,6 +243,46 @@ public class GapicServiceConfigTest {
         origLroRetrySetting.totalPollTimeoutMillis(), retrievedSettings.totalPollTimeoutMillis());
   }
 
+  @Test
+  public void serviceConfig_resolvedMethodConfig() {
+    FileDescriptor echoFileDescriptor = EchoOuterClass.getDescriptor();
+    Service service = parseService(echoFileDescriptor);
+
+    String jsonFilename = "showcase_grpc_service_config.json";
+    Path jsonPath = Paths.get(TESTDATA_DIRECTORY, jsonFilename);
+    Optional<GapicServiceConfig> serviceConfigOpt = ServiceConfigParser.parse(jsonPath.toString());
+    assertTrue(serviceConfigOpt.isPresent());
+    GapicServiceConfig serviceConfig = serviceConfigOpt.get();
+
+    Method method = findMethod(service, "Echo");
+    GapicServiceConfig.ResolvedMethodConfig methodConfig =
+        serviceConfig.getResolvedMethodConfig(service, method);
+    assertThat(serviceConfig.getResolvedMethodConfig(service, method))
+        .isSameInstanceAs(methodConfig);
+    assertEquals("retry_policy_1_codes", methodConfig.retryCodeName());
+    assertEquals("retry_policy_1_params", methodConfig.retryParamsName());
+    assertEquals(10, methodConfig.retrySettings().timeout().getSeconds());
+    assertThat(methodConfig.retryCodes()).containsExactly(Code.UNAVAILABLE, Code.UNKNOWN);
+    assertFalse(methodConfig.lroRetrySetting().isPresent());
+    assertFalse(methodConfig.batchingSetting().isPresent());
+
+    // Setting LRO retry settings invalidates previously-resolved configs.
+    GapicLroRetrySettings lroRetrySetting =
+        GapicLroRetrySettings.builder()
+            .setProtoPakkage("google.showcase.v1beta1")
+            .setServiceName("Echo")
+            .setMethodName("Echo")
+            .setInitialPollDelayMillis(100)
+            .setPollDelayMultiplier(1.5)
+            .setMaxPollDelayMillis(200)
+            .setTotalPollTimeoutMillis(300)
+            .build();
+    serviceConfig.setLroRetrySettings(Optional.of(Arrays.asList(lroRetrySetting)));
+    methodConfig = serviceConfig.getResolvedMethodConfig(service, method);
+    assertThat(methodConfig.lroRetrySetting()).hasValue(lroRetrySetting);
+    assertEquals("retry_policy_1_params", methodConfig.retryParamsName());
+  }
+
   private static Service parseService(FileDescriptor fileDescriptor) {
     Map<String, Message> messageTypes = Parser.parseMessages(fileDescriptor);
     Map<String, ResourceName> resourceNames = Parser.parseResourceNames(fileDescriptor);
@@ -0,0 +1,84 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.api.generator.gapic.model;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.generator.engine.ast.ConcreteReference;
+import com.google.api.generator.engine.ast.TypeNode;
+import com.google.api.generator.engine.ast.VaporReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class MessageTest {
+  private static final String PAKKAGE = "com.google.showcase.v1beta1";
+
+  private static final Field PARENT_FIELD =
+      Field.builder()
+          .setName("parent")
+          .setType(TypeNode.STRING)
+          .setResourceReference(ResourceReference.withType("showcase.googleapis.com/Room"))
+          .build();
+  private static final Field REPEATED_FIELD =
+      Field.builder()
+          .setName("blurbs")
+          .setType(
+              TypeNode.withReference(
+                  ConcreteReference.builder()
+                      .setClazz(List.class)
+                      .setGenerics(
+                          VaporReference.builder().setName("Blurb").setPakkage(PAKKAGE).build())
+                      .build()))
+          .setIsMessage(true)
+          .setIsRepeated(true)
+          .build();
+  private static final Field PAGE_TOKEN_FIELD =
+      Field.builder().setName("next_page_token").setType(TypeNode.STRING).build();
+
+  @Test
+  public void build_indexesFields() {
+    Message message = createMessage(Arrays.asList(PARENT_FIELD, REPEATED_FIELD, PAGE_TOKEN_FIELD));
+
+    assertThat(message.fieldMap().keySet()).containsExactly("parent", "blurbs", "next_page_token");
+    assertThat(message.resourceReferenceFields()).containsExactly(PARENT_FIELD);
+    Field paginatedField = message.findAndUnwrapPaginatedRepeatedField();
+    assertThat(paginatedField.name()).isEqualTo("blurbs");
+    assertThat(paginatedField.type().reference().fullName())
+        .isEqualTo("com.google.showcase.v1beta1.Blurb");
+  }
+
+  @Test
+  public void build_reindexesFieldsAfterToBuilder() {
+    Message message = createMessage(Arrays.asList(PARENT_FIELD, REPEATED_FIELD));
+    message = message.toBuilder().setFields(Collections.singletonList(PAGE_TOKEN_FIELD)).build();
+
+    assertThat(message.fieldMap().keySet()).containsExactly("next_page_token");
+    assertThat(message.resourceReferenceFields()).isEmpty();
+    assertThat(message.findAndUnwrapPaginatedRepeatedField()).isNull();
+  }
+
+  private static Message createMessage(List<Field> fields) {
+    return Message.builder()
+        .setName("ListBlurbsResponse")
+        .setFullProtoName("google.showcase.v1beta1.ListBlurbsResponse")
+        .setType(
+            TypeNode.withReference(
+                VaporReference.builder().setName("ListBlurbsResponse").setPakkage(PAKKAGE).build()))
+        .setFields(fields)
+        .build();
+  }
+}
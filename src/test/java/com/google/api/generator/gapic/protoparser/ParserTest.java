@@ -17,6 +17,7 @@ package com.google.api.generator.gapic.protoparser;
 import static com.google.common.truth.Truth.assertThat;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
 import static org.junit.Assert.assertThrows;
 
@@ -36,6 +37,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.protobuf.Descriptors.FileDescriptor;
 import com.google.protobuf.Descriptors.MethodDescriptor;
 import com.google.protobuf.Descriptors.ServiceDescriptor;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
 import com.google.showcase.v1beta1.EchoOuterClass;
 import com.google.showcase.v1beta1.TestingOuterClass;
 import com.google.testgapic.v1beta1.LockerProto;
@@ -165,6 +167,16 @@ public class ParserTest {
     Method chatMethod = methods.get(3);
     assertEquals("Chat", chatMethod.name());
     assertEquals(Method.Stream.BIDI, chatMethod.stream());
+    assertNull(chatMethod.pagedResultsField());
+
+    Method pagedExpandMethod = methods.get(5);
+    assertEquals("PagedExpand", pagedExpandMethod.name());
+    assertTrue(pagedExpandMethod.isPaged());
+    assertEquals("responses", pagedExpandMethod.pagedResultsField().name());
+    assertEquals(
+        TypeNode.withReference(
+            VaporReference.builder().setName("EchoResponse").setPakkage(ECHO_PACKAGE).build()),
+        pagedExpandMethod.pagedResultsField().type());
   }
 
   @Test
@@ -457,6 +469,30 @@ public class ParserTest {
     assertThat(outputResourceNames).contains(resname);
   }
 
+  @Test
+  public void parse_methodMetricsWithLazyCallables() {
+    CodeGeneratorRequest request =
+        CodeGeneratorRequest.newBuilder().setParameter("method-metrics,lazy-callables").build();
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> Parser.parse(request));
+    assertThat(e).hasMessageThat().contains(PluginArgumentParser.KEY_METHOD_METRICS);
+  }
+
+  @Test
+  public void parse_invalidSrcjarCompressionLevel() {
+    for (String level : Arrays.asList("fast", "10", "-2")) {
+      CodeGeneratorRequest request =
+          CodeGeneratorRequest.newBuilder()
+              .setParameter("srcjar-compression-level=" + level)
+              .build();
+      IllegalArgumentException e =
+          assertThrows(IllegalArgumentException.class, () -> Parser.parse(request));
+      assertThat(e)
+          .hasMessageThat()
+          .contains(PluginArgumentParser.KEY_SRCJAR_COMPRESSION_LEVEL + " value " + level);
+    }
+  }
+
   @Test
   public void sanitizeDefaultHost_basic() {
     String defaultHost = "localhost:1234";
@@ -248,6 +248,105 @@ public class PluginArgumentParserTest {
     assertTrue(PluginArgumentParser.hasMetadataFlag(rawArgument));
   }
 
+  @Test
+  public void parseLazyCallablesFlag() {
+    String jsonPath = "/tmp/foo_grpc_service_config.json";
+    String rawArgument =
+        String.join(",", Arrays.asList("metadata", createGrpcServiceConfig(jsonPath)));
+    assertFalse(PluginArgumentParser.hasLazyCallablesFlag(rawArgument));
+
+    rawArgument =
+        String.join(",", Arrays.asList("lazy-callables", createGrpcServiceConfig(jsonPath)));
+    assertTrue(PluginArgumentParser.hasLazyCallablesFlag(rawArgument));
+  }
+
+  @Test
+  public void parseZeroCopyBytesFlag() {
+    String jsonPath = "/tmp/foo_grpc_service_config.json";
+    String rawArgument =
+        String.join(",", Arrays.asList("metadata", createGrpcServiceConfig(jsonPath)));
+    assertFalse(PluginArgumentParser.hasZeroCopyBytesFlag(rawArgument));
+
+    rawArgument =
+        String.join(",", Arrays.asList("zero-copy-bytes", createGrpcServiceConfig(jsonPath)));
+    assertTrue(PluginArgumentParser.hasZeroCopyBytesFlag(rawArgument));
+  }
+
+  @Test
+  public void parsePrefetchingPaginationFlag() {
+    String jsonPath = "/tmp/foo_grpc_service_config.json";
+    String rawArgument =
+        String.join(",", Arrays.asList("metadata", createGrpcServiceConfig(jsonPath)));
+    assertFalse(PluginArgumentParser.hasPrefetchingPaginationFlag(rawArgument));
+
+    rawArgument =
+        String.join(
+            ",", Arrays.asList("prefetching-pagination", createGrpcServiceConfig(jsonPath)));
+    assertTrue(PluginArgumentParser.hasPrefetchingPaginationFlag(rawArgument));
+  }
+
+  @Test
+  public void parseAsyncOverloadsFlag() {
+    String jsonPath = "/tmp/foo_grpc_service_config.json";
+    String rawArgument =
+        String.join(",", Arrays.asList("metadata", createGrpcServiceConfig(jsonPath)));
+    assertFalse(PluginArgumentParser.hasAsyncOverloadsFlag(rawArgument));
+
+    rawArgument =
+        String.join(",", Arrays.asList("async-overloads", createGrpcServiceConfig(jsonPath)));
+    assertTrue(PluginArgumentParser.hasAsyncOverloadsFlag(rawArgument));
+  }
+
+  @Test
+  public void parseMethodMetricsFlag() {
+    String jsonPath = "/tmp/foo_grpc_service_config.json";
+    String rawArgument =
+        String.join(",", Arrays.asList("metadata", createGrpcServiceConfig(jsonPath)));
+    assertFalse(PluginArgumentParser.hasMethodMetricsFlag(rawArgument));
+
+    rawArgument =
+        String.join(",", Arrays.asList("method-metrics", createGrpcServiceConfig(jsonPath)));
+    assertTrue(PluginArgumentParser.hasMethodMetricsFlag(rawArgument));
+  }
+
+  @Test
+  public void parseCopyOnWriteSettingsFlag() {
+    String jsonPath = "/tmp/foo_grpc_service_config.json";
+    String rawArgument =
+        String.join(",", Arrays.asList("metadata", createGrpcServiceConfig(jsonPath)));
+    assertFalse(PluginArgumentParser.hasCopyOnWriteSettingsFlag(rawArgument));
+
+    rawArgument =
+        String.join(
+            ",", Arrays.asList("copy-on-write-settings", createGrpcServiceConfig(jsonPath)));
+    assertTrue(PluginArgumentParser.hasCopyOnWriteSettingsFlag(rawArgument));
+  }
+
+  @Test
+  public void parseSharedTestClientFlag() {
+    String jsonPath = "/tmp/foo_grpc_service_config.json";
+    String rawArgument =
+        String.join(",", Arrays.asList("metadata", createGrpcServiceConfig(jsonPath)));
+    assertFalse(PluginArgumentParser.hasSharedTestClientFlag(rawArgument));
+
+    rawArgument =
+        String.join(",", Arrays.asList("shared-test-client", createGrpcServiceConfig(jsonPath)));
+    assertTrue(PluginArgumentParser.hasSharedTestClientFlag(rawArgument));
+  }
+
+  @Test
+  public void parseSrcjarCompressionLevel() {
+    String jsonPath = "/tmp/foo_grpc_service_config.json";
+    String rawArgument =
+        String.join(",", Arrays.asList("metadata", createGrpcServiceConfig(jsonPath)));
+    assertFalse(PluginArgumentParser.parseSrcjarCompressionLevel(rawArgument).isPresent());
+
+    rawArgument =
+        String.join(
+            ",", Arrays.asList("srcjar-compression-level=0", createGrpcServiceConfig(jsonPath)));
+    assertEquals("0", PluginArgumentParser.parseSrcjarCompressionLevel(rawArgument).get());
+  }
+
   private static String createGrpcServiceConfig(String path) {
     return String.format("%s=%s", PluginArgumentParser.KEY_GRPC_SERVICE_CONFIG, path);
   }
@@ -0,0 +1,57 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.api.generator.gapic.protoparser;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Test;
+
+public class YamlConfigLoaderTest {
+  private static final String YAML_DIRECTORY =
+      "src/test/java/com/google/api/generator/gapic/testdata/";
+
+  @Test
+  public void load_missingFile() {
+    assertFalse(YamlConfigLoader.load(Optional.empty()).isPresent());
+    assertFalse(YamlConfigLoader.load("").isPresent());
+    assertFalse(
+        YamlConfigLoader.load(Paths.get(YAML_DIRECTORY, "nonexistent.yaml").toString())
+            .isPresent());
+  }
+
+  @Test
+  public void load_sharedAcrossParsers() {
+    Path path = Paths.get(YAML_DIRECTORY, "logging_gapic.yaml");
+    Optional<Map<String, Object>> yamlMapOpt = YamlConfigLoader.load(path.toString());
+    assertTrue(yamlMapOpt.isPresent());
+
+    Map<String, Object> yamlMap = yamlMapOpt.get();
+    assertEquals(
+        GapicLanguageSettingsParser.parse(path.toString()),
+        GapicLanguageSettingsParser.parseFromMap(yamlMap));
+    assertEquals(
+        BatchingSettingsConfigParser.parse(path.toString()),
+        BatchingSettingsConfigParser.parseFromMap(yamlMap));
+    assertEquals(
+        GapicLroRetrySettingsParser.parse(path.toString()),
+        GapicLroRetrySettingsParser.parseFromMap(yamlMap));
+  }
+}
@@ -0,0 +1,174 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.api.generator.gapic.protowriter;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.generator.engine.ast.ClassDefinition;
+import com.google.api.generator.engine.ast.PackageInfoDefinition;
+import com.google.api.generator.engine.ast.ScopeNode;
+import com.google.api.generator.gapic.model.GapicClass;
+import com.google.api.generator.gapic.model.GapicContext;
+import com.google.api.generator.gapic.model.GapicPackageInfo;
+import com.google.api.generator.gapic.model.Transport;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import org.junit.Test;
+
+public class WriterTest {
+  private static final String PAKKAGE = "com.google.showcase.v1beta1";
+  private static final String PAKKAGE_PATH = "com/google/showcase/v1beta1";
+
+  @Test
+  public void write_splitsClassesIntoSrcjars() throws IOException {
+    CodeGeneratorResponse response =
+        Writer.write(
+            createContext(),
+            Arrays.asList(
+                createClass("EchoClient"),
+                createClass("FoobarName"),
+                createClass("EchoClientTest"),
+                createClass("MockEcho")),
+            createPackageInfo(),
+            "temp-codegen.srcjar");
+
+    assertThat(response.getFileCount()).isEqualTo(3);
+    assertThat(response.getFile(0).getName()).isEqualTo("temp-codegen.srcjar");
+    assertThat(readEntryNames(response.getFile(0).getContentBytes()))
+        .containsExactly(PAKKAGE_PATH + "/EchoClient.java", PAKKAGE_PATH + "/package-info.java")
+        .inOrder();
+    assertThat(response.getFile(1).getName()).isEqualTo("temp-codegen-resource-name.srcjar");
+    assertThat(readEntryNames(response.getFile(1).getContentBytes()))
+        .containsExactly(PAKKAGE_PATH + "/FoobarName.java");
+    assertThat(response.getFile(2).getName()).isEqualTo("temp-codegen-test.srcjar");
+    assertThat(readEntryNames(response.getFile(2).getContentBytes()))
+        .containsExactly(PAKKAGE_PATH + "/EchoClientTest.java", PAKKAGE_PATH + "/MockEcho.java")
+        .inOrder();
+  }
+
+  @Test
+  public void write_sortsEntries() throws IOException {
+    CodeGeneratorResponse response =
+        Writer.write(
+            createContext(),
+            Arrays.asList(createClass("IdentityClient"), createClass("EchoClient")),
+            createPackageInfo(),
+            "temp-codegen.srcjar");
+
+    assertThat(readEntryNames(response.getFile(0).getContentBytes()))
+        .containsExactly(
+            PAKKAGE_PATH + "/EchoClient.java",
+            PAKKAGE_PATH + "/IdentityClient.java",
+            PAKKAGE_PATH + "/package-info.java")
+        .inOrder();
+  }
+
+  @Test
+  public void write_storedEntries() throws IOException {
+    CodeGeneratorResponse response =
+        Writer.write(
+            createContext().toBuilder().setSrcjarCompressionLevel(Deflater.NO_COMPRESSION).build(),
+            Arrays.asList(createClass("EchoClient")),
+            createPackageInfo(),
+            "temp-codegen.srcjar");
+
+    ByteString srcjar = response.getFile(0).getContentBytes();
+    try (JarInputStream jis = new JarInputStream(srcjar.newInput())) {
+      for (JarEntry entry = jis.getNextJarEntry(); entry != null; entry = jis.getNextJarEntry()) {
+        assertThat(entry.getMethod()).isEqualTo(ZipEntry.STORED);
+      }
+    }
+  }
+
+  @Test
+  public void write_addsResourceNamePlaceholder() throws IOException {
+    CodeGeneratorResponse response =
+        Writer.write(
+            createContext(),
+            Arrays.asList(createClass("EchoClient")),
+            createPackageInfo(),
+            "temp-codegen.srcjar");
+
+    assertThat(readEntryNames(response.getFile(1).getContentBytes()))
+        .containsExactly("PlaceholderFile.java");
+  }
+
+  @Test
+  public void write_isReproducible() throws IOException {
+    List<GapicClass> clazzes =
+        Arrays.asList(createClass("EchoClient"), createClass("EchoClientTest"));
+    CodeGeneratorResponse response =
+        Writer.write(createContext(), clazzes, createPackageInfo(), "temp-codegen.srcjar");
+    CodeGeneratorResponse otherResponse =
+        Writer.write(createContext(), clazzes, createPackageInfo(), "temp-codegen.srcjar");
+
+    assertThat(otherResponse).isEqualTo(response);
+    // Equal responses alone would not catch a clock-based entry time within the same second. Zip
+    // entries store local times, so the expected time is built in the local time zone too.
+    long expectedTime = new GregorianCalendar(2010, Calendar.JANUARY, 1).getTimeInMillis();
+    for (CodeGeneratorResponse.File file : response.getFileList()) {
+      try (JarInputStream jis = new JarInputStream(file.getContentBytes().newInput())) {
+        for (JarEntry entry = jis.getNextJarEntry(); entry != null; entry = jis.getNextJarEntry()) {
+          assertThat(entry.getTime()).isEqualTo(expectedTime);
+        }
+      }
+    }
+  }
+
+  private static List<String> readEntryNames(ByteString srcjar) throws IOException {
+    List<String> entryNames = new ArrayList<>();
+    try (JarInputStream jis = new JarInputStream(srcjar.newInput())) {
+      for (JarEntry entry = jis.getNextJarEntry(); entry != null; entry = jis.getNextJarEntry()) {
+        entryNames.add(entry.getName());
+      }
+    }
+    return entryNames;
+  }
+
+  private static GapicContext createContext() {
+    return GapicContext.builder()
+        .setMessages(Collections.emptyMap())
+        .setResourceNames(Collections.emptyMap())
+        .setServices(Collections.emptyList())
+        .setHelperResourceNames(Collections.emptySet())
+        .setTransport(Transport.GRPC)
+        .build();
+  }
+
+  private static GapicClass createClass(String name) {
+    return GapicClass.create(
+        GapicClass.Kind.MAIN,
+        ClassDefinition.builder()
+            .setPackageString(PAKKAGE)
+            .setName(name)
+            .setScope(ScopeNode.PUBLIC)
+            .build());
+  }
+
+  private static GapicPackageInfo createPackageInfo() {
+    return GapicPackageInfo.with(PackageInfoDefinition.builder().setPakkage(PAKKAGE).build());
+  }
+}
@@ -0,0 +1,63 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.api.generator.gapic.utils;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+
+public class HttpPathTemplateTest {
+  @Test
+  public void parse_variablesAndLiterals() {
+    HttpPathTemplate template =
+        HttpPathTemplate.parse("/v1/{parent=projects/*}/{book.display_name}:search");
+    assertThat(template.variableNames()).containsExactly("parent", "book.display_name").inOrder();
+    assertThat(template.literals())
+        .containsExactly("/v1/{", "=projects/*}/{", "}:search")
+        .inOrder();
+    assertThat(HttpPathTemplate.parse("/v1/{parent=projects/*}/{book.display_name}:search"))
+        .isSameInstanceAs(template);
+  }
+
+  @Test
+  public void parse_noVariables() {
+    HttpPathTemplate template = HttpPathTemplate.parse("/v1/projects/*/books");
+    assertThat(template.variableNames()).isEmpty();
+    assertThat(template.literals()).containsExactly("/v1/projects/*/books");
+  }
+
+  @Test
+  public void parse_invalidBraces() {
+    assertThrows(IllegalArgumentException.class, () -> HttpPathTemplate.parse("/v1/{name"));
+    assertThrows(
+        IllegalArgumentException.class, () -> HttpPathTemplate.parse("/v1/{name={parent}}"));
+    assertThrows(IllegalArgumentException.class, () -> HttpPathTemplate.parse("/v1/{=books/*}"));
+  }
+
+  @Test
+  public void parse_invalidSegments() {
+    assertThrows(
+        IllegalArgumentException.class, () -> HttpPathTemplate.parse("/v1/{name=**/books/**}"));
+  }
+
+  @Test
+  public void format_replacesVariableNamesOnly() {
+    HttpPathTemplate template =
+        HttpPathTemplate.parse("/v1/{instance_template=*}/instance_template");
+    assertThat(template.format(JavaStyle::toLowerCamelCase))
+        .isEqualTo("/v1/{instanceTemplate=*}/instance_template");
+  }
+}
@@ -16,7 +16,11 @@ package com.google.api.generator.gapic.utils;
 
 import static com.google.common.truth.Truth.assertThat;
 import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
 
 public class JavaStyleTest {
@@ -111,4 +115,67 @@ public class JavaStyleTest {
     assertEquals("iamHttpXmlDog", JavaStyle.toLowerCamelCase(value));
     assertEquals("IamHttpXmlDog", JavaStyle.toUpperCamelCase(value));
   }
+
+  @Test
+  public void upperSnake() {
+    assertEquals("FACTORY_DECORATOR_IMPL", JavaStyle.toUpperSnakeCase("factoryDecoratorImpl"));
+    assertEquals("DOG_V2_CC", JavaStyle.toUpperSnakeCase("dog_v2_cc"));
+    assertEquals("I_A_M_DOG", JavaStyle.toUpperSnakeCase("IAMDog"));
+    assertEquals("", JavaStyle.toUpperSnakeCase(""));
+  }
+
+  @Test
+  public void onlySeparators() {
+    assertThrows(StringIndexOutOfBoundsException.class, () -> JavaStyle.toLowerCamelCase("_"));
+    assertThrows(StringIndexOutOfBoundsException.class, () -> JavaStyle.toUpperCamelCase("-_"));
+  }
+
+  @Test
+  public void matchesCaseFormatConversion_allShortStrings() {
+    // Every string of up to four characters over letters of both cases, digits and separators.
+    char[] alphabet = {'a', 'z', 'A', 'Z', '0', '9', '_', '-', '.'};
+    List<String> values = new ArrayList<>(Arrays.asList(""));
+    List<String> previousValues = values;
+    for (int length = 1; length <= 4; length++) {
+      List<String> currentValues = new ArrayList<>();
+      for (String prefix : previousValues) {
+        for (char c : alphabet) {
+          currentValues.add(prefix + c);
+        }
+      }
+      values.addAll(currentValues);
+      previousValues = currentValues;
+    }
+
+    for (String value : values) {
+      assertMatchesCaseFormatConversion(value);
+    }
+  }
+
+  @Test
+  public void matchesCaseFormatConversion_nonAscii() {
+    for (String value : Arrays.asList("caf\u00e9_bar", "\u00fcber2x", "STRA\u00dfE_name")) {
+      assertMatchesCaseFormatConversion(value);
+    }
+  }
+
+  private static void assertMatchesCaseFormatConversion(String value) {
+    String expected;
+    try {
+      expected = JavaStyle.toCamelCaseWithCaseFormat(value, false);
+    } catch (StringIndexOutOfBoundsException e) {
+      assertThrows(
+          value, StringIndexOutOfBoundsException.class, () -> JavaStyle.toLowerCamelCase(value));
+      assertThrows(
+          value, StringIndexOutOfBoundsException.class, () -> JavaStyle.toUpperCamelCase(value));
+      assertThrows(
+          value, StringIndexOutOfBoundsException.class, () -> JavaStyle.toUpperSnakeCase(value));
+      return;
+    }
+    assertEquals(value, expected, JavaStyle.toLowerCamelCase(value));
+    assertEquals(
+        value, JavaStyle.toCamelCaseWithCaseFormat(value, true), JavaStyle.toUpperCamelCase(value));
+    assertEquals(
+        value, JavaStyle.toUpperSnakeCaseWithCaseFormat(value), JavaStyle.toUpperSnakeCase(value));
+  }
 }
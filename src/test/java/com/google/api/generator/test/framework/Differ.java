@@ -18,30 +18,48 @@ import com.github.difflib.DiffUtils;
 import com.github.difflib.UnifiedDiffUtils;
 import com.github.difflib.algorithm.DiffException;
 import com.github.difflib.patch.Patch;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class Differ {
-  private static final String LINE_SPLITTER = "\\r?\\n";
+  private static final Pattern LINE_SPLITTER = Pattern.compile("\\r?\\n");
 
   public static List<String> diff(Path goldenFilePath, String codegen) {
-    List<String> revised = Arrays.asList(codegen.split(LINE_SPLITTER));
-    List<String> original = null;
+    byte[] golden = null;
     try {
-      original = Files.readAllLines(goldenFilePath);
+      golden = Files.readAllBytes(goldenFilePath);
     } catch (IOException e) {
       throw new GoldenFileReadException(
           String.format("Error occurs when reading golden file %s", goldenFilePath), e);
     }
+    // Most goldens match exactly, so compare the raw bytes before splitting either side into lines.
+    if (Arrays.equals(golden, codegen.getBytes(StandardCharsets.UTF_8))) {
+      return Collections.emptyList();
+    }
+    // Split the golden the same way Files.readAllLines does.
+    List<String> original =
+        new BufferedReader(new StringReader(new String(golden, StandardCharsets.UTF_8)))
+            .lines()
+            .collect(Collectors.toList());
+    List<String> revised = Arrays.asList(LINE_SPLITTER.split(codegen));
     return diffTwoStringLists(original, revised);
   }
 
   public static List<String> diff(String expectedStr, String actualStr) {
-    List<String> revised = Arrays.asList(actualStr.split(LINE_SPLITTER));
-    List<String> original = Arrays.asList(expectedStr.split(LINE_SPLITTER));
+    if (expectedStr.equals(actualStr)) {
+      return Collections.emptyList();
+    }
+    List<String> revised = Arrays.asList(LINE_SPLITTER.split(actualStr));
+    List<String> original = Arrays.asList(LINE_SPLITTER.split(expectedStr));
     return diffTwoStringLists(original, revised);
   }
 
@@ -0,0 +1,91 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.api.generator.benchmark;
+
+import com.google.api.gax.core.BackgroundResource;
+import com.google.api.gax.core.NoCredentialsProvider;
+import com.google.api.gax.rpc.ClientContext;
+import com.google.api.gax.rpc.StubSettings;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to construct a generated transport stub, e.g. to compare stubs
+ * generated with and without the lazy-callables option.
+ *
+ * <p>Usage: {@code StubStartupBenchmark <stub settings class> <transport stub class> [iterations]}
+ *
+ * <p>Classes are loaded by name so that the same binary works against any generated library. The
+ * ClientContext, which holds the channel and executor, is created once up front, so only the stub
+ * constructor and the callables it creates are timed.
+ */
+public class StubStartupBenchmark {
+  private static final int DEFAULT_ITERATIONS = 200;
+  private static final int WARMUP_ITERATIONS = 20;
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      System.err.println(
+          "Usage: StubStartupBenchmark <stub settings class> <transport stub class> [iterations]");
+      System.exit(1);
+    }
+    Class<?> stubSettingsClazz = Class.forName(args[0]);
+    Class<?> stubClazz = Class.forName(args[1]);
+    int iterations = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ITERATIONS;
+
+    StubSettings.Builder<?, ?> settingsBuilder =
+        (StubSettings.Builder<?, ?>) stubSettingsClazz.getMethod("newBuilder").invoke(null);
+    settingsBuilder.setCredentialsProvider(NoCredentialsProvider.create());
+    StubSettings<?> settings = settingsBuilder.build();
+    ClientContext clientContext = ClientContext.create(settings);
+    // Same constructor as the stub's create(settings) method, minus the ClientContext creation.
+    Constructor<?> stubConstructor =
+        stubClazz.getDeclaredConstructor(stubSettingsClazz, ClientContext.class);
+    stubConstructor.setAccessible(true);
+
+    // The first construction includes class loading and static initialization, which is what a
+    // cold start sees.
+    long coldStartNanos = timeStubCreation(stubConstructor, settings, clientContext);
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      timeStubCreation(stubConstructor, settings, clientContext);
+    }
+    long totalNanos = 0;
+    for (int i = 0; i < iterations; i++) {
+      totalNanos += timeStubCreation(stubConstructor, settings, clientContext);
+    }
+
+    // The stubs share the context's channel and executor, so these are only closed once.
+    for (BackgroundResource resource : clientContext.getBackgroundResources()) {
+      resource.shutdownNow();
+      resource.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    System.out.println(
+        String.format(
+            "%s: cold start %.3f ms, mean of %d warm constructions %.3f ms",
+            stubClazz.getSimpleName(),
+            coldStartNanos / (double) TimeUnit.MILLISECONDS.toNanos(1),
+            iterations,
+            totalNanos / (double) iterations / TimeUnit.MILLISECONDS.toNanos(1)));
+  }
+
+  private static long timeStubCreation(
+      Constructor<?> stubConstructor, StubSettings<?> settings, ClientContext clientContext)
+      throws Exception {
+    long startNanos = System.nanoTime();
+    stubConstructor.newInstance(settings, clientContext);
+    return System.nanoTime() - startNanos;
+  }
+}
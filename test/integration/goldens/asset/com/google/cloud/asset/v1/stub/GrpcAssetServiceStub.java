@@ -260,9 +260,7 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                 new RequestParamsExtractor<ExportAssetsRequest>() {
                   @Override
                   public Map<String, String> extract(ExportAssetsRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -273,9 +271,7 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                 new RequestParamsExtractor<ListAssetsRequest>() {
                   @Override
                   public Map<String, String> extract(ListAssetsRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -288,9 +284,7 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                     new RequestParamsExtractor<BatchGetAssetsHistoryRequest>() {
                       @Override
                       public Map<String, String> extract(BatchGetAssetsHistoryRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("parent", String.valueOf(request.getParent()));
-                        return params.build();
+                        return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                       }
                     })
                 .build();
@@ -301,9 +295,7 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                 new RequestParamsExtractor<CreateFeedRequest>() {
                   @Override
                   public Map<String, String> extract(CreateFeedRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -314,9 +306,7 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                 new RequestParamsExtractor<GetFeedRequest>() {
                   @Override
                   public Map<String, String> extract(GetFeedRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -327,9 +317,7 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                 new RequestParamsExtractor<ListFeedsRequest>() {
                   @Override
                   public Map<String, String> extract(ListFeedsRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -340,9 +328,8 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                 new RequestParamsExtractor<UpdateFeedRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateFeedRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("feed.name", String.valueOf(request.getFeed().getName()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "feed.name", String.valueOf(request.getFeed().getName()));
                   }
                 })
             .build();
@@ -353,9 +340,7 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                 new RequestParamsExtractor<DeleteFeedRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteFeedRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -367,9 +352,7 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                     new RequestParamsExtractor<SearchAllResourcesRequest>() {
                       @Override
                       public Map<String, String> extract(SearchAllResourcesRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("scope", String.valueOf(request.getScope()));
-                        return params.build();
+                        return ImmutableMap.of("scope", String.valueOf(request.getScope()));
                       }
                     })
                 .build();
@@ -381,9 +364,7 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                     new RequestParamsExtractor<SearchAllIamPoliciesRequest>() {
                       @Override
                       public Map<String, String> extract(SearchAllIamPoliciesRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("scope", String.valueOf(request.getScope()));
-                        return params.build();
+                        return ImmutableMap.of("scope", String.valueOf(request.getScope()));
                       }
                     })
                 .build();
@@ -395,11 +376,9 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                     new RequestParamsExtractor<AnalyzeIamPolicyRequest>() {
                       @Override
                       public Map<String, String> extract(AnalyzeIamPolicyRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put(
+                        return ImmutableMap.of(
                             "analysis_query.scope",
                             String.valueOf(request.getAnalysisQuery().getScope()));
-                        return params.build();
                       }
                     })
                 .build();
@@ -412,11 +391,9 @@ public class GrpcAssetServiceStub extends AssetServiceStub {
                       @Override
                       public Map<String, String> extract(
                           AnalyzeIamPolicyLongrunningRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put(
+                        return ImmutableMap.of(
                             "analysis_query.scope",
                             String.valueOf(request.getAnalysisQuery().getScope()));
-                        return params.build();
                       }
                     })
                 .build();
@@ -77,8 +77,6 @@ public class HttpJsonRegionOperationsStub extends RegionOperationsStub {
                             public Map<String, List<String>> extract(
                                 GetRegionOperationRequest request) {
                               Map<String, List<String>> fields = new HashMap<>();
-                              ProtoRestSerializer<GetRegionOperationRequest> serializer =
-                                  ProtoRestSerializer.create();
                               return fields;
                             }
                           })
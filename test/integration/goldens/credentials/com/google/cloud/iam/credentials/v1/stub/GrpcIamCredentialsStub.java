@@ -146,9 +146,7 @@ public class GrpcIamCredentialsStub extends IamCredentialsStub {
                     new RequestParamsExtractor<GenerateAccessTokenRequest>() {
                       @Override
                       public Map<String, String> extract(GenerateAccessTokenRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("name", String.valueOf(request.getName()));
-                        return params.build();
+                        return ImmutableMap.of("name", String.valueOf(request.getName()));
                       }
                     })
                 .build();
@@ -160,9 +158,7 @@ public class GrpcIamCredentialsStub extends IamCredentialsStub {
                     new RequestParamsExtractor<GenerateIdTokenRequest>() {
                       @Override
                       public Map<String, String> extract(GenerateIdTokenRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("name", String.valueOf(request.getName()));
-                        return params.build();
+                        return ImmutableMap.of("name", String.valueOf(request.getName()));
                       }
                     })
                 .build();
@@ -173,9 +169,7 @@ public class GrpcIamCredentialsStub extends IamCredentialsStub {
                 new RequestParamsExtractor<SignBlobRequest>() {
                   @Override
                   public Map<String, String> extract(SignBlobRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -186,9 +180,7 @@ public class GrpcIamCredentialsStub extends IamCredentialsStub {
                 new RequestParamsExtractor<SignJwtRequest>() {
                   @Override
                   public Map<String, String> extract(SignJwtRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
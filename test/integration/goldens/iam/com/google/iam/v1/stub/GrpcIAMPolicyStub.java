@@ -125,9 +125,7 @@ public class GrpcIAMPolicyStub extends IAMPolicyStub {
                 new RequestParamsExtractor<SetIamPolicyRequest>() {
                   @Override
                   public Map<String, String> extract(SetIamPolicyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("resource", String.valueOf(request.getResource()));
-                    return params.build();
+                    return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                   }
                 })
             .build();
@@ -138,9 +136,7 @@ public class GrpcIAMPolicyStub extends IAMPolicyStub {
                 new RequestParamsExtractor<GetIamPolicyRequest>() {
                   @Override
                   public Map<String, String> extract(GetIamPolicyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("resource", String.valueOf(request.getResource()));
-                    return params.build();
+                    return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                   }
                 })
             .build();
@@ -152,9 +148,7 @@ public class GrpcIAMPolicyStub extends IAMPolicyStub {
                     new RequestParamsExtractor<TestIamPermissionsRequest>() {
                       @Override
                       public Map<String, String> extract(TestIamPermissionsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("resource", String.valueOf(request.getResource()));
-                        return params.build();
+                        return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                       }
                     })
                 .build();
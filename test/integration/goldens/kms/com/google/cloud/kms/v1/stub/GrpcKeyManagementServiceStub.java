@@ -454,9 +454,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<ListKeyRingsRequest>() {
                   @Override
                   public Map<String, String> extract(ListKeyRingsRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -468,9 +466,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<ListCryptoKeysRequest>() {
                       @Override
                       public Map<String, String> extract(ListCryptoKeysRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("parent", String.valueOf(request.getParent()));
-                        return params.build();
+                        return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                       }
                     })
                 .build();
@@ -483,9 +479,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<ListCryptoKeyVersionsRequest>() {
                       @Override
                       public Map<String, String> extract(ListCryptoKeyVersionsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("parent", String.valueOf(request.getParent()));
-                        return params.build();
+                        return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                       }
                     })
                 .build();
@@ -497,9 +491,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<ListImportJobsRequest>() {
                       @Override
                       public Map<String, String> extract(ListImportJobsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("parent", String.valueOf(request.getParent()));
-                        return params.build();
+                        return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                       }
                     })
                 .build();
@@ -510,9 +502,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<GetKeyRingRequest>() {
                   @Override
                   public Map<String, String> extract(GetKeyRingRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -523,9 +513,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<GetCryptoKeyRequest>() {
                   @Override
                   public Map<String, String> extract(GetCryptoKeyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -537,9 +525,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<GetCryptoKeyVersionRequest>() {
                       @Override
                       public Map<String, String> extract(GetCryptoKeyVersionRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("name", String.valueOf(request.getName()));
-                        return params.build();
+                        return ImmutableMap.of("name", String.valueOf(request.getName()));
                       }
                     })
                 .build();
@@ -550,9 +536,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<GetPublicKeyRequest>() {
                   @Override
                   public Map<String, String> extract(GetPublicKeyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -563,9 +547,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<GetImportJobRequest>() {
                   @Override
                   public Map<String, String> extract(GetImportJobRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -576,9 +558,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<CreateKeyRingRequest>() {
                   @Override
                   public Map<String, String> extract(CreateKeyRingRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -589,9 +569,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<CreateCryptoKeyRequest>() {
                   @Override
                   public Map<String, String> extract(CreateCryptoKeyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -603,9 +581,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<CreateCryptoKeyVersionRequest>() {
                       @Override
                       public Map<String, String> extract(CreateCryptoKeyVersionRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("parent", String.valueOf(request.getParent()));
-                        return params.build();
+                        return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                       }
                     })
                 .build();
@@ -617,9 +593,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<ImportCryptoKeyVersionRequest>() {
                       @Override
                       public Map<String, String> extract(ImportCryptoKeyVersionRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("parent", String.valueOf(request.getParent()));
-                        return params.build();
+                        return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                       }
                     })
                 .build();
@@ -630,9 +604,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<CreateImportJobRequest>() {
                   @Override
                   public Map<String, String> extract(CreateImportJobRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -643,9 +615,8 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<UpdateCryptoKeyRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateCryptoKeyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("crypto_key.name", String.valueOf(request.getCryptoKey().getName()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "crypto_key.name", String.valueOf(request.getCryptoKey().getName()));
                   }
                 })
             .build();
@@ -657,11 +628,9 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<UpdateCryptoKeyVersionRequest>() {
                       @Override
                       public Map<String, String> extract(UpdateCryptoKeyVersionRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put(
+                        return ImmutableMap.of(
                             "crypto_key_version.name",
                             String.valueOf(request.getCryptoKeyVersion().getName()));
-                        return params.build();
                       }
                     })
                 .build();
@@ -672,9 +641,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<EncryptRequest>() {
                   @Override
                   public Map<String, String> extract(EncryptRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -685,9 +652,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<DecryptRequest>() {
                   @Override
                   public Map<String, String> extract(DecryptRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -699,9 +664,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<AsymmetricSignRequest>() {
                       @Override
                       public Map<String, String> extract(AsymmetricSignRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("name", String.valueOf(request.getName()));
-                        return params.build();
+                        return ImmutableMap.of("name", String.valueOf(request.getName()));
                       }
                     })
                 .build();
@@ -713,9 +676,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<AsymmetricDecryptRequest>() {
                       @Override
                       public Map<String, String> extract(AsymmetricDecryptRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("name", String.valueOf(request.getName()));
-                        return params.build();
+                        return ImmutableMap.of("name", String.valueOf(request.getName()));
                       }
                     })
                 .build();
@@ -728,9 +689,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                       @Override
                       public Map<String, String> extract(
                           UpdateCryptoKeyPrimaryVersionRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("name", String.valueOf(request.getName()));
-                        return params.build();
+                        return ImmutableMap.of("name", String.valueOf(request.getName()));
                       }
                     })
                 .build();
@@ -742,9 +701,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<DestroyCryptoKeyVersionRequest>() {
                       @Override
                       public Map<String, String> extract(DestroyCryptoKeyVersionRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("name", String.valueOf(request.getName()));
-                        return params.build();
+                        return ImmutableMap.of("name", String.valueOf(request.getName()));
                       }
                     })
                 .build();
@@ -756,9 +713,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<RestoreCryptoKeyVersionRequest>() {
                       @Override
                       public Map<String, String> extract(RestoreCryptoKeyVersionRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("name", String.valueOf(request.getName()));
-                        return params.build();
+                        return ImmutableMap.of("name", String.valueOf(request.getName()));
                       }
                     })
                 .build();
@@ -769,9 +724,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<GetIamPolicyRequest>() {
                   @Override
                   public Map<String, String> extract(GetIamPolicyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("resource", String.valueOf(request.getResource()));
-                    return params.build();
+                    return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                   }
                 })
             .build();
@@ -796,9 +749,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                 new RequestParamsExtractor<GetLocationRequest>() {
                   @Override
                   public Map<String, String> extract(GetLocationRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -810,9 +761,7 @@ public class GrpcKeyManagementServiceStub extends KeyManagementServiceStub {
                     new RequestParamsExtractor<TestIamPermissionsRequest>() {
                       @Override
                       public Map<String, String> extract(TestIamPermissionsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("resource", String.valueOf(request.getResource()));
-                        return params.build();
+                        return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                       }
                     })
                 .build();
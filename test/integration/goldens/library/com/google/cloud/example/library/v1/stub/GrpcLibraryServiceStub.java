@@ -220,9 +220,7 @@ public class GrpcLibraryServiceStub extends LibraryServiceStub {
                 new RequestParamsExtractor<GetShelfRequest>() {
                   @Override
                   public Map<String, String> extract(GetShelfRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -237,9 +235,7 @@ public class GrpcLibraryServiceStub extends LibraryServiceStub {
                 new RequestParamsExtractor<DeleteShelfRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteShelfRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -250,9 +246,7 @@ public class GrpcLibraryServiceStub extends LibraryServiceStub {
                 new RequestParamsExtractor<MergeShelvesRequest>() {
                   @Override
                   public Map<String, String> extract(MergeShelvesRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -263,9 +257,7 @@ public class GrpcLibraryServiceStub extends LibraryServiceStub {
                 new RequestParamsExtractor<CreateBookRequest>() {
                   @Override
                   public Map<String, String> extract(CreateBookRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -276,9 +268,7 @@ public class GrpcLibraryServiceStub extends LibraryServiceStub {
                 new RequestParamsExtractor<GetBookRequest>() {
                   @Override
                   public Map<String, String> extract(GetBookRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -289,9 +279,7 @@ public class GrpcLibraryServiceStub extends LibraryServiceStub {
                 new RequestParamsExtractor<ListBooksRequest>() {
                   @Override
                   public Map<String, String> extract(ListBooksRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -302,9 +290,7 @@ public class GrpcLibraryServiceStub extends LibraryServiceStub {
                 new RequestParamsExtractor<DeleteBookRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteBookRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -315,9 +301,8 @@ public class GrpcLibraryServiceStub extends LibraryServiceStub {
                 new RequestParamsExtractor<UpdateBookRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateBookRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("book.name", String.valueOf(request.getBook().getName()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "book.name", String.valueOf(request.getBook().getName()));
                   }
                 })
             .build();
@@ -328,9 +313,7 @@ public class GrpcLibraryServiceStub extends LibraryServiceStub {
                 new RequestParamsExtractor<MoveBookRequest>() {
                   @Override
                   public Map<String, String> extract(MoveBookRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -365,9 +365,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<ListBucketsRequest>() {
                   @Override
                   public Map<String, String> extract(ListBucketsRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -378,9 +376,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<GetBucketRequest>() {
                   @Override
                   public Map<String, String> extract(GetBucketRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -391,9 +387,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<CreateBucketRequest>() {
                   @Override
                   public Map<String, String> extract(CreateBucketRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -404,9 +398,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<UpdateBucketRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateBucketRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -417,9 +409,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<DeleteBucketRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteBucketRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -430,9 +420,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<UndeleteBucketRequest>() {
                   @Override
                   public Map<String, String> extract(UndeleteBucketRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -443,9 +431,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<ListViewsRequest>() {
                   @Override
                   public Map<String, String> extract(ListViewsRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -456,9 +442,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<GetViewRequest>() {
                   @Override
                   public Map<String, String> extract(GetViewRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -469,9 +453,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<CreateViewRequest>() {
                   @Override
                   public Map<String, String> extract(CreateViewRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -482,9 +464,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<UpdateViewRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateViewRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -495,9 +475,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<DeleteViewRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteViewRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -508,9 +486,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<ListSinksRequest>() {
                   @Override
                   public Map<String, String> extract(ListSinksRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -521,9 +497,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<GetSinkRequest>() {
                   @Override
                   public Map<String, String> extract(GetSinkRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("sink_name", String.valueOf(request.getSinkName()));
-                    return params.build();
+                    return ImmutableMap.of("sink_name", String.valueOf(request.getSinkName()));
                   }
                 })
             .build();
@@ -534,9 +508,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<CreateSinkRequest>() {
                   @Override
                   public Map<String, String> extract(CreateSinkRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -547,9 +519,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<UpdateSinkRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateSinkRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("sink_name", String.valueOf(request.getSinkName()));
-                    return params.build();
+                    return ImmutableMap.of("sink_name", String.valueOf(request.getSinkName()));
                   }
                 })
             .build();
@@ -560,9 +530,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<DeleteSinkRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteSinkRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("sink_name", String.valueOf(request.getSinkName()));
-                    return params.build();
+                    return ImmutableMap.of("sink_name", String.valueOf(request.getSinkName()));
                   }
                 })
             .build();
@@ -574,9 +542,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                     new RequestParamsExtractor<ListExclusionsRequest>() {
                       @Override
                       public Map<String, String> extract(ListExclusionsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("parent", String.valueOf(request.getParent()));
-                        return params.build();
+                        return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                       }
                     })
                 .build();
@@ -587,9 +553,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<GetExclusionRequest>() {
                   @Override
                   public Map<String, String> extract(GetExclusionRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -600,9 +564,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<CreateExclusionRequest>() {
                   @Override
                   public Map<String, String> extract(CreateExclusionRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -613,9 +575,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<UpdateExclusionRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateExclusionRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -626,9 +586,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<DeleteExclusionRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteExclusionRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -639,9 +597,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<GetCmekSettingsRequest>() {
                   @Override
                   public Map<String, String> extract(GetCmekSettingsRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -652,9 +608,7 @@ public class GrpcConfigServiceV2Stub extends ConfigServiceV2Stub {
                 new RequestParamsExtractor<UpdateCmekSettingsRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateCmekSettingsRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
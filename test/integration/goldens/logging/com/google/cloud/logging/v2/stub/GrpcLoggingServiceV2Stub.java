@@ -192,9 +192,7 @@ public class GrpcLoggingServiceV2Stub extends LoggingServiceV2Stub {
                 new RequestParamsExtractor<DeleteLogRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteLogRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("log_name", String.valueOf(request.getLogName()));
-                    return params.build();
+                    return ImmutableMap.of("log_name", String.valueOf(request.getLogName()));
                   }
                 })
             .build();
@@ -223,9 +221,7 @@ public class GrpcLoggingServiceV2Stub extends LoggingServiceV2Stub {
                 new RequestParamsExtractor<ListLogsRequest>() {
                   @Override
                   public Map<String, String> extract(ListLogsRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
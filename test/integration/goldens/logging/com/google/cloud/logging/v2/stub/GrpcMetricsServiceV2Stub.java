@@ -160,9 +160,7 @@ public class GrpcMetricsServiceV2Stub extends MetricsServiceV2Stub {
                     new RequestParamsExtractor<ListLogMetricsRequest>() {
                       @Override
                       public Map<String, String> extract(ListLogMetricsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("parent", String.valueOf(request.getParent()));
-                        return params.build();
+                        return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                       }
                     })
                 .build();
@@ -173,9 +171,7 @@ public class GrpcMetricsServiceV2Stub extends MetricsServiceV2Stub {
                 new RequestParamsExtractor<GetLogMetricRequest>() {
                   @Override
                   public Map<String, String> extract(GetLogMetricRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("metric_name", String.valueOf(request.getMetricName()));
-                    return params.build();
+                    return ImmutableMap.of("metric_name", String.valueOf(request.getMetricName()));
                   }
                 })
             .build();
@@ -186,9 +182,7 @@ public class GrpcMetricsServiceV2Stub extends MetricsServiceV2Stub {
                 new RequestParamsExtractor<CreateLogMetricRequest>() {
                   @Override
                   public Map<String, String> extract(CreateLogMetricRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -199,9 +193,7 @@ public class GrpcMetricsServiceV2Stub extends MetricsServiceV2Stub {
                 new RequestParamsExtractor<UpdateLogMetricRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateLogMetricRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("metric_name", String.valueOf(request.getMetricName()));
-                    return params.build();
+                    return ImmutableMap.of("metric_name", String.valueOf(request.getMetricName()));
                   }
                 })
             .build();
@@ -212,9 +204,7 @@ public class GrpcMetricsServiceV2Stub extends MetricsServiceV2Stub {
                 new RequestParamsExtractor<DeleteLogMetricRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteLogMetricRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("metric_name", String.valueOf(request.getMetricName()));
-                    return params.build();
+                    return ImmutableMap.of("metric_name", String.valueOf(request.getMetricName()));
                   }
                 })
             .build();
@@ -245,9 +245,7 @@ public class GrpcPublisherStub extends PublisherStub {
                 new RequestParamsExtractor<Topic>() {
                   @Override
                   public Map<String, String> extract(Topic request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -258,9 +256,8 @@ public class GrpcPublisherStub extends PublisherStub {
                 new RequestParamsExtractor<UpdateTopicRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateTopicRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("topic.name", String.valueOf(request.getTopic().getName()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "topic.name", String.valueOf(request.getTopic().getName()));
                   }
                 })
             .build();
@@ -271,9 +268,7 @@ public class GrpcPublisherStub extends PublisherStub {
                 new RequestParamsExtractor<PublishRequest>() {
                   @Override
                   public Map<String, String> extract(PublishRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("topic", String.valueOf(request.getTopic()));
-                    return params.build();
+                    return ImmutableMap.of("topic", String.valueOf(request.getTopic()));
                   }
                 })
             .build();
@@ -284,9 +279,7 @@ public class GrpcPublisherStub extends PublisherStub {
                 new RequestParamsExtractor<GetTopicRequest>() {
                   @Override
                   public Map<String, String> extract(GetTopicRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("topic", String.valueOf(request.getTopic()));
-                    return params.build();
+                    return ImmutableMap.of("topic", String.valueOf(request.getTopic()));
                   }
                 })
             .build();
@@ -297,9 +290,7 @@ public class GrpcPublisherStub extends PublisherStub {
                 new RequestParamsExtractor<ListTopicsRequest>() {
                   @Override
                   public Map<String, String> extract(ListTopicsRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("project", String.valueOf(request.getProject()));
-                    return params.build();
+                    return ImmutableMap.of("project", String.valueOf(request.getProject()));
                   }
                 })
             .build();
@@ -312,9 +303,7 @@ public class GrpcPublisherStub extends PublisherStub {
                     new RequestParamsExtractor<ListTopicSubscriptionsRequest>() {
                       @Override
                       public Map<String, String> extract(ListTopicSubscriptionsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("topic", String.valueOf(request.getTopic()));
-                        return params.build();
+                        return ImmutableMap.of("topic", String.valueOf(request.getTopic()));
                       }
                     })
                 .build();
@@ -326,9 +315,7 @@ public class GrpcPublisherStub extends PublisherStub {
                     new RequestParamsExtractor<ListTopicSnapshotsRequest>() {
                       @Override
                       public Map<String, String> extract(ListTopicSnapshotsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("topic", String.valueOf(request.getTopic()));
-                        return params.build();
+                        return ImmutableMap.of("topic", String.valueOf(request.getTopic()));
                       }
                     })
                 .build();
@@ -339,9 +326,7 @@ public class GrpcPublisherStub extends PublisherStub {
                 new RequestParamsExtractor<DeleteTopicRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteTopicRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("topic", String.valueOf(request.getTopic()));
-                    return params.build();
+                    return ImmutableMap.of("topic", String.valueOf(request.getTopic()));
                   }
                 })
             .build();
@@ -353,9 +338,8 @@ public class GrpcPublisherStub extends PublisherStub {
                     new RequestParamsExtractor<DetachSubscriptionRequest>() {
                       @Override
                       public Map<String, String> extract(DetachSubscriptionRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("subscription", String.valueOf(request.getSubscription()));
-                        return params.build();
+                        return ImmutableMap.of(
+                            "subscription", String.valueOf(request.getSubscription()));
                       }
                     })
                 .build();
@@ -366,9 +350,7 @@ public class GrpcPublisherStub extends PublisherStub {
                 new RequestParamsExtractor<SetIamPolicyRequest>() {
                   @Override
                   public Map<String, String> extract(SetIamPolicyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("resource", String.valueOf(request.getResource()));
-                    return params.build();
+                    return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                   }
                 })
             .build();
@@ -379,9 +361,7 @@ public class GrpcPublisherStub extends PublisherStub {
                 new RequestParamsExtractor<GetIamPolicyRequest>() {
                   @Override
                   public Map<String, String> extract(GetIamPolicyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("resource", String.valueOf(request.getResource()));
-                    return params.build();
+                    return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                   }
                 })
             .build();
@@ -393,9 +373,7 @@ public class GrpcPublisherStub extends PublisherStub {
                     new RequestParamsExtractor<TestIamPermissionsRequest>() {
                       @Override
                       public Map<String, String> extract(TestIamPermissionsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("resource", String.valueOf(request.getResource()));
-                        return params.build();
+                        return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                       }
                     })
                 .build();
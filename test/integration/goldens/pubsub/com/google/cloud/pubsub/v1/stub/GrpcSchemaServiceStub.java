@@ -204,9 +204,7 @@ public class GrpcSchemaServiceStub extends SchemaServiceStub {
                 new RequestParamsExtractor<CreateSchemaRequest>() {
                   @Override
                   public Map<String, String> extract(CreateSchemaRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -217,9 +215,7 @@ public class GrpcSchemaServiceStub extends SchemaServiceStub {
                 new RequestParamsExtractor<GetSchemaRequest>() {
                   @Override
                   public Map<String, String> extract(GetSchemaRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -230,9 +226,7 @@ public class GrpcSchemaServiceStub extends SchemaServiceStub {
                 new RequestParamsExtractor<ListSchemasRequest>() {
                   @Override
                   public Map<String, String> extract(ListSchemasRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -243,9 +237,7 @@ public class GrpcSchemaServiceStub extends SchemaServiceStub {
                 new RequestParamsExtractor<DeleteSchemaRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteSchemaRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -257,9 +249,7 @@ public class GrpcSchemaServiceStub extends SchemaServiceStub {
                     new RequestParamsExtractor<ValidateSchemaRequest>() {
                       @Override
                       public Map<String, String> extract(ValidateSchemaRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("parent", String.valueOf(request.getParent()));
-                        return params.build();
+                        return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                       }
                     })
                 .build();
@@ -271,9 +261,7 @@ public class GrpcSchemaServiceStub extends SchemaServiceStub {
                     new RequestParamsExtractor<ValidateMessageRequest>() {
                       @Override
                       public Map<String, String> extract(ValidateMessageRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("parent", String.valueOf(request.getParent()));
-                        return params.build();
+                        return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                       }
                     })
                 .build();
@@ -284,9 +272,7 @@ public class GrpcSchemaServiceStub extends SchemaServiceStub {
                 new RequestParamsExtractor<SetIamPolicyRequest>() {
                   @Override
                   public Map<String, String> extract(SetIamPolicyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("resource", String.valueOf(request.getResource()));
-                    return params.build();
+                    return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                   }
                 })
             .build();
@@ -297,9 +283,7 @@ public class GrpcSchemaServiceStub extends SchemaServiceStub {
                 new RequestParamsExtractor<GetIamPolicyRequest>() {
                   @Override
                   public Map<String, String> extract(GetIamPolicyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("resource", String.valueOf(request.getResource()));
-                    return params.build();
+                    return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                   }
                 })
             .build();
@@ -311,9 +295,7 @@ public class GrpcSchemaServiceStub extends SchemaServiceStub {
                     new RequestParamsExtractor<TestIamPermissionsRequest>() {
                       @Override
                       public Map<String, String> extract(TestIamPermissionsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("resource", String.valueOf(request.getResource()));
-                        return params.build();
+                        return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                       }
                     })
                 .build();
@@ -329,9 +329,7 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<Subscription>() {
                   @Override
                   public Map<String, String> extract(Subscription request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -342,9 +340,8 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<GetSubscriptionRequest>() {
                   @Override
                   public Map<String, String> extract(GetSubscriptionRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("subscription", String.valueOf(request.getSubscription()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "subscription", String.valueOf(request.getSubscription()));
                   }
                 })
             .build();
@@ -355,10 +352,8 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<UpdateSubscriptionRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateSubscriptionRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put(
+                    return ImmutableMap.of(
                         "subscription.name", String.valueOf(request.getSubscription().getName()));
-                    return params.build();
                   }
                 })
             .build();
@@ -370,9 +365,7 @@ public class GrpcSubscriberStub extends SubscriberStub {
                     new RequestParamsExtractor<ListSubscriptionsRequest>() {
                       @Override
                       public Map<String, String> extract(ListSubscriptionsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("project", String.valueOf(request.getProject()));
-                        return params.build();
+                        return ImmutableMap.of("project", String.valueOf(request.getProject()));
                       }
                     })
                 .build();
@@ -383,9 +376,8 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<DeleteSubscriptionRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteSubscriptionRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("subscription", String.valueOf(request.getSubscription()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "subscription", String.valueOf(request.getSubscription()));
                   }
                 })
             .build();
@@ -396,9 +388,8 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<ModifyAckDeadlineRequest>() {
                   @Override
                   public Map<String, String> extract(ModifyAckDeadlineRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("subscription", String.valueOf(request.getSubscription()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "subscription", String.valueOf(request.getSubscription()));
                   }
                 })
             .build();
@@ -409,9 +400,8 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<AcknowledgeRequest>() {
                   @Override
                   public Map<String, String> extract(AcknowledgeRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("subscription", String.valueOf(request.getSubscription()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "subscription", String.valueOf(request.getSubscription()));
                   }
                 })
             .build();
@@ -422,9 +412,8 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<PullRequest>() {
                   @Override
                   public Map<String, String> extract(PullRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("subscription", String.valueOf(request.getSubscription()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "subscription", String.valueOf(request.getSubscription()));
                   }
                 })
             .build();
@@ -439,9 +428,8 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<ModifyPushConfigRequest>() {
                   @Override
                   public Map<String, String> extract(ModifyPushConfigRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("subscription", String.valueOf(request.getSubscription()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "subscription", String.valueOf(request.getSubscription()));
                   }
                 })
             .build();
@@ -452,9 +440,7 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<GetSnapshotRequest>() {
                   @Override
                   public Map<String, String> extract(GetSnapshotRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("snapshot", String.valueOf(request.getSnapshot()));
-                    return params.build();
+                    return ImmutableMap.of("snapshot", String.valueOf(request.getSnapshot()));
                   }
                 })
             .build();
@@ -465,9 +451,7 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<ListSnapshotsRequest>() {
                   @Override
                   public Map<String, String> extract(ListSnapshotsRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("project", String.valueOf(request.getProject()));
-                    return params.build();
+                    return ImmutableMap.of("project", String.valueOf(request.getProject()));
                   }
                 })
             .build();
@@ -478,9 +462,7 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<CreateSnapshotRequest>() {
                   @Override
                   public Map<String, String> extract(CreateSnapshotRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -491,9 +473,8 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<UpdateSnapshotRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateSnapshotRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("snapshot.name", String.valueOf(request.getSnapshot().getName()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "snapshot.name", String.valueOf(request.getSnapshot().getName()));
                   }
                 })
             .build();
@@ -504,9 +485,7 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<DeleteSnapshotRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteSnapshotRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("snapshot", String.valueOf(request.getSnapshot()));
-                    return params.build();
+                    return ImmutableMap.of("snapshot", String.valueOf(request.getSnapshot()));
                   }
                 })
             .build();
@@ -517,9 +496,8 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<SeekRequest>() {
                   @Override
                   public Map<String, String> extract(SeekRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("subscription", String.valueOf(request.getSubscription()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "subscription", String.valueOf(request.getSubscription()));
                   }
                 })
             .build();
@@ -530,9 +508,7 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<SetIamPolicyRequest>() {
                   @Override
                   public Map<String, String> extract(SetIamPolicyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("resource", String.valueOf(request.getResource()));
-                    return params.build();
+                    return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                   }
                 })
             .build();
@@ -543,9 +519,7 @@ public class GrpcSubscriberStub extends SubscriberStub {
                 new RequestParamsExtractor<GetIamPolicyRequest>() {
                   @Override
                   public Map<String, String> extract(GetIamPolicyRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("resource", String.valueOf(request.getResource()));
-                    return params.build();
+                    return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                   }
                 })
             .build();
@@ -557,9 +531,7 @@ public class GrpcSubscriberStub extends SubscriberStub {
                     new RequestParamsExtractor<TestIamPermissionsRequest>() {
                       @Override
                       public Map<String, String> extract(TestIamPermissionsRequest request) {
-                        ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                        params.put("resource", String.valueOf(request.getResource()));
-                        return params.build();
+                        return ImmutableMap.of("resource", String.valueOf(request.getResource()));
                       }
                     })
                 .build();
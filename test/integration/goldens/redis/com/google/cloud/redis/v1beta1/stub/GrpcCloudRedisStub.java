@@ -223,9 +223,7 @@ public class GrpcCloudRedisStub extends CloudRedisStub {
                 new RequestParamsExtractor<ListInstancesRequest>() {
                   @Override
                   public Map<String, String> extract(ListInstancesRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -236,9 +234,7 @@ public class GrpcCloudRedisStub extends CloudRedisStub {
                 new RequestParamsExtractor<GetInstanceRequest>() {
                   @Override
                   public Map<String, String> extract(GetInstanceRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -249,9 +245,7 @@ public class GrpcCloudRedisStub extends CloudRedisStub {
                 new RequestParamsExtractor<CreateInstanceRequest>() {
                   @Override
                   public Map<String, String> extract(CreateInstanceRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("parent", String.valueOf(request.getParent()));
-                    return params.build();
+                    return ImmutableMap.of("parent", String.valueOf(request.getParent()));
                   }
                 })
             .build();
@@ -262,9 +256,8 @@ public class GrpcCloudRedisStub extends CloudRedisStub {
                 new RequestParamsExtractor<UpdateInstanceRequest>() {
                   @Override
                   public Map<String, String> extract(UpdateInstanceRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("instance.name", String.valueOf(request.getInstance().getName()));
-                    return params.build();
+                    return ImmutableMap.of(
+                        "instance.name", String.valueOf(request.getInstance().getName()));
                   }
                 })
             .build();
@@ -275,9 +268,7 @@ public class GrpcCloudRedisStub extends CloudRedisStub {
                 new RequestParamsExtractor<UpgradeInstanceRequest>() {
                   @Override
                   public Map<String, String> extract(UpgradeInstanceRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -288,9 +279,7 @@ public class GrpcCloudRedisStub extends CloudRedisStub {
                 new RequestParamsExtractor<ImportInstanceRequest>() {
                   @Override
                   public Map<String, String> extract(ImportInstanceRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -301,9 +290,7 @@ public class GrpcCloudRedisStub extends CloudRedisStub {
                 new RequestParamsExtractor<ExportInstanceRequest>() {
                   @Override
                   public Map<String, String> extract(ExportInstanceRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -314,9 +301,7 @@ public class GrpcCloudRedisStub extends CloudRedisStub {
                 new RequestParamsExtractor<FailoverInstanceRequest>() {
                   @Override
                   public Map<String, String> extract(FailoverInstanceRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
@@ -327,9 +312,7 @@ public class GrpcCloudRedisStub extends CloudRedisStub {
                 new RequestParamsExtractor<DeleteInstanceRequest>() {
                   @Override
                   public Map<String, String> extract(DeleteInstanceRequest request) {
-                    ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
-                    params.put("name", String.valueOf(request.getName()));
-                    return params.build();
+                    return ImmutableMap.of("name", String.valueOf(request.getName()));
                   }
                 })
             .build();
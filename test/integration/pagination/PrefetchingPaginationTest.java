@@ -0,0 +1,217 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.api.generator.pagination;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.grpc.GrpcCallContext;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.UnaryCallable;
+import com.google.cloud.kms.v1.KeyManagementServiceClient.ListKeyRingsPagedResponse;
+import com.google.cloud.kms.v1.KeyRing;
+import com.google.cloud.kms.v1.ListKeyRingsRequest;
+import com.google.cloud.kms.v1.ListKeyRingsResponse;
+import com.google.cloud.kms.v1.stub.KeyManagementServiceStubSettings;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Checks the runtime behavior of the paged responses generated with the prefetching-pagination
+ * option. Pages are served by a fake callable whose requests stay in flight until the test answers
+ * them, so that the number of outstanding page requests can be observed.
+ */
+public class PrefetchingPaginationTest {
+  private static final int PAGE_COUNT = 6;
+  private static final int KEY_RINGS_PER_PAGE = 3;
+  private static final int PREFETCH_DEPTH = 2;
+
+  @Test
+  public void iterateAllPrefetching_boundsRequestsByPrefetchDepth() throws Exception {
+    FakeListKeyRingsCallable callable = new FakeListKeyRingsCallable(PAGE_COUNT);
+    Iterator<KeyRing> keyRings =
+        createPagedResponse(callable).iterateAllPrefetching(PREFETCH_DEPTH).iterator();
+    // Nothing is requested until the iterator is advanced.
+    assertEquals(0, callable.requestCount());
+
+    int keyRingCount = 0;
+    while (keyRings.hasNext()) {
+      int currentPage = pageOf(keyRings.next());
+      keyRingCount++;
+      assertTrue(callable.pendingCount() <= PREFETCH_DEPTH);
+      // Answer every outstanding request so that only the prefetch depth limits what is requested.
+      callable.completeAll();
+      assertEquals(Math.min(currentPage + PREFETCH_DEPTH, PAGE_COUNT - 1), callable.requestCount());
+    }
+
+    assertEquals(PAGE_COUNT * KEY_RINGS_PER_PAGE, keyRingCount);
+    // Every page after the first one was requested exactly once, and nothing past the last one.
+    assertEquals(expectedPageTokens(PAGE_COUNT), callable.requestedPageTokens());
+    assertFalse(keyRings.hasNext());
+    assertEquals(0, callable.pendingCount());
+  }
+
+  @Test
+  public void iterateAllPrefetching_endsAfterLastPage() throws Exception {
+    FakeListKeyRingsCallable callable = new FakeListKeyRingsCallable(1);
+    Iterator<KeyRing> keyRings =
+        createPagedResponse(callable).iterateAllPrefetching(PREFETCH_DEPTH).iterator();
+
+    int keyRingCount = 0;
+    while (keyRings.hasNext()) {
+      keyRings.next();
+      keyRingCount++;
+    }
+
+    assertEquals(KEY_RINGS_PER_PAGE, keyRingCount);
+    assertEquals(0, callable.requestCount());
+  }
+
+  @Test
+  public void streamAllPrefetching_returnsAllElementsInOrder() throws Exception {
+    FakeListKeyRingsCallable callable = new FakeListKeyRingsCallable(PAGE_COUNT);
+    callable.completeImmediately();
+
+    List<String> names = new ArrayList<>();
+    createPagedResponse(callable)
+        .streamAllPrefetching(PREFETCH_DEPTH)
+        .forEach(keyRing -> names.add(keyRing.getName()));
+
+    List<String> expectedNames = new ArrayList<>();
+    for (int page = 0; page < PAGE_COUNT; page++) {
+      for (int i = 0; i < KEY_RINGS_PER_PAGE; i++) {
+        expectedNames.add(keyRingName(page, i));
+      }
+    }
+    assertEquals(expectedNames, names);
+    assertEquals(expectedPageTokens(PAGE_COUNT), callable.requestedPageTokens());
+  }
+
+  @Test
+  public void iterateAllPrefetching_rejectsNonPositiveDepth() throws Exception {
+    ListKeyRingsPagedResponse pagedResponse =
+        createPagedResponse(new FakeListKeyRingsCallable(PAGE_COUNT));
+
+    assertThrows(IllegalArgumentException.class, () -> pagedResponse.iterateAllPrefetching(0));
+    assertThrows(IllegalArgumentException.class, () -> pagedResponse.streamAllPrefetching(-1));
+  }
+
+  private static ListKeyRingsPagedResponse createPagedResponse(FakeListKeyRingsCallable callable)
+      throws Exception {
+    ListKeyRingsRequest request =
+        ListKeyRingsRequest.newBuilder().setPageSize(KEY_RINGS_PER_PAGE).build();
+    return KeyManagementServiceStubSettings.newBuilder()
+        .build()
+        .listKeyRingsSettings()
+        .getPagedListResponseFactory()
+        .getFuturePagedResponse(
+            callable,
+            request,
+            GrpcCallContext.createDefault(),
+            ApiFutures.immediateFuture(callable.createResponse(0)))
+        .get();
+  }
+
+  private static List<String> expectedPageTokens(int pageCount) {
+    List<String> pageTokens = new ArrayList<>();
+    for (int page = 1; page < pageCount; page++) {
+      pageTokens.add(String.valueOf(page));
+    }
+    return pageTokens;
+  }
+
+  private static String keyRingName(int page, int index) {
+    return String.format("projects/p/locations/l/keyRings/%d-%d", page, index);
+  }
+
+  private static int pageOf(KeyRing keyRing) {
+    String name = keyRing.getName();
+    return Integer.parseInt(name.substring(name.lastIndexOf('/') + 1, name.lastIndexOf('-')));
+  }
+
+  /**
+   * Serves pageCount pages, using the page index as the page token. Responses are held back until
+   * completeAll is called, unless completeImmediately was called first.
+   */
+  private static class FakeListKeyRingsCallable
+      extends UnaryCallable<ListKeyRingsRequest, ListKeyRingsResponse> {
+    private final int pageCount;
+    private final List<String> requestedPageTokens = new ArrayList<>();
+    private final Map<String, SettableApiFuture<ListKeyRingsResponse>> pendingResponses =
+        new LinkedHashMap<>();
+    private boolean completeImmediately;
+
+    private FakeListKeyRingsCallable(int pageCount) {
+      this.pageCount = pageCount;
+    }
+
+    @Override
+    public ApiFuture<ListKeyRingsResponse> futureCall(
+        ListKeyRingsRequest request, ApiCallContext context) {
+      String pageToken = request.getPageToken();
+      requestedPageTokens.add(pageToken);
+      if (completeImmediately) {
+        return ApiFutures.immediateFuture(createResponse(Integer.parseInt(pageToken)));
+      }
+      SettableApiFuture<ListKeyRingsResponse> response = SettableApiFuture.create();
+      pendingResponses.put(pageToken, response);
+      return response;
+    }
+
+    private void completeImmediately() {
+      completeImmediately = true;
+    }
+
+    /** Answers outstanding requests, including ones issued while answering, until none remain. */
+    private void completeAll() {
+      while (!pendingResponses.isEmpty()) {
+        String pageToken = pendingResponses.keySet().iterator().next();
+        pendingResponses.remove(pageToken).set(createResponse(Integer.parseInt(pageToken)));
+      }
+    }
+
+    private ListKeyRingsResponse createResponse(int page) {
+      ListKeyRingsResponse.Builder response = ListKeyRingsResponse.newBuilder();
+      for (int i = 0; i < KEY_RINGS_PER_PAGE; i++) {
+        response.addKeyRings(KeyRing.newBuilder().setName(keyRingName(page, i)));
+      }
+      if (page + 1 < pageCount) {
+        response.setNextPageToken(String.valueOf(page + 1));
+      }
+      return response.build();
+    }
+
+    private int requestCount() {
+      return requestedPageTokens.size();
+    }
+
+    private int pendingCount() {
+      return pendingResponses.size();
+    }
+
+    private List<String> requestedPageTokens() {
+      return requestedPageTokens;
+    }
+  }
+}